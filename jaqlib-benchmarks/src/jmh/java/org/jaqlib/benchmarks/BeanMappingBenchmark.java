@@ -0,0 +1,110 @@
+package org.jaqlib.benchmarks;
+
+import org.jaqlib.core.DsResultSet;
+import org.jaqlib.core.bean.BeanMapping;
+import org.jaqlib.core.bean.FieldMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapping of data source rows to Java beans with
+ * {@link BeanMapping#getValue(DsResultSet)}. The row is provided by an in
+ * memory result set so only the mapping costs are measured. The
+ * <tt>manual</tt> benchmark is the baseline of a hand written mapping.
+ *
+ * @author Werner Fragner
+ */
+@State(Scope.Benchmark)
+public class BeanMappingBenchmark
+{
+
+  private BeanMapping<BenchmarkAccount> mapping;
+  private RowResultSet rs;
+
+
+  @Setup
+  public void setUp()
+  {
+    rs = new RowResultSet(BenchmarkAccount.create(42));
+    mapping = new BeanMapping<>(BenchmarkAccount.class);
+    // resolve the field mappings before the measurement
+    mapping.getValue(rs);
+  }
+
+
+  @Benchmark
+  public BenchmarkAccount beanMapping()
+  {
+    return mapping.getValue(rs);
+  }
+
+
+  @Benchmark
+  public BenchmarkAccount manual()
+  {
+    BenchmarkAccount account = new BenchmarkAccount();
+    account.setId((Long) rs.getValue("id"));
+    account.setLastName((String) rs.getValue("lastName"));
+    account.setFirstName((String) rs.getValue("firstName"));
+    account.setBalance((Double) rs.getValue("balance"));
+    account.setDepartment((String) rs.getValue("department"));
+    return account;
+  }
+
+
+  /**
+   * Result set that returns the values of a single account for every row.
+   */
+  private static class RowResultSet implements DsResultSet
+  {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+
+    RowResultSet(BenchmarkAccount account)
+    {
+      values.put("id", account.getId());
+      values.put("lastName", account.getLastName());
+      values.put("firstName", account.getFirstName());
+      values.put("balance", account.getBalance());
+      values.put("department", account.getDepartment());
+    }
+
+
+    Object getValue(String name)
+    {
+      return values.get(name);
+    }
+
+
+    public boolean next()
+    {
+      return true;
+    }
+
+
+    public Object getObject(FieldMapping<?> mapping)
+    {
+      final Object value = values.get(mapping.getSourceName());
+      return (value != null) ? value : DsResultSet.NO_RESULT;
+    }
+
+
+    public Object getAnynomousObject(FieldMapping<?> mapping)
+    {
+      return getObject(mapping);
+    }
+
+
+    public void close()
+    {
+    }
+
+  }
+
+}
@@ -0,0 +1,98 @@
+package org.jaqlib.benchmarks;
+
+/**
+ * Simple Java bean that is used as element type by all benchmarks.
+ *
+ * @author Werner Fragner
+ */
+public class BenchmarkAccount
+{
+
+  public static final String[] DEPARTMENTS = { "linz", "wien", "graz",
+      "salzburg" };
+
+  private Long id;
+  private String lastName;
+  private String firstName;
+  private Double balance;
+  private String department;
+
+
+  /**
+   * Creates a new account with deterministic values for the given id.
+   *
+   * @param id the id of the account.
+   * @return a new account.
+   */
+  public static BenchmarkAccount create(long id)
+  {
+    BenchmarkAccount account = new BenchmarkAccount();
+    account.setId(id);
+    account.setLastName("lastName" + id);
+    account.setFirstName("firstName" + id);
+    account.setBalance((double) ((id * 7919) % 10000));
+    account.setDepartment(DEPARTMENTS[(int) (id % DEPARTMENTS.length)]);
+    return account;
+  }
+
+
+  public Long getId()
+  {
+    return id;
+  }
+
+
+  public void setId(Long id)
+  {
+    this.id = id;
+  }
+
+
+  public String getLastName()
+  {
+    return lastName;
+  }
+
+
+  public void setLastName(String lastName)
+  {
+    this.lastName = lastName;
+  }
+
+
+  public String getFirstName()
+  {
+    return firstName;
+  }
+
+
+  public void setFirstName(String firstName)
+  {
+    this.firstName = firstName;
+  }
+
+
+  public Double getBalance()
+  {
+    return balance;
+  }
+
+
+  public void setBalance(Double balance)
+  {
+    this.balance = balance;
+  }
+
+
+  public String getDepartment()
+  {
+    return department;
+  }
+
+
+  public void setDepartment(String department)
+  {
+    this.department = department;
+  }
+
+}
@@ -0,0 +1,126 @@
+package org.jaqlib.benchmarks;
+
+import org.jaqlib.Database;
+import org.jaqlib.DatabaseQB;
+import org.jaqlib.core.bean.BeanMapping;
+import org.jaqlib.db.DbInsertDataSource;
+import org.jaqlib.db.DbSelectDataSource;
+import org.jaqlib.db.util.DbUtil;
+import org.jaqlib.util.db.DriverManagerDataSource;
+import org.jaqlib.util.db.SingleConnectionDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Selects and inserts against an embedded in-memory Derby database.
+ *
+ * @author Werner Fragner
+ */
+@State(Scope.Benchmark)
+public class DatabaseQueryBenchmark
+{
+
+  private static final String URL = "jdbc:derby:memory:jaqlibbenchmark";
+  private static final String SELECT_TABLE = "APP.BENCH_ACCOUNT";
+  private static final String INSERT_TABLE = "APP.BENCH_INSERT";
+  private static final String SELECT = "SELECT id, lastname, firstname, "
+      + "balance, department FROM " + SELECT_TABLE;
+
+  @Param( { "100", "10000" })
+  private int rows;
+
+  private SingleConnectionDataSource dataSource;
+  private DbSelectDataSource selectDataSource;
+  private DbInsertDataSource insertDataSource;
+  private BeanMapping<BenchmarkAccount> mapping;
+  private long nextId;
+
+
+  @Setup
+  public void setUp() throws SQLException
+  {
+    DriverManagerDataSource ds = new DriverManagerDataSource();
+    ds.setUrl(URL + ";create=true");
+    dataSource = new SingleConnectionDataSource(ds);
+
+    createTable(SELECT_TABLE);
+    createTable(INSERT_TABLE);
+
+    Database db = new Database(dataSource);
+    mapping = db.getBeanMapping(BenchmarkAccount.class);
+    selectDataSource = db.getSelectDataSource(SELECT);
+    insertDataSource = db.getInsertDataSource(INSERT_TABLE);
+
+    DbInsertDataSource rowsDataSource = db.getInsertDataSource(SELECT_TABLE);
+    for (int i = 0; i < rows; i++)
+    {
+      DatabaseQB.insert(BenchmarkAccount.create(i)).into(rowsDataSource)
+          .using(mapping);
+    }
+    DatabaseQB.warmUp(BenchmarkAccount.class);
+  }
+
+
+  private void createTable(String table) throws SQLException
+  {
+    executeStatement("CREATE TABLE " + table + " (ID BIGINT, "
+        + "LASTNAME VARCHAR(30), FIRSTNAME VARCHAR(30), BALANCE DOUBLE, "
+        + "DEPARTMENT VARCHAR(30))");
+  }
+
+
+  @TearDown(Level.Iteration)
+  public void clearInsertTable() throws SQLException
+  {
+    executeStatement("DELETE FROM " + INSERT_TABLE);
+  }
+
+
+  @TearDown
+  public void tearDown() throws SQLException
+  {
+    executeStatement("DROP TABLE " + SELECT_TABLE);
+    executeStatement("DROP TABLE " + INSERT_TABLE);
+    dataSource.close();
+  }
+
+
+  private void executeStatement(String sql) throws SQLException
+  {
+    DbUtil.executeStatement(dataSource.getConnection(), sql);
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> selectAll()
+  {
+    return DatabaseQB.select(mapping).from(selectDataSource).asList();
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> selectWhere()
+  {
+    BenchmarkAccount recorder = DatabaseQB
+        .getRecorder(BenchmarkAccount.class);
+    return DatabaseQB.select(mapping).from(selectDataSource).whereCall(
+        recorder.getDepartment()).isEqual("linz").asList();
+  }
+
+
+  @Benchmark
+  public int insert()
+  {
+    return DatabaseQB.insert(BenchmarkAccount.create(nextId++)).into(
+        insertDataSource).using(mapping);
+  }
+
+}
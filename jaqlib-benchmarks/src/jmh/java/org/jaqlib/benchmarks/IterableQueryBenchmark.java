@@ -0,0 +1,87 @@
+package org.jaqlib.benchmarks;
+
+import org.jaqlib.IterableQB;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scans of a Java collection with reflective (recorded method calls) and
+ * custom WHERE conditions.
+ *
+ * @author Werner Fragner
+ */
+@State(Scope.Benchmark)
+public class IterableQueryBenchmark
+{
+
+  private static final double THRESHOLD = 5000.0;
+
+  @Param( { "1000", "100000" })
+  private int size;
+
+  private List<BenchmarkAccount> accounts;
+
+
+  @Setup
+  public void setUp()
+  {
+    accounts = new ArrayList<>(size);
+    for (int i = 0; i < size; i++)
+    {
+      accounts.add(BenchmarkAccount.create(i));
+    }
+    IterableQB.warmUp(BenchmarkAccount.class);
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> reflectiveCondition()
+  {
+    BenchmarkAccount recorder = IterableQB
+        .getRecorder(BenchmarkAccount.class);
+    return IterableQB.selectFrom(accounts).whereCall(recorder.getBalance())
+        .isGreaterThan(THRESHOLD).asList();
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> reflectiveConditions()
+  {
+    BenchmarkAccount recorder = IterableQB
+        .getRecorder(BenchmarkAccount.class);
+    return IterableQB.selectFrom(accounts).whereCall(recorder.getBalance())
+        .isGreaterThan(THRESHOLD).andCall(recorder.getDepartment()).isEqual(
+            "linz").asList();
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> functionCondition()
+  {
+    return IterableQB.selectFrom(accounts).whereCall(
+        BenchmarkAccount::getBalance).isGreaterThan(THRESHOLD).asList();
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> customCondition()
+  {
+    return IterableQB.selectFrom(accounts).where(
+        account -> account.getBalance() > THRESHOLD).asList();
+  }
+
+
+  @Benchmark
+  public int countCustomCondition()
+  {
+    return IterableQB.selectFrom(accounts).where(
+        account -> account.getBalance() > THRESHOLD).count();
+  }
+
+}
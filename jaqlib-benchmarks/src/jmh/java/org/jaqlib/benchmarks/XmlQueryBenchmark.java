@@ -0,0 +1,143 @@
+package org.jaqlib.benchmarks;
+
+import org.jaqlib.XmlQB;
+import org.jaqlib.util.FileResource;
+import org.jaqlib.xml.XmlSelectDataSource;
+import org.jaqlib.xml.xpath.JaxenXPathEngine;
+import org.jaqlib.xml.xpath.JdkXPathEngine;
+import org.jaqlib.xml.xpath.SaxonXPathEngine;
+import org.jaqlib.xml.xpath.XPathEngine;
+import org.jaqlib.xml.xpath.XalanXPathEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * XML queries with every {@link XPathEngine} implementation. The XML file is
+ * generated when the benchmark is set up; the accounts are stored as
+ * attributes resp. as child elements.
+ *
+ * @author Werner Fragner
+ */
+@State(Scope.Benchmark)
+public class XmlQueryBenchmark
+{
+
+  private static final String XPATH_ACCOUNTS = "/bank/accounts/*";
+
+  @Param( { "JDK", "JAXEN", "XALAN", "SAXON" })
+  private String engine;
+
+  @Param( { "true", "false" })
+  private boolean attributes;
+
+  @Param( { "1000" })
+  private int size;
+
+  private File file;
+  private XmlSelectDataSource dataSource;
+
+
+  @Setup
+  public void setUp() throws IOException
+  {
+    file = File.createTempFile("jaqlib-benchmark", ".xml");
+    writeAccounts(file);
+
+    dataSource = new XmlSelectDataSource(new FileResource(file
+        .getAbsolutePath()), attributes);
+    dataSource.setXPathEngine(createXPathEngine(engine));
+    XmlQB.warmUp(BenchmarkAccount.class);
+  }
+
+
+  @TearDown
+  public void tearDown()
+  {
+    dataSource.close();
+    file.delete();
+  }
+
+
+  private static XPathEngine createXPathEngine(String name)
+  {
+    switch (name)
+    {
+    case "JDK":
+      return new JdkXPathEngine();
+    case "JAXEN":
+      return new JaxenXPathEngine();
+    case "XALAN":
+      return new XalanXPathEngine();
+    case "SAXON":
+      return new SaxonXPathEngine();
+    default:
+      throw new IllegalArgumentException("Unknown XPath engine: " + name);
+    }
+  }
+
+
+  private void writeAccounts(File file) throws IOException
+  {
+    try (PrintWriter out = new PrintWriter(file, "UTF-8"))
+    {
+      out.println("<bank>");
+      out.println("  <accounts>");
+      for (int i = 0; i < size; i++)
+      {
+        BenchmarkAccount account = BenchmarkAccount.create(i);
+        if (attributes)
+        {
+          out.println("    <account id=\"" + account.getId()
+              + "\" lastName=\"" + account.getLastName() + "\" firstName=\""
+              + account.getFirstName() + "\" balance=\""
+              + account.getBalance() + "\" department=\""
+              + account.getDepartment() + "\" />");
+        }
+        else
+        {
+          out.println("    <account>");
+          out.println("      <id>" + account.getId() + "</id>");
+          out.println("      <lastName>" + account.getLastName()
+              + "</lastName>");
+          out.println("      <firstName>" + account.getFirstName()
+              + "</firstName>");
+          out.println("      <balance>" + account.getBalance()
+              + "</balance>");
+          out.println("      <department>" + account.getDepartment()
+              + "</department>");
+          out.println("    </account>");
+        }
+      }
+      out.println("  </accounts>");
+      out.println("</bank>");
+    }
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> selectAll()
+  {
+    return XmlQB.select(BenchmarkAccount.class).from(dataSource).where(
+        XPATH_ACCOUNTS).asList();
+  }
+
+
+  @Benchmark
+  public List<BenchmarkAccount> selectWhere()
+  {
+    BenchmarkAccount recorder = XmlQB.getRecorder(BenchmarkAccount.class);
+    return XmlQB.select(BenchmarkAccount.class).from(dataSource).where(
+        XPATH_ACCOUNTS).andCall(recorder.getDepartment()).isEqual("linz")
+        .asList();
+  }
+
+}
@@ -1,8 +1,11 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.core.reflect.RecordingProxy;
 
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * @author Werner Fragner
  * 
@@ -11,22 +14,25 @@ import org.jaqlib.core.reflect.RecordingProxy;
  * @param <ResultType>
  */
 public abstract class AbstractComparableWhereCondition<T, DataSourceType, ResultType>
-    extends QueryItem<T, DataSourceType> implements WhereCondition<T>,
+    extends QueryItem<T, DataSourceType> implements BindableWhereCondition<T>,
     ComparableWhereCondition<T, DataSourceType, ResultType>, LoggableQueryItem
 {
 
   protected Compare<T, ResultType> compare;
+  private Function<ResultType, Compare<T, ResultType>> compareFactory;
+  private String parameterName;
 
 
   public AbstractComparableWhereCondition(Query<T, DataSourceType> query)
   {
     super(query);
+    PreparedQuery.checkNoPendingParameter();
   }
 
 
   public QueryResult<T, DataSourceType> isNull()
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
+    final Invocation invocation = getCurrentMethodInvocation();
     this.compare = new IsNull<>(invocation);
     return getQuery().createQueryResult();
   }
@@ -34,7 +40,7 @@ public abstract class AbstractComparableWhereCondition<T, DataSourceType, Result
 
   public QueryResult<T, DataSourceType> isNotNull()
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
+    final Invocation invocation = getCurrentMethodInvocation();
     this.compare = new IsNotNull<>(invocation);
     return getQuery().createQueryResult();
   }
@@ -42,82 +48,121 @@ public abstract class AbstractComparableWhereCondition<T, DataSourceType, Result
 
   public QueryResult<T, DataSourceType> isEqual(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsEqual<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected, value -> new IsEqual<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isGreaterThan(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsGreaterThan<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected,
+        value -> new IsGreaterThan<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isGreaterThanOrEqualTo(
       ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsGreaterThanOrEqualTo<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected,
+        value -> new IsGreaterThanOrEqualTo<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isSmallerThan(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsSmallerThan<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected,
+        value -> new IsSmallerThan<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isSmallerThanOrEqualTo(
       ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsSmallerThanOrEqualTo<>(invocation,
-        expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected,
+        value -> new IsSmallerThanOrEqualTo<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isNotEqual(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsNotEqual<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected, value -> new IsNotEqual<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isSame(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsSame<>(invocation, expected);
-    return getQuery().createQueryResult();
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected, value -> new IsSame<>(invocation, value));
   }
 
 
   public QueryResult<T, DataSourceType> isNotSame(ResultType expected)
   {
-    final MethodInvocation invocation = getCurrentMethodInvocation();
-    this.compare = new IsNotSame<>(invocation, expected);
+    final Invocation invocation = getCurrentMethodInvocation();
+    return setCompare(expected, value -> new IsNotSame<>(invocation, value));
+  }
+
+
+  private QueryResult<T, DataSourceType> setCompare(ResultType expected,
+      Function<ResultType, Compare<T, ResultType>> compareFactory)
+  {
+    this.parameterName = PreparedQuery.pollParameter(expected);
+    this.compareFactory = compareFactory;
+    this.compare = compareFactory.apply(expected);
     return getQuery().createQueryResult();
   }
 
 
   public boolean evaluate(T element)
   {
+    if (parameterName != null)
+    {
+      throw new QueryResultException("The query parameter '" + parameterName
+          + "' has not been bound. Use PreparedQuery.bind() for executing "
+          + "queries with parameters.");
+    }
     return compare.evaluate(element);
   }
 
 
+  public String getParameterName()
+  {
+    return parameterName;
+  }
+
+
+  @SuppressWarnings("unchecked")
+  public WhereCondition<T> bind(Map<String, ?> values)
+  {
+    if (parameterName == null)
+    {
+      return this;
+    }
+    return new BoundWhereCondition<>(compareFactory.apply((ResultType) values
+        .get(parameterName)));
+  }
+
+
+  /**
+   * @return the comparison of this condition; null if no comparison has been
+   *         specified yet.
+   */
+  public Compare<T, ResultType> getCompare()
+  {
+    return compare;
+  }
+
+
   /**
    * @return the last recorded method invocation on a {@link RecordingProxy}
    *         object. Can return null if no method invocations are supported.
    */
-  protected abstract MethodInvocation getCurrentMethodInvocation();
+  protected abstract Invocation getCurrentMethodInvocation();
 
 
 }
@@ -22,6 +22,15 @@ public abstract class AbstractCompare<T, ResultType> implements
   }
 
 
+  /**
+   * @return the value the actual values are compared to.
+   */
+  public ResultType getExpected()
+  {
+    return expected;
+  }
+
+
   public void appendLogString(StringBuilder sb)
   {
     sb.append(ReflectionUtil.getPlainClassName(this));
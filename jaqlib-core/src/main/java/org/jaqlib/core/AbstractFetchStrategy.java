@@ -1,7 +1,8 @@
 package org.jaqlib.core;
 
 import org.jaqlib.core.bean.AbstractMapping;
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
 
 import java.util.Collection;
 import java.util.Map;
@@ -17,11 +18,33 @@ public abstract class AbstractFetchStrategy<T>
   private ElementPredicate<T> predicate;
   private SelectDataSource dataSource;
   private AbstractMapping<T> mapping;
+  private ResultLimit limit = ResultLimit.NONE;
+  private QueryMetrics metrics;
+
+
+  /**
+   * @param metrics the metrics of the current execution; null if no metrics
+   *          are collected. Must be set before the predicate.
+   */
+  void setMetrics(QueryMetrics metrics)
+  {
+    this.metrics = metrics;
+  }
+
+
+  /**
+   * @return the metrics of the current execution; null if no metrics are
+   *         collected.
+   */
+  QueryMetrics getMetrics()
+  {
+    return metrics;
+  }
 
 
   public void setPredicate(ElementPredicate<T> predicate)
   {
-    this.predicate = predicate;
+    this.predicate = (metrics != null) ? metrics.timed(predicate) : predicate;
   }
 
 
@@ -43,24 +66,83 @@ public abstract class AbstractFetchStrategy<T>
   }
 
 
+  /**
+   * @param limit the not null window of matching elements that should be
+   *          added to the results. Fetching is stopped as soon as the window
+   *          is filled.
+   */
+  public void setLimit(ResultLimit limit)
+  {
+    this.limit = Assert.notNull(limit);
+  }
+
+
   public void addResults(Collection<T> results)
   {
-    final DsResultSet rs = queryDataSource();
+    addResults(results::add);
+  }
 
-    boolean stop = false;
-    while (!stop && rs.next())
+
+  public void addResults(ResultSink<T> results)
+  {
+    if (limit.isReached(0))
     {
-      final T element = extractElement(rs);
-      if (shouldAddToResult(element))
-      {
-        results.add(element);
-        stop = elementProcessed(element, true);
-      }
-      else
+      fireMetrics();
+      return;
+    }
+
+    final DsResultSet rs = queryDataSource();
+    try
+    {
+      int matchCount = 0;
+      boolean stop = false;
+      while (!stop && rs.next())
       {
-        stop = elementProcessed(element, false);
+        final T element = extractElement(rs);
+        if (shouldAddToResult(element) && limit.contains(matchCount++))
+        {
+          results.add(element);
+          stop = elementProcessed(element, true) || limit.isReached(matchCount);
+        }
+        else
+        {
+          stop = elementProcessed(element, false);
+        }
       }
     }
+    finally
+    {
+      rs.close();
+      fireMetrics();
+    }
+  }
+
+
+  /**
+   * Notifies the query listeners about the current execution (if metrics are
+   * collected).
+   */
+  protected void fireMetrics()
+  {
+    if (metrics != null)
+    {
+      metrics.fire();
+    }
+  }
+
+
+  /**
+   * Queries the data source and returns a lazy iterator over the matching
+   * elements. The elements are not processed by this fetch strategy (e.g. they
+   * are not cached). The data source is not queried if no element must be
+   * returned (see {@link ResultLimit#isReached(int)}).
+   * 
+   * @return a not null iterator; must be closed if not all elements are read.
+   */
+  public ResultIterator<T> iterator()
+  {
+    return new DsResultSetIterator(limit.isReached(0) ? null
+        : queryDataSource());
   }
 
 
@@ -75,12 +157,20 @@ public abstract class AbstractFetchStrategy<T>
 
   private T extractElement(DsResultSet rs)
   {
+    if (metrics != null)
+    {
+      return metrics.getValue(mapping, rs);
+    }
     return mapping.getValue(rs);
   }
 
 
   private DsResultSet queryDataSource()
   {
+    if (metrics != null)
+    {
+      return metrics.execute(getDataSource());
+    }
     return getDataSource().execute();
   }
 
@@ -92,34 +182,90 @@ public abstract class AbstractFetchStrategy<T>
 
 
   public <KeyType> void addResults(Map<KeyType, T> results,
-      MethodInvocation invocation)
+      Invocation invocation)
   {
-    final DsResultSet rs = queryDataSource();
-
-    boolean stop = false;
-    while (!stop && rs.next())
+    if (limit.isReached(0))
     {
-      final T element = extractElement(rs);
-      if (element != null && shouldAddToResult(element))
-      {
-        @SuppressWarnings("unchecked")
-        final KeyType elementKey = (KeyType) getKey(element, invocation);
-        results.put(elementKey, element);
+      fireMetrics();
+      return;
+    }
 
-        stop = elementProcessed(element, true);
-      }
-      else
+    final DsResultSet rs = queryDataSource();
+    try
+    {
+      int matchCount = 0;
+      boolean stop = false;
+      while (!stop && rs.next())
       {
-        stop = elementProcessed(element, false);
+        final T element = extractElement(rs);
+        if (element != null && shouldAddToResult(element)
+            && limit.contains(matchCount++))
+        {
+          @SuppressWarnings("unchecked")
+          final KeyType elementKey = (KeyType) getKey(element, invocation);
+          results.put(elementKey, element);
+
+          stop = elementProcessed(element, true) || limit.isReached(matchCount);
+        }
+        else
+        {
+          stop = elementProcessed(element, false);
+        }
       }
     }
+    finally
+    {
+      rs.close();
+      fireMetrics();
+    }
   }
 
 
-  private Object getKey(T element, MethodInvocation invocation)
+  private Object getKey(T element, Invocation invocation)
   {
     return invocation.invoke(element);
   }
 
 
+  private class DsResultSetIterator extends ResultIterator<T>
+  {
+
+    /** null if the data source has not been queried. */
+    private final DsResultSet rs;
+
+
+    DsResultSetIterator(DsResultSet rs)
+    {
+      super(predicate, limit);
+      this.rs = rs;
+    }
+
+
+    @Override
+    protected boolean readNext()
+    {
+      return rs.next();
+    }
+
+
+    @Override
+    protected T getElement()
+    {
+      return extractElement(rs);
+    }
+
+
+    @Override
+    protected void closeSource()
+    {
+      if (rs != null)
+      {
+        rs.close();
+      }
+      fireMetrics();
+    }
+
+  }
+
+
 }
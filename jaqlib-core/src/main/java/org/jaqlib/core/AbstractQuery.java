@@ -1,7 +1,10 @@
 package org.jaqlib.core;
 
+import org.jaqlib.core.reflect.FunctionInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.core.reflect.MethodCallRecorder;
 import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.syntaxtree.CompiledSyntaxTree;
 import org.jaqlib.core.syntaxtree.Condition;
 import org.jaqlib.core.syntaxtree.SyntaxTree;
 import org.jaqlib.util.Assert;
@@ -9,8 +12,12 @@ import org.jaqlib.util.CollectionUtil;
 import org.jaqlib.util.LogUtil;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Werner Fragner
@@ -27,6 +34,14 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   protected final SyntaxTree<T> tree = new SyntaxTree<>();
   private final MethodCallRecorder methodCallRecorder;
   private DataSourceType dataSource;
+  private ResultLimit limit = ResultLimit.NONE;
+  private ResultOrder order = ResultOrder.NONE;
+
+  /**
+   * The program with bound query parameters of the current thread if this
+   * query is executed by a {@link PreparedQuery}.
+   */
+  private final ThreadLocal<CompiledSyntaxTree<T>> boundProgram = new ThreadLocal<>();
 
 
   public AbstractQuery(MethodCallRecorder methodCallRecorder)
@@ -41,6 +56,13 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   }
 
 
+  @Override
+  public MethodInvocation getRecordedInvocation()
+  {
+    return getCurrentInvocation();
+  }
+
+
   protected DataSourceType getDataSource()
   {
     return dataSource;
@@ -53,6 +75,101 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   }
 
 
+  @Override
+  public QueryResult<T, DataSourceType> setOffset(int offset)
+  {
+    limit = limit.withOffset(offset);
+    return createQueryResult();
+  }
+
+
+  @Override
+  public QueryResult<T, DataSourceType> setMaxResults(int maxResults)
+  {
+    if (maxResults < 0)
+    {
+      throw new IllegalArgumentException("Max results must not be negative.");
+    }
+    limit = limit.withMaxResults(maxResults);
+    return createQueryResult();
+  }
+
+
+  @Override
+  public QueryResult<T, DataSourceType> addOrderBy()
+  {
+    order = order.thenBy(getCurrentInvocation());
+    return createQueryResult();
+  }
+
+
+  @Override
+  public QueryResult<T, DataSourceType> addOrderBy(Function<? super T, ?> key)
+  {
+    order = order.thenBy(new FunctionInvocation(key));
+    return createQueryResult();
+  }
+
+
+  @Override
+  public QueryResult<T, DataSourceType> setOrderDescending(boolean descending)
+  {
+    order = order.withDescending(descending);
+    return createQueryResult();
+  }
+
+
+  /**
+   * @return the window of matching elements that has to be applied while
+   *         reading the data source. If the matching elements are ordered in
+   *         memory then the window is applied after ordering; so no window
+   *         is returned in that case (see {@link #getResultLimit()}).
+   */
+  protected ResultLimit getLimit()
+  {
+    return isOrderedInMemory() ? ResultLimit.NONE : limit;
+  }
+
+
+  /**
+   * @return the window of matching elements that should be returned by this
+   *         query.
+   */
+  protected ResultLimit getResultLimit()
+  {
+    return limit;
+  }
+
+
+  /**
+   * @return the order of the matching elements of this query.
+   */
+  protected ResultOrder getOrder()
+  {
+    return order;
+  }
+
+
+  /**
+   * Subclasses can override this method if the data source is able to return
+   * the elements in the order of this query (e.g. by an SQL ORDER BY clause).
+   * In that case the elements are not ordered in memory.
+   * 
+   * @return true if the data source returns the elements in the order of this
+   *         query. The default implementation returns false.
+   */
+  protected boolean isOrderedByDataSource()
+  {
+    return false;
+  }
+
+
+  private boolean isOrderedInMemory()
+  {
+    return order.isOrdered() && !isOrderedByDataSource();
+  }
+
+
   @Override
   public QueryResult<T, DataSourceType> createQueryResult()
   {
@@ -122,6 +239,28 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   }
 
 
+  @Override
+  public <R> FunctionWhereCondition<T, DataSourceType, R> addFunctionAndWhereCondition(
+      Function<? super T, ? extends R> function)
+  {
+    FunctionWhereCondition<T, DataSourceType, R> condition = new FunctionWhereCondition<>(
+        this, new FunctionInvocation(function));
+    addAndWhereCondition(condition);
+    return condition;
+  }
+
+
+  @Override
+  public <R> FunctionWhereCondition<T, DataSourceType, R> addFunctionOrWhereCondition(
+      Function<? super T, ? extends R> function)
+  {
+    FunctionWhereCondition<T, DataSourceType, R> condition = new FunctionWhereCondition<>(
+        this, new FunctionInvocation(function));
+    addOrWhereCondition(condition);
+    return condition;
+  }
+
+
   @Override
   public QueryResult<T, DataSourceType> addTask(Task<? super T> task)
   {
@@ -136,8 +275,38 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   {
     addTask(task);
 
+    executionStarted("ExecuteTask");
     logQuery("ExecuteTask");
-    addResults(new ArrayList<>(), false);
+    // the tasks are executed by the WHERE conditions
+    addResults(element -> {
+    }, false);
+  }
+
+
+  @Override
+  public void executeBatches(BatchTask<? super T> task,
+      ExecutionOptions options)
+  {
+    executionStarted("ExecuteBatches");
+    logQuery("ExecuteBatches");
+
+    TaskExecutionSink<T> sink = new TaskExecutionSink<>(task, options);
+    try
+    {
+      if (isOrderedInMemory())
+      {
+        addOrderedResults(sink, limit);
+      }
+      else
+      {
+        addResultsOnCurrentThread(sink);
+      }
+      sink.finish();
+    }
+    finally
+    {
+      sink.shutdown();
+    }
   }
 
 
@@ -150,9 +319,10 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public T getUniqueResult()
   {
+    executionStarted("UniqueResult");
     logQuery("UniqueResult");
 
-    final Set<T> setResult = getSetResult();
+    final Set<T> setResult = createSetResult();
     if (setResult.isEmpty())
     {
       // no result found
@@ -173,10 +343,20 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public T getFirstResult()
   {
+    executionStarted("FirstResult");
     logQuery("FirstResult");
 
     List<T> result = new ArrayList<>();
-    addResults(result, true);
+    if (isOrderedInMemory())
+    {
+      int maxResults = limit.hasMaxResults() ? Math.min(limit.getMaxResults(),
+          1) : 1;
+      addOrderedResults(result::add, limit.withMaxResults(maxResults));
+    }
+    else
+    {
+      addResults(result::add, true);
+    }
     if (result.size() > 0)
     {
       return result.get(0);
@@ -191,27 +371,30 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public T getLastResult()
   {
+    executionStarted("LastResult");
     logQuery("LastResult");
 
-    List<T> result = getListResult();
-    if (result.size() > 0)
+    LastElementSink<T> result = new LastElementSink<>();
+    if (isOrderedInMemory())
     {
-      return result.get(result.size() - 1);
+      addOrderedResults(result, limit);
     }
     else
     {
-      return null;
+      addResultsToSink(result);
     }
+    return result.getLast();
   }
 
 
   @Override
   public List<T> getListResult()
   {
+    executionStarted("List");
     logQuery("List");
 
     List<T> result = new ArrayList<>();
-    addResults(result, false);
+    collectResults(result::add, true, false);
     return result;
   }
 
@@ -219,10 +402,21 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public Set<T> getSetResult()
   {
+    executionStarted("Set");
     logQuery("Set");
 
+    return createSetResult();
+  }
+
+
+  /**
+   * Collects the matching elements into a set. The execution metrics are not
+   * restarted; so this method can be used by every result type.
+   */
+  private Set<T> createSetResult()
+  {
     Set<T> result = new HashSet<>();
-    addResults(result, false);
+    collectResults(result::add, false, false);
     return result;
   }
 
@@ -230,10 +424,11 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public Vector<T> getVectorResult()
   {
+    executionStarted("Vector");
     logQuery("Vector");
 
     Vector<T> result = new Vector<>();
-    addResults(result, false);
+    collectResults(result::add, true, false);
     return result;
   }
 
@@ -241,10 +436,26 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public <KeyType> Map<KeyType, T> getMapResult(KeyType key)
   {
+    return createMapResult(getCurrentInvocation());
+  }
+
+
+  @Override
+  public <KeyType> Map<KeyType, T> getMapResult(
+      Function<? super T, ? extends KeyType> key)
+  {
+    return createMapResult(new FunctionInvocation(key));
+  }
+
+
+  private <KeyType> Map<KeyType, T> createMapResult(
+      Invocation invocation)
+  {
+    executionStarted("Map");
     logQuery("Map");
 
     Map<KeyType, T> result = new HashMap<>();
-    addResults(result);
+    collectResults(result, invocation);
     return result;
   }
 
@@ -252,51 +463,478 @@ public abstract class AbstractQuery<T, DataSourceType> implements
   @Override
   public <KeyType> Hashtable<KeyType, T> getHashtableResult(KeyType key)
   {
+    executionStarted("Hashtable");
     logQuery("Hashtable");
 
     Hashtable<KeyType, T> result = new Hashtable<>();
-    addResults(result);
+    collectResults(result, getCurrentInvocation());
     return result;
   }
 
 
+  @Override
+  public <KeyType> Map<KeyType, List<T>> getGroupedMapResult(KeyType key)
+  {
+    return createGroupedMapResult(getCurrentInvocation());
+  }
+
+
+  @Override
+  public <KeyType> Map<KeyType, List<T>> getGroupedMapResult(
+      Function<? super T, ? extends KeyType> key)
+  {
+    return createGroupedMapResult(new FunctionInvocation(key));
+  }
+
+
+  private <KeyType> Map<KeyType, List<T>> createGroupedMapResult(
+      Invocation invocation)
+  {
+    executionStarted("GroupedMap");
+    logQuery("GroupedMap");
+
+    GroupingSink<KeyType, T, List<T>> result = new GroupingSink<>(invocation,
+        ArrayList::new, List::add);
+    collectResults(result, true, true);
+    return result.getGroups();
+  }
+
+
+  @Override
+  public <KeyType> Map<KeyType, Integer> getGroupedCountResult(KeyType key)
+  {
+    executionStarted("GroupedCount");
+    logQuery("GroupedCount");
+
+    GroupingSink<KeyType, T, CountSink<T>> result = new GroupingSink<>(
+        getCurrentInvocation(), CountSink::new, CountSink::add);
+    collectResults(result, false, true);
+
+    Map<KeyType, Integer> counts = new HashMap<>();
+    for (Map.Entry<KeyType, CountSink<T>> group : result.getGroups()
+        .entrySet())
+    {
+      counts.put(group.getKey(), group.getValue().getCount());
+    }
+    return counts;
+  }
+
+
+  @Override
+  public <KeyType, R> Map<KeyType, AggregateResult<R>> getGroupedAggregateResult()
+  {
+    executionStarted("GroupedAggregate");
+    logQuery("GroupedAggregate");
+
+    // the key method call is recorded before the value method call
+    final MethodInvocation keyInvocation = getCurrentInvocation();
+    final MethodInvocation valueInvocation = getCurrentInvocation();
+    GroupingSink<KeyType, T, AggregationSink<T>> result = new GroupingSink<>(
+        keyInvocation, () -> new AggregationSink<>(valueInvocation),
+        AggregationSink::add);
+    collectResults(result, false, true);
+
+    Map<KeyType, AggregateResult<R>> aggregates = new HashMap<>();
+    for (Map.Entry<KeyType, AggregationSink<T>> group : result.getGroups()
+        .entrySet())
+    {
+      aggregates.put(group.getKey(), group.getValue().<R> getResult());
+    }
+    return aggregates;
+  }
+
+
+  @Override
+  public ResultIterator<T> getIteratorResult()
+  {
+    executionStarted("Iterator");
+    logQuery("Iterator");
+
+    return createOrderedResultIterator();
+  }
+
+
+  @Override
+  public Stream<T> getStreamResult()
+  {
+    executionStarted("Stream");
+    logQuery("Stream");
+
+    final ResultIterator<T> it = createOrderedResultIterator();
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(it,
+        Spliterator.ORDERED);
+    return StreamSupport.stream(spliterator, false).onClose(it::close);
+  }
+
+
+  @Override
+  public <R> AggregateResult<R> getAggregateResult()
+  {
+    executionStarted("Aggregate");
+    logQuery("Aggregate");
+
+    AggregationSink<T> result = new AggregationSink<>(getCurrentInvocation());
+    collectResults(result, false, true);
+    return result.getResult();
+  }
+
+
   @Override
   public int count()
   {
-    return getListResult().size();
+    executionStarted("Count");
+    logQuery("Count");
+
+    CountSink<T> result = new CountSink<>();
+    collectResults(result, false, true);
+    return result.getCount();
   }
 
 
   @Override
   public int countDistinct()
   {
-    return getSetResult().size();
+    executionStarted("CountDistinct");
+    logQuery("CountDistinct");
+
+    Set<T> result = new HashSet<>();
+    collectResults(result::add, false, true);
+    return result.size();
+  }
+
+
+  /**
+   * @return true if at least one WHERE condition (or task) has been added to
+   *         this query.
+   */
+  protected boolean hasConditions()
+  {
+    return tree.compile().size() > 0;
+  }
+
+
+  /**
+   * @return the predicate that has to be used for evaluating the elements of
+   *         the data source. The syntax tree is compiled into a flat program
+   *         when this method is called (see {@link SyntaxTree#getPredicate()}).
+   */
+  protected ElementPredicate<T> getPredicate()
+  {
+    final CompiledSyntaxTree<T> program = boundProgram.get();
+    return (program != null) ? program : tree.getPredicate();
+  }
+
+
+  /**
+   * @return the conditions that every matching element must fulfill (see
+   *         {@link CompiledSyntaxTree#getRequiredConditions()}).
+   */
+  protected List<WhereCondition<? super T>> getRequiredConditions()
+  {
+    final CompiledSyntaxTree<T> program = boundProgram.get();
+    return ((program != null) ? program : tree.compile())
+        .getRequiredConditions();
+  }
+
+
+  @Override
+  public PreparedQuery<T> prepare()
+  {
+    return new PreparedQuery<>(this, tree.compile(), createExecutionSetup());
+  }
+
+
+  /**
+   * Is called when this query is prepared (see {@link #prepare()}). Subclasses
+   * can override this method if an execution consumes state of the data
+   * source (e.g. the parameters of a prepared SQL statement). The returned
+   * task restores this state before every execution of the prepared query.
+   * 
+   * @return a not null task. The default implementation does nothing.
+   */
+  protected Runnable createExecutionSetup()
+  {
+    return () -> {
+    };
+  }
+
+
+  /**
+   * Returns the result of the given supplier while the given program is used
+   * for evaluating the elements on the current thread. If this query is not
+   * reentrant (see {@link #isReentrant()}) then concurrent executions are
+   * serialized.
+   * 
+   * @param program the program with bound query parameters.
+   * @param setup is run before the supplier (see
+   *          {@link #createExecutionSetup()}).
+   * @param result supplies the result by using this query.
+   * @return the result of the supplier.
+   */
+  <R> R execute(CompiledSyntaxTree<T> program, Runnable setup,
+      Supplier<R> result)
+  {
+    if (isReentrant())
+    {
+      return executeBound(program, setup, result);
+    }
+    synchronized (this)
+    {
+      return executeBound(program, setup, result);
+    }
+  }
+
+
+  private <R> R executeBound(CompiledSyntaxTree<T> program, Runnable setup,
+      Supplier<R> result)
+  {
+    boundProgram.set(program);
+    try
+    {
+      setup.run();
+      return result.get();
+    }
+    finally
+    {
+      boundProgram.remove();
+    }
+  }
+
+
+  /**
+   * Subclasses can override this method if the query can be executed
+   * concurrently by many threads (i.e. the execution does not change the state
+   * of this query or its data source).
+   * 
+   * @return true if this query can be executed concurrently. The default
+   *         implementation returns false.
+   */
+  protected boolean isReentrant()
+  {
+    return false;
+  }
+
+
+  /**
+   * Adds the matching elements to the given sink. If the elements are ordered
+   * in memory then the order is only applied if it is relevant for the result
+   * (i.e. the result keeps the order or not all matching elements are
+   * returned).
+   * 
+   * @param result the not null sink for the matching elements.
+   * @param keepsOrder true if the given sink keeps the order of the added
+   *          elements.
+   * @param sink true if the matching elements are not needed after they have
+   *          been added to the given sink (see
+   *          {@link #addResultsToSink(ResultSink)}).
+   */
+  private void collectResults(ResultSink<T> result, boolean keepsOrder,
+      boolean sink)
+  {
+    if (isOrderedInMemory() && (keepsOrder || limit.isLimited()))
+    {
+      addOrderedResults(result, limit);
+    }
+    else if (sink)
+    {
+      addResultsToSink(result);
+    }
+    else
+    {
+      addResults(result, false);
+    }
+  }
+
+
+  /**
+   * Adds the matching elements to the given map (see
+   * {@link #collectResults(ResultSink, boolean, boolean)}). A map does not
+   * keep the order of its elements.
+   */
+  private <KeyType> void collectResults(Map<KeyType, T> resultMap,
+      Invocation invocation)
+  {
+    if (isOrderedInMemory() && limit.isLimited())
+    {
+      List<T> result = new ArrayList<>();
+      addOrderedResults(result::add, limit);
+      for (T element : result)
+      {
+        if (element != null)
+        {
+          @SuppressWarnings("unchecked")
+          final KeyType elementKey = (KeyType) getKey(element, invocation);
+          resultMap.put(elementKey, element);
+        }
+      }
+    }
+    else
+    {
+      addResults(resultMap, invocation);
+    }
+  }
+
+
+  /**
+   * Orders all matching elements in memory and adds the elements of the given
+   * window to the given sink. If a maximum number of results is given then
+   * only the best elements are kept while reading the data source (see
+   * {@link OrderingSink}).
+   */
+  private void addOrderedResults(ResultSink<T> result, ResultLimit window)
+  {
+    if (window.isReached(0))
+    {
+      return;
+    }
+
+    OrderingSink<T> sink = new OrderingSink<>(order, window);
+    addResultsToSink(sink);
+    result.addAll(sink.getResult());
+  }
+
+
+  private ResultIterator<T> createOrderedResultIterator()
+  {
+    if (!isOrderedInMemory())
+    {
+      return createResultIterator(getPredicate());
+    }
+
+    // all matching elements have to be read before the first one is known
+    List<T> result = new ArrayList<>();
+    addOrderedResults(result::add, limit);
+    final Iterator<T> it = result.iterator();
+    return new ResultIterator<T>(element -> true)
+    {
+
+      private T element;
+
+
+      @Override
+      protected boolean readNext()
+      {
+        if (it.hasNext())
+        {
+          element = it.next();
+          return true;
+        }
+        element = null;
+        return false;
+      }
+
+
+      @Override
+      protected T getElement()
+      {
+        return element;
+      }
+
+    };
   }
 
 
-  protected Object getKey(T element, MethodInvocation invocation)
+  protected Object getKey(T element, Invocation invocation)
   {
     return invocation.invoke(element);
   }
 
 
-  protected abstract void addResults(Collection<T> result,
+  protected abstract void addResults(ResultSink<T> result,
       boolean stopAtFirstMatch);
 
 
-  protected abstract <KeyType> void addResults(final Map<KeyType, T> resultMap);
+  /**
+   * Adds all matching elements to the given map. The key of an element is
+   * the result of the given method invocation on the element.
+   * 
+   * @param resultMap the not null map for the matching elements.
+   * @param invocation the call that returns the key.
+   */
+  protected abstract <KeyType> void addResults(
+      final Map<KeyType, T> resultMap, Invocation invocation);
+
+
+  /**
+   * Adds all matching elements to the given sink (e.g. a {@link CountSink}).
+   * Subclasses can override this method in order to avoid keeping the
+   * elements elsewhere. By default {@link #addResults(ResultSink, boolean)} is
+   * used.
+   * 
+   * @param sink the not null sink for the matching elements.
+   */
+  protected void addResultsToSink(ResultSink<T> sink)
+  {
+    addResults(sink, false);
+  }
+
+
+  /**
+   * Adds all matching elements to the given sink one after another on the
+   * current thread (e.g. a sink that executes the elements in its own worker
+   * threads). Subclasses that evaluate the elements in parallel must override
+   * this method in order to feed the sink without collecting the matching
+   * elements first. By default {@link #addResultsToSink(ResultSink)} is used.
+   * 
+   * @param sink the not null sink for the matching elements.
+   */
+  protected void addResultsOnCurrentThread(ResultSink<T> sink)
+  {
+    addResultsToSink(sink);
+  }
+
+
+  /**
+   * @param predicate the predicate the elements must match.
+   * @return a lazy iterator over all elements of the data source that match
+   *         the given predicate.
+   */
+  protected abstract ResultIterator<T> createResultIterator(
+      ElementPredicate<T> predicate);
 
 
-  private void logQuery(String resultType)
+  /**
+   * Logs the current query with the given result type.
+   * 
+   * @param resultType the type of the requested result (e.g. <tt>List</tt>).
+   */
+  protected void logQuery(String resultType)
   {
     if (log.isLoggable(Level.FINER))
     {
       log.finer("SELECT " + getResultDefinitionString() + " FROM "
-          + getDataSource() + tree.getLogString() + " AS " + resultType);
+          + getDataSource() + tree.getLogString() + getOrderLogString()
+          + getLimitLogString()
+          + " AS " + resultType);
     }
   }
 
 
+  private String getOrderLogString()
+  {
+    return order.isOrdered() ? " " + order : "";
+  }
+
+
+  private String getLimitLogString()
+  {
+    return limit.isLimited() ? " " + limit : "";
+  }
+
+
   protected abstract String getResultDefinitionString();
 
+
+  /**
+   * Is called by every method that executes this query when a result of the
+   * given type is requested, before the data source is queried. Subclasses
+   * that query the data source in another way must call it as well. The
+   * default implementation does nothing.
+   * 
+   * @param resultType the type of the requested result (e.g. <tt>List</tt>).
+   */
+  protected void executionStarted(String resultType)
+  {
+  }
+
 }
@@ -92,6 +92,21 @@ public abstract class AbstractQueryBuilder
   }
 
 
+  /**
+   * Generates the proxy classes for the given recorder classes in advance
+   * (e.g. at application startup) by using the classloader of the current
+   * thread (see {@link #setClassLoader(ClassLoader)}). The proxy classes are
+   * cached, so following calls of {@link #getRecorder(Class)} only create a
+   * new proxy instance.
+   * 
+   * @param recorderClasses the classes resp. interfaces of recorder objects.
+   */
+  public void warmUp(Class<?>... recorderClasses)
+  {
+    RecordingProxy.warmUp(getClassLoader(), recorderClasses);
+  }
+
+
   /**
    * See {@link BeanMapping#build(BeanMappingStrategy, Class)}.
    */
@@ -0,0 +1,89 @@
+package org.jaqlib.core;
+
+/**
+ * Result of an aggregation over the values of a recorded method call (see
+ * {@link QueryResult#stats(Object)}). Null values are ignored. Objects of this
+ * class are immutable.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <R> the return type of the recorded method call.
+ */
+public class AggregateResult<R>
+{
+
+  private final long count;
+  private final Number sum;
+  private final R min;
+  private final R max;
+
+
+  public AggregateResult(long count, Number sum, R min, R max)
+  {
+    this.count = count;
+    this.sum = sum;
+    this.min = min;
+    this.max = max;
+  }
+
+
+  /**
+   * @return the number of not null values.
+   */
+  public long getCount()
+  {
+    return count;
+  }
+
+
+  /**
+   * @return the sum of all values. The sum is a {@link Long} for integral
+   *         values and a {@link Double} otherwise. Returns null if the values
+   *         are not numeric.
+   */
+  public Number getSum()
+  {
+    return sum;
+  }
+
+
+  /**
+   * @return the average of all values; null if there are no values or if the
+   *         values are not numeric.
+   */
+  public Double getAverage()
+  {
+    if (count == 0 || sum == null)
+    {
+      return null;
+    }
+    return sum.doubleValue() / count;
+  }
+
+
+  /**
+   * @return the smallest value; null if there are no values.
+   */
+  public R getMin()
+  {
+    return min;
+  }
+
+
+  /**
+   * @return the largest value; null if there are no values.
+   */
+  public R getMax()
+  {
+    return max;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[count=" + count + ", sum=" + sum + ", min=" + min + ", max="
+        + max + ", avg=" + getAverage() + "]";
+  }
+
+}
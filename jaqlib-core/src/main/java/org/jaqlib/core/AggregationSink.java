@@ -0,0 +1,281 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
+
+/**
+ * Sink that aggregates the values of a recorded method call on the
+ * added elements (count, sum, min and max). The elements themselves are not
+ * stored. If the recorded method returns a primitive number then its values
+ * are read without boxing and sum, min and max are accumulated in primitive
+ * <tt>long</tt> resp. <tt>double</tt> fields. Other values are boxed and
+ * compared as {@link Comparable}s. Null elements and null values are ignored.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type of the query.
+ */
+public class AggregationSink<T> implements ResultSink<T>
+{
+
+  /**
+   * How the values of the recorded method call are read and accumulated.
+   */
+  private enum Kind
+  {
+    LONG, DOUBLE, OBJECT
+  }
+
+  private final Invocation invocation;
+  private final Class<?> returnType;
+  private final Kind kind;
+  private final boolean integral;
+
+  private long count = 0;
+  private long longSum = 0;
+  private long longMin = Long.MAX_VALUE;
+  private long longMax = Long.MIN_VALUE;
+  private double doubleSum = 0;
+  private double doubleMin = Double.POSITIVE_INFINITY;
+  private double doubleMax = Double.NEGATIVE_INFINITY;
+  private boolean numeric = true;
+  private Object min;
+  private Object max;
+
+
+  public AggregationSink(Invocation invocation)
+  {
+    this.invocation = Assert.notNull(invocation);
+    this.returnType = invocation.getReturnType();
+    this.kind = getKind(returnType);
+    this.integral = isIntegral(returnType);
+  }
+
+
+  private static Kind getKind(Class<?> type)
+  {
+    if (type == long.class || type == int.class || type == short.class
+        || type == byte.class)
+    {
+      return Kind.LONG;
+    }
+    else if (type == double.class || type == float.class)
+    {
+      return Kind.DOUBLE;
+    }
+    return Kind.OBJECT;
+  }
+
+
+  private static boolean isIntegral(Class<?> type)
+  {
+    return getKind(type) == Kind.LONG || type == Long.class
+        || type == Integer.class || type == Short.class || type == Byte.class;
+  }
+
+
+  /**
+   * @return a new empty sink for the same recorded method call.
+   */
+  public AggregationSink<T> newSink()
+  {
+    return new AggregationSink<>(invocation);
+  }
+
+
+  public void add(T element)
+  {
+    if (element == null)
+    {
+      return;
+    }
+
+    switch (kind)
+    {
+    case LONG:
+      addLong(invocation.invokeLong(element));
+      break;
+    case DOUBLE:
+      addDouble(invocation.invokeDouble(element));
+      break;
+    default:
+      addValue(invocation.invoke(element));
+    }
+  }
+
+
+  private void addLong(long value)
+  {
+    count++;
+    longSum += value;
+    longMin = Math.min(longMin, value);
+    longMax = Math.max(longMax, value);
+  }
+
+
+  private void addDouble(double value)
+  {
+    count++;
+    doubleSum += value;
+    // same order as Double.compareTo(): NaN is the largest value
+    if (Double.compare(value, doubleMin) < 0)
+    {
+      doubleMin = value;
+    }
+    if (Double.compare(value, doubleMax) > 0)
+    {
+      doubleMax = value;
+    }
+  }
+
+
+  private void addValue(Object value)
+  {
+    if (value == null)
+    {
+      return;
+    }
+
+    count++;
+    if (numeric && value instanceof Number)
+    {
+      if (integral)
+      {
+        longSum += ((Number) value).longValue();
+      }
+      else
+      {
+        doubleSum += ((Number) value).doubleValue();
+      }
+    }
+    else
+    {
+      numeric = false;
+    }
+
+    if (min == null || compare(value, min) < 0)
+    {
+      min = value;
+    }
+    if (max == null || compare(value, max) > 0)
+    {
+      max = value;
+    }
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private int compare(Object value1, Object value2)
+  {
+    if (!(value1 instanceof Comparable<?>))
+    {
+      throw new QueryResultException("Values of method call '" + invocation
+          + "' are not comparable.");
+    }
+    return ((Comparable<Object>) value1).compareTo(value2);
+  }
+
+
+  /**
+   * Adds the aggregated values of the given sink to this sink. This is used
+   * for combining partial results of parallel queries.
+   * 
+   * @param other a not null sink for the same recorded method call.
+   */
+  public void combine(AggregationSink<T> other)
+  {
+    if (other.count == 0)
+    {
+      return;
+    }
+
+    count += other.count;
+    longSum += other.longSum;
+    doubleSum += other.doubleSum;
+    if (kind == Kind.LONG)
+    {
+      longMin = Math.min(longMin, other.longMin);
+      longMax = Math.max(longMax, other.longMax);
+    }
+    else if (kind == Kind.DOUBLE)
+    {
+      if (Double.compare(other.doubleMin, doubleMin) < 0)
+      {
+        doubleMin = other.doubleMin;
+      }
+      if (Double.compare(other.doubleMax, doubleMax) > 0)
+      {
+        doubleMax = other.doubleMax;
+      }
+    }
+    else
+    {
+      numeric = numeric && other.numeric;
+      if (min == null || compare(other.min, min) < 0)
+      {
+        min = other.min;
+      }
+      if (max == null || compare(other.max, max) > 0)
+      {
+        max = other.max;
+      }
+    }
+  }
+
+
+  /**
+   * @param <R> the return type of the recorded method call.
+   * @return the aggregated values.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> AggregateResult<R> getResult()
+  {
+    Number sum = null;
+    if (numeric)
+    {
+      sum = integral ? (Number) longSum : (Number) doubleSum;
+    }
+
+    if (kind == Kind.OBJECT || count == 0)
+    {
+      return new AggregateResult<>(count, sum, (R) min, (R) max);
+    }
+    else if (kind == Kind.LONG)
+    {
+      return new AggregateResult<>(count, sum, (R) box(longMin),
+          (R) box(longMax));
+    }
+    return new AggregateResult<>(count, sum, (R) box(doubleMin),
+        (R) box(doubleMax));
+  }
+
+
+  /**
+   * @return the given value boxed into the wrapper of the primitive return
+   *         type of the recorded method call.
+   */
+  private Object box(long value)
+  {
+    if (returnType == int.class)
+    {
+      return (int) value;
+    }
+    else if (returnType == short.class)
+    {
+      return (short) value;
+    }
+    else if (returnType == byte.class)
+    {
+      return (byte) value;
+    }
+    return value;
+  }
+
+
+  private Object box(double value)
+  {
+    return (returnType == float.class) ? (Object) (float) value
+        : (Object) value;
+  }
+
+}
@@ -0,0 +1,23 @@
+package org.jaqlib.core;
+
+import java.util.List;
+
+/**
+ * Task that is executed for chunks of matching elements (see
+ * {@link QueryResult#executeBatches(BatchTask, ExecutionOptions)}). So
+ * downstream operations (e.g. writes to another store) can be grouped.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type.
+ */
+public interface BatchTask<T>
+{
+
+  /**
+   * @param elements a not empty chunk of matching elements. The size of the
+   *          chunk is at most the batch size of the execution options.
+   */
+  void execute(List<? extends T> elements);
+
+}
@@ -0,0 +1,30 @@
+package org.jaqlib.core;
+
+import java.util.Map;
+
+/**
+ * WHERE condition that can compare against a named query parameter instead of
+ * a fixed value (see {@link PreparedQuery#param(String)}).
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type.
+ */
+public interface BindableWhereCondition<T> extends WhereCondition<T>
+{
+
+  /**
+   * @return the name of the query parameter of this condition; null if this
+   *         condition compares against a fixed value.
+   */
+  String getParameterName();
+
+
+  /**
+   * @param values the values of the query parameters by their names.
+   * @return a condition that compares against the value of the query
+   *         parameter; this object if no query parameter is used.
+   */
+  WhereCondition<T> bind(Map<String, ?> values);
+
+}
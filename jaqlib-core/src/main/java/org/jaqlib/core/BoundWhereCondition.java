@@ -0,0 +1,49 @@
+package org.jaqlib.core;
+
+import org.jaqlib.util.Assert;
+
+/**
+ * WHERE condition whose query parameter has been bound to a value (see
+ * {@link BindableWhereCondition#bind(java.util.Map)}). Objects of this class
+ * are immutable.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type.
+ * @param <ResultType> the type of the compared value.
+ */
+public class BoundWhereCondition<T, ResultType> implements WhereCondition<T>,
+    LoggableQueryItem
+{
+
+  private final Compare<T, ResultType> compare;
+
+
+  public BoundWhereCondition(Compare<T, ResultType> compare)
+  {
+    this.compare = Assert.notNull(compare);
+  }
+
+
+  public boolean evaluate(T element)
+  {
+    return compare.evaluate(element);
+  }
+
+
+  /**
+   * @return the comparison with the bound value.
+   */
+  public Compare<T, ResultType> getCompare()
+  {
+    return compare;
+  }
+
+
+  public void appendLogString(StringBuilder sb)
+  {
+    sb.append("element.");
+    compare.appendLogString(sb);
+  }
+
+}
@@ -1,10 +1,9 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.util.Assert;
 import org.jaqlib.util.LogUtil;
 
-import java.util.Collection;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -30,18 +29,21 @@ public class CachingFetchStrategy<T> extends AbstractFetchStrategy<T>
 
 
   @Override
-  public void addResults(Collection<T> result)
+  public void addResults(ResultSink<T> result)
   {
     if (cache.isFilled())
     {
       log.fine("Fetching query results from cache.");
 
-      cache.addResults(result);
+      setCacheStatus(QueryEvent.CacheStatus.HIT);
+      cache.addResults(result, getPredicate());
+      fireMetrics();
     }
     else
     {
       log.fine("Fetching query results from data source.");
 
+      setCacheStatus(QueryEvent.CacheStatus.MISS);
       super.addResults(result);
       cache.setFilled();
     }
@@ -50,24 +52,36 @@ public class CachingFetchStrategy<T> extends AbstractFetchStrategy<T>
 
   @Override
   public <KeyType> void addResults(Map<KeyType, T> resultMap,
-      MethodInvocation invocation)
+      Invocation invocation)
   {
     if (cache.isFilled())
     {
       log.fine("Fetching query results from cache.");
 
-      cache.addResults(resultMap, invocation);
+      setCacheStatus(QueryEvent.CacheStatus.HIT);
+      cache.addResults(resultMap, invocation, getPredicate());
+      fireMetrics();
     }
     else
     {
       log.fine("Fetching query results from data source.");
 
+      setCacheStatus(QueryEvent.CacheStatus.MISS);
       super.addResults(resultMap, invocation);
       cache.setFilled();
     }
   }
 
 
+  private void setCacheStatus(QueryEvent.CacheStatus cacheStatus)
+  {
+    if (getMetrics() != null)
+    {
+      getMetrics().setCacheStatus(cacheStatus);
+    }
+  }
+
+
   /**
    * All records must be processed. So this method always returns false.
    */
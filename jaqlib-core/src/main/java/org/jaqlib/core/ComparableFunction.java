@@ -1,10 +1,15 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.util.ReflectionUtil;
 
 
 /**
+ * Comparison of the result of a recorded method call with an expected value
+ * by {@link Comparable#compareTo(Object)}. If the recorded method returns a
+ * number (a primitive or a wrapper) and the expected value is of the same type
+ * then the numbers are compared directly without boxing the method results.
+ * 
  * @author Werner Fragner
  * 
  * @param <T>
@@ -13,9 +18,27 @@ public abstract class ComparableFunction<T, ResultType> extends
     ReflectiveCompare<T, ResultType>
 {
 
-  public ComparableFunction(MethodInvocation invocation, ResultType expected)
+  private final PrimitiveComparison primitiveComparison;
+
+
+  public ComparableFunction(Invocation invocation, ResultType expected)
   {
     super(invocation, expected);
+    this.primitiveComparison = PrimitiveComparison.create(invocation,
+        expected);
+  }
+
+
+  @Override
+  public boolean evaluate(T element)
+  {
+    if (primitiveComparison == null)
+    {
+      return super.evaluate(element);
+    }
+
+    final int comparison = primitiveComparison.compare(element);
+    return comparison != PrimitiveComparison.NULL && matches(comparison);
   }
 
 
@@ -39,8 +62,19 @@ public abstract class ComparableFunction<T, ResultType> extends
   }
 
 
-  protected abstract boolean doCompare(Comparable<ResultType> actual,
-      ResultType expected);
+  protected boolean doCompare(Comparable<ResultType> actual,
+      ResultType expected)
+  {
+    return matches(actual.compareTo(expected));
+  }
+
+
+  /**
+   * @param comparison the result of comparing the actual value with the
+   *          expected value (see {@link Comparable#compareTo(Object)}).
+   * @return true if the actual value matches this function.
+   */
+  protected abstract boolean matches(int comparison);
 
 
   private String getPlainClassName()
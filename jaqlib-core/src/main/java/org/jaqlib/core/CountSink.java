@@ -0,0 +1,45 @@
+package org.jaqlib.core;
+
+/**
+ * Sink that only counts the added elements. The elements themselves are
+ * not stored. It is used for counting the matching elements of a query
+ * without materializing them.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type of the query.
+ */
+public class CountSink<T> implements ResultSink<T>
+{
+
+  private long count = 0;
+
+
+  public void add(T element)
+  {
+    count++;
+  }
+
+
+  /**
+   * Adds the given number of elements to the count.
+   * 
+   * @param elementCount the number of elements that have been counted by the
+   *          caller.
+   */
+  public void addCount(long elementCount)
+  {
+    count += elementCount;
+  }
+
+
+  /**
+   * @return the number of added elements; at most
+   *         {@link Integer#MAX_VALUE}.
+   */
+  public int getCount()
+  {
+    return (int) Math.min(count, Integer.MAX_VALUE);
+  }
+
+}
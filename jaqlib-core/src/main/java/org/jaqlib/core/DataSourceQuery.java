@@ -1,12 +1,13 @@
 package org.jaqlib.core;
 
 import org.jaqlib.core.bean.AbstractMapping;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.core.reflect.MethodCallRecorder;
-import org.jaqlib.core.reflect.MethodInvocation;
 import org.jaqlib.util.Assert;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.function.IntSupplier;
 
 
 public class DataSourceQuery<T, DataSourceType extends SelectDataSource>
@@ -16,6 +17,12 @@ public class DataSourceQuery<T, DataSourceType extends SelectDataSource>
   private final AbstractMapping<T> mapping;
   private QueryCache<T> cache;
 
+  /**
+   * The metrics of the current execution; null if no query listeners are
+   * registered.
+   */
+  private QueryMetrics metrics;
+
 
   public DataSourceQuery(MethodCallRecorder methodCallRecorder,
       AbstractMapping<T> mapping)
@@ -26,26 +33,114 @@ public class DataSourceQuery<T, DataSourceType extends SelectDataSource>
 
 
   @Override
-  protected <KeyType> void addResults(final Map<KeyType, T> resultMap)
+  protected <KeyType> void addResults(final Map<KeyType, T> resultMap,
+      Invocation invocation)
   {
-    final MethodInvocation invocation = getCurrentInvocation();
-    getCachingFetchStrategy().addResults(resultMap, invocation);
+    if (getLimit().isLimited())
+    {
+      getStreamingFetchStrategy().addResults(resultMap, invocation);
+    }
+    else
+    {
+      getCachingFetchStrategy().addResults(resultMap, invocation);
+    }
   }
 
 
   @Override
-  protected void addResults(Collection<T> result, boolean stopAtFirstMatch)
+  protected void addResults(ResultSink<T> result, boolean stopAtFirstMatch)
   {
     getFetchStrategy(stopAtFirstMatch).addResults(result);
   }
 
 
+  @Override
+  protected void addResultsToSink(ResultSink<T> sink)
+  {
+    if (isCacheFilled() && !getLimit().isLimited())
+    {
+      if (metrics != null)
+      {
+        metrics.setCacheStatus(QueryEvent.CacheStatus.HIT);
+        getCache().addResults(sink, metrics.timed(getPredicate()));
+        metrics.fire();
+      }
+      else
+      {
+        getCache().addResults(sink, getPredicate());
+      }
+    }
+    else
+    {
+      getStreamingFetchStrategy().addResults(sink);
+    }
+  }
+
+
+  @Override
+  protected ResultIterator<T> createResultIterator(
+      ElementPredicate<T> predicate)
+  {
+    // elements are not cached because they are streamed one by one
+    AbstractFetchStrategy<T> strategy = getStreamingFetchStrategy();
+    strategy.setPredicate(predicate);
+    return strategy.iterator();
+  }
+
+
+  /**
+   * Counts the elements with the given count of the data source (e.g. a SQL
+   * <tt>COUNT</tt> statement) instead of fetching them. The execution is
+   * reported to the registered query listeners; so
+   * {@link #executionStarted(String)} must have been called before.
+   * 
+   * @param count a not null function that counts the elements of the data
+   *          source.
+   * @return the result of the given function.
+   */
+  protected int countByDataSource(IntSupplier count)
+  {
+    if (metrics == null)
+    {
+      return count.getAsInt();
+    }
+
+    final int result = metrics.count(count);
+    metrics.fire();
+    return result;
+  }
+
+
+  /**
+   * @return the mapping of the data source elements to the result elements.
+   */
+  protected AbstractMapping<T> getMapping()
+  {
+    return mapping;
+  }
+
+
+  /**
+   * @return true if the elements of the data source have already been fetched
+   *         and are cached.
+   */
+  protected boolean isCacheFilled()
+  {
+    return cache != null && cache.isFilled();
+  }
+
+
   private AbstractFetchStrategy<T> getFetchStrategy(boolean stopAtFirstMatch)
   {
     if (stopAtFirstMatch)
     {
       return getFirstOccurenceFetchStrategy();
     }
+    else if (getLimit().isLimited())
+    {
+      // the cache can't be filled if fetching is stopped at the limit
+      return getStreamingFetchStrategy();
+    }
     else
     {
       return getCachingFetchStrategy();
@@ -65,25 +160,70 @@ public class DataSourceQuery<T, DataSourceType extends SelectDataSource>
   }
 
 
+  private AbstractFetchStrategy<T> getStreamingFetchStrategy()
+  {
+    return initFetchStrategy(new StreamingFetchStrategy<>());
+  }
+
+
   private AbstractFetchStrategy<T> initFetchStrategy(AbstractFetchStrategy<T> strategy)
   {
     strategy.setDataSource(getDataSource());
     strategy.setMapping(mapping);
-    strategy.setPredicate(tree);
+    strategy.setMetrics(metrics);
+    strategy.setPredicate(getPredicate());
+    strategy.setLimit(getLimit());
+    prepareDataSource(getDataSource());
     return strategy;
   }
 
 
+  /**
+   * Is called before the data source is queried. Subclasses can override this
+   * method in order to configure the data source for the current query (e.g.
+   * for applying the result limit). The default implementation does nothing.
+   * 
+   * @param dataSource the data source of this query.
+   */
+  protected void prepareDataSource(DataSourceType dataSource)
+  {
+  }
+
+
   private QueryCache<T> getCache()
   {
     if (cache == null)
     {
-      cache = new QueryCache<>(tree);
+      cache = new QueryCache<>(tree, Defaults.getSharedQueryCache(),
+          this::getCacheKey);
     }
     return cache;
   }
 
 
+  /**
+   * @return the key of the fetched elements in the shared query cache; null if
+   *         the data source does not support sharing its elements.
+   */
+  private Object getCacheKey()
+  {
+    final Object dataSourceKey = getDataSource().getCacheKey();
+    if (dataSourceKey == null)
+    {
+      return null;
+    }
+    return Arrays.asList(dataSourceKey, mapping.getCacheKey());
+  }
+
+
+  @Override
+  protected void executionStarted(String resultType)
+  {
+    metrics = Defaults.hasQueryListeners() ? new QueryMetrics(
+        getDataSource(), resultType) : null;
+  }
+
+
   @Override
   protected String getResultDefinitionString()
   {
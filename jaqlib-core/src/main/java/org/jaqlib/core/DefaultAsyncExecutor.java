@@ -0,0 +1,76 @@
+package org.jaqlib.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the default executor for asynchronous queries (see
+ * {@link Defaults#getAsyncExecutor()}). On Java 21 and later a new virtual
+ * thread is started for every query. On older Java versions a cached pool of
+ * daemon threads is used. In both cases blocking I/O (e.g. JDBC round trips)
+ * does not block the threads of a shared pool like the common fork/join pool.
+ * 
+ * @author Werner Fragner
+ */
+final class DefaultAsyncExecutor
+{
+
+  /**
+   * This class is not intended to be instantiated.
+   */
+  private DefaultAsyncExecutor()
+  {
+    throw new UnsupportedOperationException();
+  }
+
+
+  /**
+   * The executor is created lazily when it is used for the first time.
+   */
+  private static class Holder
+  {
+
+    private static final Executor INSTANCE = create();
+
+  }
+
+
+  static Executor get()
+  {
+    return Holder.INSTANCE;
+  }
+
+
+  private static Executor create()
+  {
+    try
+    {
+      // Java 21+; looked up by reflection in order to run on older versions
+      final Method factory = Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor");
+      return (Executor) factory.invoke(null);
+    }
+    catch (ReflectiveOperationException | RuntimeException e)
+    {
+      return createThreadPool();
+    }
+  }
+
+
+  private static ExecutorService createThreadPool()
+  {
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "jaqlib-async-"
+          + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    return Executors.newCachedThreadPool(threadFactory);
+  }
+
+}
@@ -4,6 +4,9 @@ import org.jaqlib.core.bean.*;
 import org.jaqlib.util.Assert;
 import org.jaqlib.util.LogUtil;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,6 +49,11 @@ public class Defaults
   private static BeanMappingStrategy beanMappingStrategy;
   private static JavaTypeHandlerRegistry javaTypeHandlerRegistry;
   private static boolean strictFieldCheck;
+  private static SharedQueryCache sharedQueryCache;
+  private static boolean adaptiveConditionOrder;
+  private static boolean rowMapperGeneration;
+  private static Executor asyncExecutor;
+  private static final List<QueryListener> queryListeners = new CopyOnWriteArrayList<>();
 
 
   /*
@@ -67,6 +75,11 @@ public class Defaults
     beanMappingStrategy = new BeanConventionMappingStrategy();
     javaTypeHandlerRegistry = new DefaultJavaTypeHandlerRegistry();
     strictFieldCheck = false;
+    sharedQueryCache = null;
+    adaptiveConditionOrder = false;
+    rowMapperGeneration = false;
+    asyncExecutor = null;
+    queryListeners.clear();
   }
 
 
@@ -248,4 +261,173 @@ public class Defaults
     return strictFieldCheck;
   }
 
+
+  /**
+   * @return the query cache that is shared by all queries; null if no shared
+   *         cache is used (the default).
+   */
+  public static SharedQueryCache getSharedQueryCache()
+  {
+    return sharedQueryCache;
+  }
+
+
+  /**
+   * Sets the query cache that is shared by all queries. Queries on data
+   * sources that can be identified (e.g. SQL SELECT statements with their
+   * parameters or XML files with their XPath expressions) reuse the elements
+   * that have already been fetched by other queries.<br>
+   * <b>NOTE: this method changes the shared query cache for the whole
+   * application! Use with care.</b>
+   * 
+   * @param cache the shared cache; null for disabling the shared cache.
+   */
+  public static void setSharedQueryCache(SharedQueryCache cache)
+  {
+    Defaults.sharedQueryCache = cache;
+  }
+
+
+  /**
+   * Enables or disables the adaptive ordering of WHERE conditions. If enabled
+   * then the costs and selectivities of the conditions are sampled during the
+   * evaluation of the first elements of a query. Afterwards the conditions of
+   * every AND and OR group are reordered so that the expected evaluation costs
+   * are minimal. Queries with tasks are never reordered.<br>
+   * This option must only be enabled if the WHERE conditions have no side
+   * effects and do not depend on the evaluation order of other conditions
+   * (e.g. a null check before a method call). By default it is disabled.<br>
+   * <b>NOTE: this method changes the default value for the whole application!
+   * Use with care.</b>
+   * 
+   * @param adaptiveConditionOrder true for enabling adaptive ordering.
+   */
+  public static void setAdaptiveConditionOrder(boolean adaptiveConditionOrder)
+  {
+    Defaults.adaptiveConditionOrder = adaptiveConditionOrder;
+  }
+
+
+  /**
+   * @return true if WHERE conditions are reordered by their sampled costs and
+   *         selectivities.
+   */
+  public static boolean getAdaptiveConditionOrder()
+  {
+    return adaptiveConditionOrder;
+  }
+
+
+  /**
+   * Enables or disables the generation of row mappers for new bean mappings
+   * (see {@link BeanMapping#setRowMapperGeneration(boolean)}). If enabled then
+   * the values of data source rows are set on the beans by generated classes
+   * with direct setter calls instead of reflection. Requires cglib; if cglib
+   * is not available then this option is ignored. By default it is
+   * disabled.<br>
+   * <b>NOTE: this method changes the default value for the whole application!
+   * Use with care.</b>
+   * 
+   * @param rowMapperGeneration true for enabling the generation of row
+   *          mappers.
+   */
+  public static void setRowMapperGeneration(boolean rowMapperGeneration)
+  {
+    Defaults.rowMapperGeneration = rowMapperGeneration;
+  }
+
+
+  /**
+   * @return true if new bean mappings generate row mappers.
+   */
+  public static boolean getRowMapperGeneration()
+  {
+    return rowMapperGeneration;
+  }
+
+
+  /**
+   * @return the executor that runs asynchronous queries (e.g.
+   *         {@link QueryResult#asListAsync()}). By default a new virtual thread
+   *         is used for every query on Java 21 and later; on older Java
+   *         versions a cached pool of daemon threads is used. Never returns
+   *         null.
+   */
+  public static Executor getAsyncExecutor()
+  {
+    final Executor executor = asyncExecutor;
+    return (executor != null) ? executor : DefaultAsyncExecutor.get();
+  }
+
+
+  /**
+   * Sets the executor that runs asynchronous queries (e.g.
+   * {@link QueryResult#asListAsync()}).<br>
+   * <b>NOTE: this method changes the default executor for the whole
+   * application! Use with care.</b>
+   * 
+   * @param executor the executor; null for using the default executor.
+   */
+  public static void setAsyncExecutor(Executor executor)
+  {
+    Defaults.asyncExecutor = executor;
+  }
+
+
+  /**
+   * Registers a listener that is notified about every execution of a query on
+   * a data source (see {@link QueryListener}). Metrics are only collected
+   * while at least one listener is registered.<br>
+   * <b>NOTE: the listener is notified about the queries of the whole
+   * application!</b>
+   * 
+   * @param listener a not null listener.
+   */
+  public static void registerQueryListener(QueryListener listener)
+  {
+    queryListeners.add(Assert.notNull(listener));
+  }
+
+
+  /**
+   * Unregisters the given query listener. If the given listener has not been
+   * registered before then no action is performed.
+   * 
+   * @param listener the listener to remove; may be null.
+   */
+  public static void unregisterQueryListener(QueryListener listener)
+  {
+    queryListeners.remove(listener);
+  }
+
+
+  /**
+   * @return true if at least one query listener is registered.
+   */
+  public static boolean hasQueryListeners()
+  {
+    return !queryListeners.isEmpty();
+  }
+
+
+  /**
+   * Notifies all registered query listeners. Exceptions of listeners are
+   * logged; they do not abort the query.
+   */
+  static void fireQueryExecuted(QueryEvent event)
+  {
+    for (QueryListener listener : queryListeners)
+    {
+      try
+      {
+        listener.queryExecuted(event);
+      }
+      catch (RuntimeException e)
+      {
+        LogUtil.getJaqlibLogger().log(Level.WARNING,
+            "Query listener " + listener + " failed.", e);
+      }
+    }
+  }
+
 }
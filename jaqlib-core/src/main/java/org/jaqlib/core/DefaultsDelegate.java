@@ -2,6 +2,7 @@ package org.jaqlib.core;
 
 import org.jaqlib.core.bean.*;
 
+import java.util.concurrent.Executor;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 
@@ -149,6 +150,96 @@ public class DefaultsDelegate
   }
 
 
+  /**
+   * See {@link Defaults#getSharedQueryCache()}.
+   */
+  public SharedQueryCache getSharedQueryCache()
+  {
+    return Defaults.getSharedQueryCache();
+  }
+
+
+  /**
+   * See {@link Defaults#setSharedQueryCache(SharedQueryCache)}.
+   */
+  public void setSharedQueryCache(SharedQueryCache cache)
+  {
+    Defaults.setSharedQueryCache(cache);
+  }
+
+
+  /**
+   * See {@link Defaults#setAdaptiveConditionOrder(boolean)}.
+   */
+  public void setAdaptiveConditionOrder(boolean adaptiveConditionOrder)
+  {
+    Defaults.setAdaptiveConditionOrder(adaptiveConditionOrder);
+  }
+
+
+  /**
+   * See {@link Defaults#getAdaptiveConditionOrder()}.
+   */
+  public boolean getAdaptiveConditionOrder()
+  {
+    return Defaults.getAdaptiveConditionOrder();
+  }
+
+
+  /**
+   * See {@link Defaults#setRowMapperGeneration(boolean)}.
+   */
+  public void setRowMapperGeneration(boolean rowMapperGeneration)
+  {
+    Defaults.setRowMapperGeneration(rowMapperGeneration);
+  }
+
+
+  /**
+   * See {@link Defaults#getRowMapperGeneration()}.
+   */
+  public boolean getRowMapperGeneration()
+  {
+    return Defaults.getRowMapperGeneration();
+  }
+
+
+  /**
+   * See {@link Defaults#getAsyncExecutor()}.
+   */
+  public Executor getAsyncExecutor()
+  {
+    return Defaults.getAsyncExecutor();
+  }
+
+
+  /**
+   * See {@link Defaults#setAsyncExecutor(Executor)}.
+   */
+  public void setAsyncExecutor(Executor executor)
+  {
+    Defaults.setAsyncExecutor(executor);
+  }
+
+
+  /**
+   * See {@link Defaults#registerQueryListener(QueryListener)}.
+   */
+  public void registerQueryListener(QueryListener listener)
+  {
+    Defaults.registerQueryListener(listener);
+  }
+
+
+  /**
+   * See {@link Defaults#unregisterQueryListener(QueryListener)}.
+   */
+  public void unregisterQueryListener(QueryListener listener)
+  {
+    Defaults.unregisterQueryListener(listener);
+  }
+
+
   /**
    * See {@link Defaults#reset()}.
    */
@@ -47,4 +47,14 @@ public interface DsResultSet
   Object getAnynomousObject(FieldMapping<?> mapping);
 
 
+  /**
+   * Releases all resources of this result set. This method is called when all
+   * results have been read or when a lazy query result is closed. The default
+   * implementation does nothing.
+   */
+  default void close()
+  {
+  }
+
+
 }
@@ -0,0 +1,137 @@
+package org.jaqlib.core;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Describes how tasks are executed for the matching elements of a query (see
+ * {@link QueryResult#execute(Task, ExecutionOptions)}). The matching elements
+ * are grouped into batches that are executed by a bounded pool of worker
+ * threads. At most <tt>maxPendingBatches</tt> batches are queued or running
+ * at the same time; reading the data source is blocked until a batch has been
+ * completed (backpressure). So the memory usage is bounded even for huge data
+ * sources. Objects of this class are immutable.
+ * 
+ * @author Werner Fragner
+ */
+public class ExecutionOptions
+{
+
+  /**
+   * Executes the tasks sequentially in a single worker thread, one element
+   * per batch.
+   */
+  public static final ExecutionOptions DEFAULT = new ExecutionOptions(1, 1,
+      -1, null);
+
+  private final int parallelism;
+  private final int batchSize;
+  private final int maxPendingBatches;
+  private final Executor executor;
+
+
+  private ExecutionOptions(int parallelism, int batchSize,
+      int maxPendingBatches, Executor executor)
+  {
+    if (parallelism < 1)
+    {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    if (batchSize < 1)
+    {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+    if (maxPendingBatches < -1 || maxPendingBatches == 0)
+    {
+      throw new IllegalArgumentException(
+          "Max pending batches must be -1 or positive.");
+    }
+
+    this.parallelism = parallelism;
+    this.batchSize = batchSize;
+    this.maxPendingBatches = maxPendingBatches;
+    this.executor = executor;
+  }
+
+
+  /**
+   * @param parallelism the number of worker threads; must be &gt; 0. It is
+   *          ignored if a custom executor is given.
+   */
+  public ExecutionOptions withParallelism(int parallelism)
+  {
+    return new ExecutionOptions(parallelism, batchSize, maxPendingBatches,
+        executor);
+  }
+
+
+  /**
+   * @param batchSize the maximum number of elements of a batch; must be &gt;
+   *          0.
+   */
+  public ExecutionOptions withBatchSize(int batchSize)
+  {
+    return new ExecutionOptions(parallelism, batchSize, maxPendingBatches,
+        executor);
+  }
+
+
+  /**
+   * @param maxPendingBatches the maximum number of batches that are queued or
+   *          running at the same time; must be &gt; 0 or -1 for twice the
+   *          parallelism (the default).
+   */
+  public ExecutionOptions withMaxPendingBatches(int maxPendingBatches)
+  {
+    return new ExecutionOptions(parallelism, batchSize, maxPendingBatches,
+        executor);
+  }
+
+
+  /**
+   * @param executor the executor that executes the batches; null for a pool
+   *          of <tt>parallelism</tt> threads that is created for every
+   *          execution (the default). A custom executor is not shut down.
+   */
+  public ExecutionOptions withExecutor(Executor executor)
+  {
+    return new ExecutionOptions(parallelism, batchSize, maxPendingBatches,
+        executor);
+  }
+
+
+  public int getParallelism()
+  {
+    return parallelism;
+  }
+
+
+  public int getBatchSize()
+  {
+    return batchSize;
+  }
+
+
+  public int getMaxPendingBatches()
+  {
+    return (maxPendingBatches > 0) ? maxPendingBatches : 2 * parallelism;
+  }
+
+
+  /**
+   * @return the custom executor; null if a pool is created for every
+   *         execution.
+   */
+  public Executor getExecutor()
+  {
+    return executor;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "ExecutionOptions[parallelism=" + parallelism + ", batchSize="
+        + batchSize + ", maxPendingBatches=" + getMaxPendingBatches() + "]";
+  }
+
+}
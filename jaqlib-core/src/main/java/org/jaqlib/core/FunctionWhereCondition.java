@@ -0,0 +1,47 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.FunctionInvocation;
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
+
+/**
+ * Implementation of the {@link WhereCondition} interface that compares the
+ * result of a function (e.g. the method reference
+ * <tt>Account::getBalance</tt>) on the single elements. Contrary to
+ * {@link ReflectiveWhereCondition} no recorded method call is needed.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T>
+ * @param <DataSourceType>
+ * @param <ResultType>
+ */
+public class FunctionWhereCondition<T, DataSourceType, ResultType> extends
+    AbstractComparableWhereCondition<T, DataSourceType, ResultType>
+{
+
+  private final FunctionInvocation invocation;
+
+
+  public FunctionWhereCondition(Query<T, DataSourceType> query,
+      FunctionInvocation invocation)
+  {
+    super(query);
+    this.invocation = Assert.notNull(invocation);
+  }
+
+
+  @Override
+  protected Invocation getCurrentMethodInvocation()
+  {
+    return invocation;
+  }
+
+
+  public void appendLogString(StringBuilder sb)
+  {
+    sb.append("element.");
+    compare.appendLogString(sb);
+  }
+
+}
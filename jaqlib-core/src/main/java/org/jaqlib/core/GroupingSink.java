@@ -0,0 +1,79 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
+import org.jaqlib.util.CollectionUtil;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Sink that groups the added elements by their key. Every element is added to
+ * the group of its key. The groups are created by a factory. So a group can
+ * either store its elements (e.g. an {@link java.util.ArrayList}) or only
+ * aggregate them (e.g. a {@link CountSink} or an {@link AggregationSink}).
+ * Null elements are ignored.
+ * <p>
+ * This sink is used for grouping the matching elements of a query in the
+ * same pass as the evaluation of the WHERE conditions. The groups can be
+ * retrieved by {@link #getGroups()}.
+ * </p>
+ *
+ * @author Werner Fragner
+ *
+ * @param <K> the key type.
+ * @param <T> the element type of the query.
+ * @param <G> the type of the groups.
+ */
+public class GroupingSink<K, T, G> implements ResultSink<T>
+{
+
+  private final Invocation key;
+  private final Supplier<? extends G> groupFactory;
+  private final BiConsumer<? super G, ? super T> accumulator;
+  private final Map<K, G> groups = CollectionUtil.newDefaultMap();
+
+
+  /**
+   * @param key the not null call that returns the key of an element.
+   * @param groupFactory creates an empty group for every new key.
+   * @param accumulator adds an element to a group.
+   */
+  public GroupingSink(Invocation key, Supplier<? extends G> groupFactory,
+      BiConsumer<? super G, ? super T> accumulator)
+  {
+    this.key = Assert.notNull(key);
+    this.groupFactory = Assert.notNull(groupFactory);
+    this.accumulator = Assert.notNull(accumulator);
+  }
+
+
+  @SuppressWarnings("unchecked")
+  public void add(T element)
+  {
+    if (element == null)
+    {
+      return;
+    }
+
+    final K elementKey = (K) key.invoke(element);
+    G group = groups.get(elementKey);
+    if (group == null)
+    {
+      group = groupFactory.get();
+      groups.put(elementKey, group);
+    }
+    accumulator.accept(group, element);
+  }
+
+
+  /**
+   * @return the groups by their key.
+   */
+  public Map<K, G> getGroups()
+  {
+    return groups;
+  }
+
+}
@@ -1,6 +1,6 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.util.CompareUtil;
 
 /**
@@ -12,9 +12,28 @@ import org.jaqlib.util.CompareUtil;
 public class IsNotEqual<T, ResultType> extends ReflectiveCompare<T, ResultType>
 {
 
-  public IsNotEqual(MethodInvocation invocation, ResultType expected)
+  private final PrimitiveComparison primitiveComparison;
+
+
+  public IsNotEqual(Invocation invocation, ResultType expected)
   {
     super(invocation, expected);
+    this.primitiveComparison = PrimitiveComparison.create(invocation,
+        expected);
+  }
+
+
+  @Override
+  public boolean evaluate(T element)
+  {
+    if (primitiveComparison == null)
+    {
+      return super.evaluate(element);
+    }
+
+    // a null result is not equal to the (not null) expected value
+    final int comparison = primitiveComparison.compare(element);
+    return comparison != 0;
   }
 
 
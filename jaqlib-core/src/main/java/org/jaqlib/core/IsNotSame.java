@@ -1,6 +1,6 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 
 /**
  * @author Werner Fragner
@@ -11,7 +11,7 @@ import org.jaqlib.core.reflect.MethodInvocation;
 public class IsNotSame<T, ResultType> extends ReflectiveCompare<T, ResultType>
 {
 
-  public IsNotSame(MethodInvocation invocation, ResultType expected)
+  public IsNotSame(Invocation invocation, ResultType expected)
   {
     super(invocation, expected);
   }
@@ -1,6 +1,6 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 
 
 /**
@@ -12,16 +12,16 @@ public class IsSmallerThanOrEqualTo<T, ResultType> extends
     ComparableFunction<T, ResultType>
 {
 
-  public IsSmallerThanOrEqualTo(MethodInvocation invocation, ResultType expected)
+  public IsSmallerThanOrEqualTo(Invocation invocation, ResultType expected)
   {
     super(invocation, expected);
   }
 
 
   @Override
-  protected boolean doCompare(Comparable<ResultType> actual, ResultType expected)
+  protected boolean matches(int comparison)
   {
-    return actual.compareTo(expected) <= 0;
+    return comparison <= 0;
   }
 
 
@@ -0,0 +1,32 @@
+package org.jaqlib.core;
+
+/**
+ * Sink that only keeps a reference to the last added element. It is
+ * used for retrieving the last matching element of a query without
+ * materializing all matching elements.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type of the query.
+ */
+public class LastElementSink<T> implements ResultSink<T>
+{
+
+  private T last;
+
+
+  public void add(T element)
+  {
+    last = element;
+  }
+
+
+  /**
+   * @return the last added element; null if no element has been added.
+   */
+  public T getLast()
+  {
+    return last;
+  }
+
+}
@@ -0,0 +1,142 @@
+package org.jaqlib.core;
+
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sink that orders the added elements by a {@link ResultOrder} and keeps
+ * only the elements of a {@link ResultLimit} window. If a maximum number of
+ * results is given then only a bounded heap with the best <tt>offset +
+ * maxResults</tt> elements is kept while the elements are added. So the top
+ * k elements of a huge data source can be retrieved in O(n log k) time and
+ * O(k) memory. Otherwise all elements are kept and sorted once.
+ * <p>
+ * The sort is stable: elements with equal key values are returned in the
+ * order in which they have been added.
+ * </p>
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the element type of the query.
+ */
+public class OrderingSink<T> implements ResultSink<T>
+{
+
+  private static final int MAX_INITIAL_CAPACITY = 1024;
+
+  private final ResultOrder order;
+  private final ResultLimit limit;
+  private final Comparator<Entry<T>> comparator;
+
+  /**
+   * Max-heap of the best elements if a maximum number of results is given;
+   * null otherwise.
+   */
+  private final PriorityQueue<Entry<T>> heap;
+  private final List<Entry<T>> entries;
+  private long sequence = 0;
+
+
+  public OrderingSink(ResultOrder order, ResultLimit limit)
+  {
+    this.order = Assert.notNull(order);
+    this.limit = Assert.notNull(limit);
+    this.comparator = (e1, e2) -> compare(e1, e2);
+
+    final int capacity = limit.getMaxMatches();
+    if (capacity >= 0)
+    {
+      // the heap grows on demand; huge limits must not be allocated upfront
+      this.heap = new PriorityQueue<>(Math.max(Math.min(capacity,
+          MAX_INITIAL_CAPACITY), 1), comparator.reversed());
+      this.entries = null;
+    }
+    else
+    {
+      this.heap = null;
+      this.entries = new ArrayList<>();
+    }
+  }
+
+
+  private int compare(Entry<T> e1, Entry<T> e2)
+  {
+    int result = order.compare(e1.values, e2.values);
+    return (result != 0) ? result : Long.compare(e1.sequence, e2.sequence);
+  }
+
+
+  public void add(T element)
+  {
+    final Entry<T> entry = new Entry<>(element, order.getValues(element),
+        sequence++);
+    if (heap == null)
+    {
+      entries.add(entry);
+    }
+    else if (heap.size() < limit.getMaxMatches())
+    {
+      heap.offer(entry);
+    }
+    else if (!heap.isEmpty() && comparator.compare(entry, heap.peek()) < 0)
+    {
+      // the new element is better than the worst kept element
+      heap.poll();
+      heap.offer(entry);
+    }
+  }
+
+
+  /**
+   * @return the ordered elements of the result window.
+   */
+  public List<T> getResult()
+  {
+    List<Entry<T>> sorted = new ArrayList<>((heap != null) ? heap : entries);
+    Collections.sort(sorted, comparator);
+
+    List<T> result = new ArrayList<>(limit.apply(sorted.size()));
+    for (int i = limit.getOffset(); i < sorted.size(); i++)
+    {
+      if (!limit.contains(i))
+      {
+        break;
+      }
+      result.add(sorted.get(i).element);
+    }
+    return result;
+  }
+
+
+  /**
+   * @return the number of elements that are currently kept.
+   */
+  public int size()
+  {
+    return (heap != null) ? heap.size() : entries.size();
+  }
+
+
+  private static class Entry<T>
+  {
+
+    private final T element;
+    private final Object[] values;
+    private final long sequence;
+
+
+    Entry(T element, Object[] values, long sequence)
+    {
+      this.element = element;
+      this.values = values;
+      this.sequence = sequence;
+    }
+
+  }
+
+}
@@ -0,0 +1,277 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.syntaxtree.CompiledSyntaxTree;
+import org.jaqlib.util.Assert;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Immutable template of a query whose WHERE conditions can compare against
+ * named query parameters. The query is built once (including the recording
+ * of method calls and the building of the syntax tree) and can then be
+ * executed many times with different parameter values. Parameters are
+ * declared by {@link #param(String)}:
+ * </p>
+ * 
+ * <pre>
+ * Account account = IterableQB.getRecorder(Account.class);
+ * PreparedQuery&lt;Account&gt; query = IterableQB.select(Account.class).from(accounts)
+ *     .whereCall(account.getId()).isEqual(PreparedQuery.&lt;Long&gt; param(&quot;id&quot;))
+ *     .prepare();
+ * 
+ * Account result = query.bind(&quot;id&quot;, 5L).firstResult();
+ * </pre>
+ * <p>
+ * Objects of this class are thread-safe. Every {@link #bind(String, Object)}
+ * call returns a new object; the values are not stored in the query. Queries
+ * on Iterables are executed concurrently. Queries on other data sources (e.g.
+ * databases or XML files) are executed one after another because their data
+ * sources hold the state of the current execution.
+ * </p>
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type.
+ */
+public class PreparedQuery<T>
+{
+
+  private static final ThreadLocal<String> PENDING_PARAMETER = new ThreadLocal<>();
+
+  private final AbstractQuery<T, ?> query;
+  private final CompiledSyntaxTree<T> program;
+  private final Runnable setup;
+  private final Set<String> parameterNames;
+  private final Map<String, Object> values;
+
+
+  /**
+   * @param setup restores the state of the data source that is consumed by an
+   *          execution (see {@link AbstractQuery#createExecutionSetup()}).
+   */
+  PreparedQuery(AbstractQuery<T, ?> query, CompiledSyntaxTree<T> program,
+      Runnable setup)
+  {
+    this(query, program, setup, getParameterNames(program), Collections
+        .<String, Object> emptyMap());
+  }
+
+
+  private PreparedQuery(AbstractQuery<T, ?> query,
+      CompiledSyntaxTree<T> program, Runnable setup,
+      Set<String> parameterNames, Map<String, Object> values)
+  {
+    this.query = Assert.notNull(query);
+    this.program = Assert.notNull(program);
+    this.setup = Assert.notNull(setup);
+    this.parameterNames = parameterNames;
+    this.values = values;
+  }
+
+
+  private static Set<String> getParameterNames(CompiledSyntaxTree<?> program)
+  {
+    Set<String> names = new LinkedHashSet<>();
+    for (WhereCondition<?> condition : program.getConditions())
+    {
+      if (condition instanceof BindableWhereCondition<?>)
+      {
+        String name = ((BindableWhereCondition<?>) condition)
+            .getParameterName();
+        if (name != null)
+        {
+          names.add(name);
+        }
+      }
+    }
+    return Collections.unmodifiableSet(names);
+  }
+
+
+  /**
+   * Declares a named query parameter. The returned value must be passed
+   * directly to a comparison of a WHERE condition (e.g.
+   * <tt>isEqual(param("id"))</tt>).
+   * 
+   * @param <R> the type of the parameter value.
+   * @param name a not empty name of the parameter.
+   * @return always null; the comparison records the parameter.
+   * @throws IllegalStateException if a previously declared parameter has not
+   *           been passed to a comparison.
+   */
+  public static <R> R param(String name)
+  {
+    if (name == null || name.trim().length() < 1)
+    {
+      throw new IllegalArgumentException("Parameter name must not be empty.");
+    }
+    checkNoPendingParameter();
+    PENDING_PARAMETER.set(name);
+    return null;
+  }
+
+
+  /**
+   * Fails if a parameter has been declared by {@link #param(String)} on the
+   * current thread but has not been passed to a comparison. Otherwise the
+   * next comparison against null would record this parameter. The pending
+   * parameter is discarded.
+   * 
+   * @throws IllegalStateException if such a parameter exists.
+   */
+  static void checkNoPendingParameter()
+  {
+    final String name = PENDING_PARAMETER.get();
+    if (name != null)
+    {
+      PENDING_PARAMETER.remove();
+      throw new IllegalStateException("Query parameter '" + name
+          + "' has not been passed directly to a comparison.");
+    }
+  }
+
+
+  /**
+   * Returns the name of the query parameter that has been declared by
+   * {@link #param(String)} for the given comparison value.
+   * 
+   * @param expected the value that has been passed to a comparison.
+   * @return the name of the declared parameter; null if a fixed value has
+   *         been passed.
+   */
+  static String pollParameter(Object expected)
+  {
+    final String name = PENDING_PARAMETER.get();
+    PENDING_PARAMETER.remove();
+    return (expected == null) ? name : null;
+  }
+
+
+  /**
+   * @return the names of all parameters of this query.
+   */
+  public Set<String> getParameterNames()
+  {
+    return parameterNames;
+  }
+
+
+  /**
+   * @param name the name of a parameter of this query.
+   * @param value the value of the parameter; may be null.
+   * @return a new query with the given parameter value.
+   * @throws IllegalArgumentException if this query has no parameter with the
+   *           given name.
+   */
+  public PreparedQuery<T> bind(String name, Object value)
+  {
+    return bind(Collections.singletonMap(name, value));
+  }
+
+
+  /**
+   * @param values the values of the parameters by their names.
+   * @return a new query with the given parameter values.
+   * @throws IllegalArgumentException if this query has no parameter with one
+   *           of the given names.
+   */
+  public PreparedQuery<T> bind(Map<String, ?> values)
+  {
+    Map<String, Object> newValues = new HashMap<>(this.values);
+    for (Map.Entry<String, ?> entry : values.entrySet())
+    {
+      if (!parameterNames.contains(entry.getKey()))
+      {
+        throw new IllegalArgumentException("Query has no parameter '"
+            + entry.getKey() + "'. Parameters: " + parameterNames);
+      }
+      newValues.put(entry.getKey(), entry.getValue());
+    }
+    return new PreparedQuery<>(query, program, setup, parameterNames,
+        Collections.unmodifiableMap(newValues));
+  }
+
+
+  /**
+   * @return a list containing all matching elements.
+   */
+  public List<T> asList()
+  {
+    return execute(query::getListResult);
+  }
+
+
+  /**
+   * @return a set containing all matching elements.
+   */
+  public Set<T> asSet()
+  {
+    return execute(query::getSetResult);
+  }
+
+
+  /**
+   * @return the first matching element; null if there is no match.
+   */
+  public T firstResult()
+  {
+    return execute(query::getFirstResult);
+  }
+
+
+  /**
+   * @return the last matching element; null if there is no match.
+   */
+  public T lastResult()
+  {
+    return execute(query::getLastResult);
+  }
+
+
+  /**
+   * @return the unique matching element; null if there is no match.
+   * @throws QueryResultException if there are multiple matches.
+   */
+  public T uniqueResult()
+  {
+    return execute(query::getUniqueResult);
+  }
+
+
+  /**
+   * @return the number of matching elements.
+   */
+  public int count()
+  {
+    return execute(query::count);
+  }
+
+
+  private <R> R execute(Supplier<R> result)
+  {
+    if (!values.keySet().containsAll(parameterNames))
+    {
+      Set<String> unbound = new LinkedHashSet<>(parameterNames);
+      unbound.removeAll(values.keySet());
+      throw new IllegalStateException("Query parameters " + unbound
+          + " have not been bound.");
+    }
+
+    return query.execute(program.bind(values), setup, result);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "PreparedQuery" + parameterNames;
+  }
+
+}
@@ -0,0 +1,198 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.Invocation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the numeric result of a recorded method call with an expected
+ * value without boxing the result resp. without calling
+ * {@link Comparable#compareTo(Object)}. The implementation is chosen by the
+ * return type of the recorded method: results of primitive getters are read
+ * as unboxed <tt>long</tt> resp. <tt>double</tt> values, results of wrapper
+ * getters are unwrapped. The comparison results are the same as the results
+ * of the <tt>compareTo()</tt> method of the wrapper classes.
+ *
+ * @author Werner Fragner
+ */
+abstract class PrimitiveComparison
+{
+
+  /**
+   * Result of {@link #compare(Object)} if the element or the result of the
+   * method call is null.
+   */
+  static final int NULL = Integer.MIN_VALUE;
+
+  /**
+   * Wrapper classes of integral numbers by their primitive types.
+   */
+  private static final Map<Class<?>, Class<?>> INTEGRAL_TYPES = 
+      new HashMap<>();
+
+  /**
+   * Wrapper classes of floating point numbers by their primitive types.
+   */
+  private static final Map<Class<?>, Class<?>> FLOATING_TYPES = 
+      new HashMap<>();
+
+  static
+  {
+    INTEGRAL_TYPES.put(byte.class, Byte.class);
+    INTEGRAL_TYPES.put(short.class, Short.class);
+    INTEGRAL_TYPES.put(int.class, Integer.class);
+    INTEGRAL_TYPES.put(long.class, Long.class);
+    FLOATING_TYPES.put(float.class, Float.class);
+    FLOATING_TYPES.put(double.class, Double.class);
+  }
+
+  protected final Invocation invocation;
+
+
+  PrimitiveComparison(Invocation invocation)
+  {
+    this.invocation = invocation;
+  }
+
+
+  /**
+   * @param invocation a recorded method call; may be null.
+   * @param expected the value the method results are compared to.
+   * @return the comparison for the return type of the given method call; null
+   *         if the results have to be compared as objects (e.g. because the
+   *         method does not return a number or because the expected value is
+   *         not of the return type).
+   */
+  static PrimitiveComparison create(Invocation invocation,
+      Object expected)
+  {
+    if (invocation == null || expected == null)
+    {
+      return null;
+    }
+
+    final Class<?> returnType = invocation.getReturnType();
+    final Class<?> expectedType = expected.getClass();
+    if (INTEGRAL_TYPES.get(returnType) == expectedType)
+    {
+      return new LongComparison(invocation, ((Number) expected).longValue());
+    }
+    else if (FLOATING_TYPES.get(returnType) == expectedType)
+    {
+      return new DoubleComparison(invocation, ((Number) expected)
+          .doubleValue());
+    }
+    else if (returnType == expectedType
+        && (INTEGRAL_TYPES.containsValue(returnType) || FLOATING_TYPES
+            .containsValue(returnType)))
+    {
+      return new WrapperComparison(invocation, (Number) expected);
+    }
+    return null;
+  }
+
+
+  /**
+   * @param element the element the recorded method is invoked on.
+   * @return a negative number, zero or a positive number if the result of the
+   *         method call is smaller than, equal to or greater than the expected
+   *         value; {@link #NULL} if the element or the result is null.
+   */
+  abstract int compare(Object element);
+
+
+  /**
+   * Comparison of <tt>byte</tt>, <tt>short</tt>, <tt>int</tt> and
+   * <tt>long</tt> results.
+   */
+  private static final class LongComparison extends PrimitiveComparison
+  {
+
+    private final long expected;
+
+
+    LongComparison(Invocation invocation, long expected)
+    {
+      super(invocation);
+      this.expected = expected;
+    }
+
+
+    @Override
+    int compare(Object element)
+    {
+      return (element != null) ? Long.compare(invocation.invokeLong(element),
+          expected) : NULL;
+    }
+
+  }
+
+
+  /**
+   * Comparison of <tt>float</tt> and <tt>double</tt> results.
+   */
+  private static final class DoubleComparison extends PrimitiveComparison
+  {
+
+    private final double expected;
+
+
+    DoubleComparison(Invocation invocation, double expected)
+    {
+      super(invocation);
+      this.expected = expected;
+    }
+
+
+    @Override
+    int compare(Object element)
+    {
+      return (element != null) ? Double.compare(invocation
+          .invokeDouble(element), expected) : NULL;
+    }
+
+  }
+
+
+  /**
+   * Comparison of the results of methods that return a wrapper class. The
+   * results are not boxed by the method call; only the comparison is done on
+   * the primitive values.
+   */
+  private static final class WrapperComparison extends PrimitiveComparison
+  {
+
+    private final boolean floating;
+    private final long expectedLong;
+    private final double expectedDouble;
+
+
+    WrapperComparison(Invocation invocation, Number expected)
+    {
+      super(invocation);
+      this.floating = FLOATING_TYPES.containsValue(expected.getClass());
+      this.expectedLong = expected.longValue();
+      this.expectedDouble = expected.doubleValue();
+    }
+
+
+    @Override
+    int compare(Object element)
+    {
+      final Object actual = (element != null) ? invocation.invoke(element)
+          : null;
+      if (actual == null)
+      {
+        return NULL;
+      }
+      else if (floating)
+      {
+        return Double.compare(((Number) actual).doubleValue(), expectedDouble);
+      }
+      return Long.compare(((Number) actual).longValue(), expectedLong);
+    }
+
+  }
+
+}
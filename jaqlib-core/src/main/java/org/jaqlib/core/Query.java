@@ -1,5 +1,9 @@
 package org.jaqlib.core;
 
+import org.jaqlib.core.reflect.MethodInvocation;
+
+import java.util.function.Function;
+
 /**
  * Common interface for all sorts of queries (DB, XML, Iterable, ...).
  * 
@@ -17,6 +21,14 @@ public interface Query<T, DataSourceType> extends
   QueryResult<T, DataSourceType> createQueryResult();
 
 
+  /**
+   * @return the next recorded method call of the current thread; null if no
+   *         method call has been recorded. The returned call is removed from
+   *         the recorder.
+   */
+  MethodInvocation getRecordedInvocation();
+
+
   <R> SingleElementWhereCondition<T, DataSourceType, R> addElementAndWhereCondition();
 
 
@@ -37,15 +49,48 @@ public interface Query<T, DataSourceType> extends
   <R> ReflectiveWhereCondition<T, DataSourceType, R> addReflectiveOrWhereCondition();
 
 
+  <R> FunctionWhereCondition<T, DataSourceType, R> addFunctionAndWhereCondition(
+      Function<? super T, ? extends R> function);
+
+
+  <R> FunctionWhereCondition<T, DataSourceType, R> addFunctionOrWhereCondition(
+      Function<? super T, ? extends R> function);
+
+
   QueryResult<T, DataSourceType> addTask(Task<? super T> task);
 
 
   void addTaskAndExecute(Task<? super T> task);
 
 
+  void executeBatches(BatchTask<? super T> task, ExecutionOptions options);
+
+
+  QueryResult<T, DataSourceType> setOffset(int offset);
+
+
+  QueryResult<T, DataSourceType> setMaxResults(int maxResults);
+
+
+  QueryResult<T, DataSourceType> addOrderBy();
+
+
+  QueryResult<T, DataSourceType> addOrderBy(Function<? super T, ?> key);
+
+
+  QueryResult<T, DataSourceType> setOrderDescending(boolean descending);
+
+
   int count();
 
 
   int countDistinct();
 
+
+  /**
+   * @return an immutable template of this query that can be executed with
+   *         different query parameter values.
+   */
+  PreparedQuery<T> prepare();
+
 }
@@ -1,15 +1,20 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.util.Assert;
 import org.jaqlib.util.CollectionUtil;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 /**
+ * Holds the fetched elements of a query. If a {@link SharedQueryCache} is
+ * given then the elements are looked up in and published to this shared
+ * cache. So other queries on the same data source can reuse the elements.
+ * 
  * @author Werner Fragner
  * 
  * @param <T> the element type of the query.
@@ -18,29 +23,85 @@ public class QueryCache<T>
 {
 
   private final ElementPredicate<T> predicate;
+  private final SharedQueryCache sharedCache;
+  private final Supplier<Object> sharedKeySupplier;
+  private Object sharedKey;
   private boolean filled = false;
-  private final List<T> cache = CollectionUtil.newDefaultList();
+  private List<T> cache = CollectionUtil.newDefaultList();
 
 
   public QueryCache(ElementPredicate<T> predicate)
+  {
+    this(predicate, null, () -> null);
+  }
+
+
+  /**
+   * @param predicate the predicate of the query.
+   * @param sharedCache an optional cache that is shared by many queries.
+   * @param sharedKeySupplier supplies the key of the elements in the shared
+   *          cache. If the supplied key is null then the shared cache is not
+   *          used. The key is retrieved once when this cache is checked for
+   *          the first time (see {@link #isFilled()}).
+   */
+  public QueryCache(ElementPredicate<T> predicate,
+      SharedQueryCache sharedCache, Supplier<Object> sharedKeySupplier)
   {
     this.predicate = Assert.notNull(predicate);
+    this.sharedCache = sharedCache;
+    this.sharedKeySupplier = Assert.notNull(sharedKeySupplier);
   }
 
 
+  /**
+   * @return true if the elements of the data source are available. If they
+   *         have not been fetched yet then they are looked up in the shared
+   *         cache.
+   */
   public boolean isFilled()
   {
+    if (!filled && sharedCache != null && sharedKey == null)
+    {
+      sharedKey = sharedKeySupplier.get();
+      if (sharedKey != null)
+      {
+        List<T> sharedElements = sharedCache.get(sharedKey);
+        if (sharedElements != null)
+        {
+          cache = sharedElements;
+          filled = true;
+        }
+      }
+    }
     return filled;
   }
 
 
+  /**
+   * Marks the elements of the data source as completely fetched. The elements
+   * are published to the shared cache.
+   */
   public void setFilled()
   {
     filled = true;
+    if (sharedCache != null && sharedKey != null)
+    {
+      sharedCache.put(sharedKey, cache);
+    }
   }
 
 
   public void addResults(Collection<T> result)
+  {
+    addResults(result::add, predicate);
+  }
+
+
+  /**
+   * Adds the cached elements that match the given predicate (e.g. a predicate
+   * with bound query parameters) to the given sink.
+   */
+  public void addResults(ResultSink<T> result, ElementPredicate<T> predicate)
   {
     for (T element : cache)
     {
@@ -53,7 +114,14 @@ public class QueryCache<T>
 
 
   public <KeyType> void addResults(Map<KeyType, T> result,
-      MethodInvocation invocation)
+      Invocation invocation)
+  {
+    addResults(result, invocation, predicate);
+  }
+
+
+  public <KeyType> void addResults(Map<KeyType, T> result,
+      Invocation invocation, ElementPredicate<T> predicate)
   {
     for (T element : cache)
     {
@@ -67,7 +135,7 @@ public class QueryCache<T>
   }
 
 
-  private Object getKey(T element, MethodInvocation invocation)
+  private Object getKey(T element, Invocation invocation)
   {
     return invocation.invoke(element);
   }
@@ -0,0 +1,149 @@
+package org.jaqlib.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a single execution of a query on a data source (see
+ * {@link QueryListener}). The times are measured in nanoseconds. Objects of
+ * this class are immutable.
+ * 
+ * @author Werner Fragner
+ */
+public class QueryEvent
+{
+
+  /**
+   * Describes whether the elements of a query have been taken from a cache.
+   */
+  public enum CacheStatus
+  {
+    /**
+     * No cache has been used (e.g. for lazy or limited results).
+     */
+    NOT_USED,
+
+    /**
+     * The elements have been taken from the cache; the data source has not
+     * been read.
+     */
+    HIT,
+
+    /**
+     * The elements have been read from the data source and have been cached.
+     */
+    MISS
+  }
+
+  private final Object dataSource;
+  private final String resultType;
+  private final long rowsRead;
+  private final long rowsMatched;
+  private final long sourceNanos;
+  private final long mappingNanos;
+  private final long predicateNanos;
+  private final CacheStatus cacheStatus;
+
+
+  public QueryEvent(Object dataSource, String resultType, long rowsRead,
+      long rowsMatched, long sourceNanos, long mappingNanos,
+      long predicateNanos, CacheStatus cacheStatus)
+  {
+    this.dataSource = dataSource;
+    this.resultType = resultType;
+    this.rowsRead = rowsRead;
+    this.rowsMatched = rowsMatched;
+    this.sourceNanos = sourceNanos;
+    this.mappingNanos = mappingNanos;
+    this.predicateNanos = predicateNanos;
+    this.cacheStatus = cacheStatus;
+  }
+
+
+  /**
+   * @return the queried data source (e.g. a <tt>DbSelectDataSource</tt>).
+   */
+  public Object getDataSource()
+  {
+    return dataSource;
+  }
+
+
+  /**
+   * @return the type of the requested result (e.g. <tt>List</tt>,
+   *         <tt>Map</tt> or <tt>Count</tt>).
+   */
+  public String getResultType()
+  {
+    return resultType;
+  }
+
+
+  /**
+   * @return the number of rows that have been read from the data source.
+   */
+  public long getRowsRead()
+  {
+    return rowsRead;
+  }
+
+
+  /**
+   * @return the number of elements that have matched the WHERE conditions.
+   */
+  public long getRowsMatched()
+  {
+    return rowsMatched;
+  }
+
+
+  /**
+   * @return the time spent in executing the data source query and in reading
+   *         the rows (e.g. JDBC round trips or XML parsing).
+   */
+  public long getSourceNanos()
+  {
+    return sourceNanos;
+  }
+
+
+  /**
+   * @return the time spent in mapping the rows to result elements.
+   */
+  public long getMappingNanos()
+  {
+    return mappingNanos;
+  }
+
+
+  /**
+   * @return the time spent in evaluating the WHERE conditions.
+   */
+  public long getPredicateNanos()
+  {
+    return predicateNanos;
+  }
+
+
+  public CacheStatus getCacheStatus()
+  {
+    return cacheStatus;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "QueryEvent[dataSource=" + dataSource + ", resultType="
+        + resultType + ", rowsRead=" + rowsRead + ", rowsMatched="
+        + rowsMatched + ", sourceMillis=" + toMillis(sourceNanos)
+        + ", mappingMillis=" + toMillis(mappingNanos) + ", predicateMillis="
+        + toMillis(predicateNanos) + ", cache=" + cacheStatus + "]";
+  }
+
+
+  private static long toMillis(long nanos)
+  {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+}
@@ -0,0 +1,27 @@
+package org.jaqlib.core;
+
+/**
+ * Listener that is notified about every execution of a query on a data source
+ * (e.g. a database or XML query). It can be used for collecting metrics.
+ * Listeners are registered with
+ * {@link Defaults#registerQueryListener(QueryListener)}. If no listener is
+ * registered then no metrics are collected at all.
+ * <p>
+ * Implementations must be thread-safe because queries can be executed by many
+ * threads concurrently.
+ * </p>
+ * 
+ * @author Werner Fragner
+ */
+public interface QueryListener
+{
+
+  /**
+   * Is called after the elements of the data source have been fetched (resp.
+   * after a lazy result has been closed).
+   * 
+   * @param event the not null metrics of the execution.
+   */
+  void queryExecuted(QueryEvent event);
+
+}
@@ -0,0 +1,177 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.bean.AbstractMapping;
+import org.jaqlib.core.bean.FieldMapping;
+import org.jaqlib.util.Assert;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Collects the metrics of a single query execution and notifies the
+ * registered {@link QueryListener}s. Objects of this class are only created
+ * if at least one listener is registered (see
+ * {@link Defaults#hasQueryListeners()}); so queries without listeners do not
+ * pay for measuring.
+ * 
+ * @author Werner Fragner
+ */
+class QueryMetrics
+{
+
+  private final Object dataSource;
+  private final String resultType;
+
+  private long rowsRead = 0;
+  private long rowsMatched = 0;
+  private long sourceNanos = 0;
+  private long mappingNanos = 0;
+  private long predicateNanos = 0;
+  private QueryEvent.CacheStatus cacheStatus = QueryEvent.CacheStatus.NOT_USED;
+  private boolean fired = false;
+
+
+  QueryMetrics(Object dataSource, String resultType)
+  {
+    this.dataSource = dataSource;
+    this.resultType = resultType;
+  }
+
+
+  void setCacheStatus(QueryEvent.CacheStatus cacheStatus)
+  {
+    this.cacheStatus = Assert.notNull(cacheStatus);
+  }
+
+
+  /**
+   * Executes the given data source and measures the time of the execution and
+   * of reading the rows.
+   */
+  DsResultSet execute(SelectDataSource dataSource)
+  {
+    final long start = System.nanoTime();
+    final DsResultSet rs = dataSource.execute();
+    sourceNanos += System.nanoTime() - start;
+    return new TimedDsResultSet(rs);
+  }
+
+
+  /**
+   * Executes the given count of the data source (e.g. a SQL <tt>COUNT</tt>
+   * statement) and measures the time of the execution.
+   */
+  int count(IntSupplier count)
+  {
+    final long start = System.nanoTime();
+    try
+    {
+      return count.getAsInt();
+    }
+    finally
+    {
+      sourceNanos += System.nanoTime() - start;
+    }
+  }
+
+
+  <T> T getValue(AbstractMapping<T> mapping, DsResultSet rs)
+  {
+    final long start = System.nanoTime();
+    try
+    {
+      return mapping.getValue(rs);
+    }
+    finally
+    {
+      mappingNanos += System.nanoTime() - start;
+    }
+  }
+
+
+  /**
+   * @return a predicate that measures the evaluation time and counts the
+   *         matches of the given predicate.
+   */
+  <T> ElementPredicate<T> timed(final ElementPredicate<T> predicate)
+  {
+    if (predicate == null)
+    {
+      return null;
+    }
+    return element -> {
+      final long start = System.nanoTime();
+      final boolean match = predicate.matches(element);
+      predicateNanos += System.nanoTime() - start;
+      if (match)
+      {
+        rowsMatched++;
+      }
+      return match;
+    };
+  }
+
+
+  /**
+   * Notifies the registered listeners. Following calls of this method do
+   * nothing.
+   */
+  void fire()
+  {
+    if (!fired)
+    {
+      fired = true;
+      Defaults.fireQueryExecuted(new QueryEvent(dataSource, resultType,
+          rowsRead, rowsMatched, sourceNanos, mappingNanos, predicateNanos,
+          cacheStatus));
+    }
+  }
+
+
+  /**
+   * Counts the rows and measures the time of reading them.
+   */
+  private class TimedDsResultSet implements DsResultSet
+  {
+
+    private final DsResultSet rs;
+
+
+    TimedDsResultSet(DsResultSet rs)
+    {
+      this.rs = rs;
+    }
+
+
+    public boolean next()
+    {
+      final long start = System.nanoTime();
+      final boolean hasNext = rs.next();
+      sourceNanos += System.nanoTime() - start;
+      if (hasNext)
+      {
+        rowsRead++;
+      }
+      return hasNext;
+    }
+
+
+    public Object getObject(FieldMapping<?> mapping)
+    {
+      return rs.getObject(mapping);
+    }
+
+
+    public Object getAnynomousObject(FieldMapping<?> mapping)
+    {
+      return rs.getAnynomousObject(mapping);
+    }
+
+
+    public void close()
+    {
+      rs.close();
+    }
+
+  }
+
+}
@@ -1,6 +1,15 @@
 package org.jaqlib.core;
 
+import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.util.Assert;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Provides methods to return the result of the query. It also provides methods
@@ -82,6 +91,143 @@ public class QueryResult<T, DataSourceType> extends
   }
 
 
+  /**
+   * <p>
+   * Creates a map containing all matching elements. The keys for the elements
+   * are retrieved by applying the given function (e.g. a method reference) to
+   * every element in the result set. No recorder object is needed.
+   * </p>
+   * 
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * Map&lt;Long, Account&gt; results = IterableQB.select(Account.class).from(accounts)
+   *     .asMap(Account::getId);
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param key a not null function that returns the key of an element.
+   * @return a map containing all matching elements. If no matches have been
+   *         found then an empty map is returned.
+   */
+  public <KeyType> Map<KeyType, T> asMap(
+      Function<? super T, ? extends KeyType> key)
+  {
+    return getQuery().getMapResult(Assert.notNull(key));
+  }
+
+
+  /**
+   * <p>
+   * Groups all matching elements by a key. The keys for the elements are
+   * retrieved by using the method call recording mechanism (see
+   * {@link #asMap(Object)}). The elements are grouped in the same pass as the
+   * evaluation of the WHERE conditions. The elements of a group are kept in
+   * the order of the data source.
+   * </p>
+   * 
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * Account account = IterableQB.getRecorder(Account.class);
+   * Map&lt;String, List&lt;Account&gt;&gt; results = IterableQB.select(Account.class)
+   *     .from(accounts).asGroupedMap(account.getDepartment());
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param key the result of the recorded method call. This result is only
+   *          needed for type safety. The object itself is not used.
+   * @return a map containing the matching elements of every key. If no
+   *         matches have been found then an empty map is returned.
+   */
+  public <KeyType> Map<KeyType, List<T>> asGroupedMap(KeyType key)
+  {
+    return getQuery().getGroupedMapResult(key);
+  }
+
+
+  /**
+   * Groups all matching elements by the result of the given function (e.g.
+   * <tt>Account::getDepartment</tt>). See {@link #asGroupedMap(Object)}.
+   * 
+   * @param key a not null function that returns the key of an element.
+   * @return a map containing the matching elements of every key. If no
+   *         matches have been found then an empty map is returned.
+   */
+  public <KeyType> Map<KeyType, List<T>> asGroupedMap(
+      Function<? super T, ? extends KeyType> key)
+  {
+    return getQuery().getGroupedMapResult(Assert.notNull(key));
+  }
+
+
+  /**
+   * Counts the matching elements per key (see {@link #asGroupedMap(Object)}).
+   * The matching elements are not materialized.
+   * 
+   * @param key the result of the recorded method call. This result is only
+   *          needed for type safety. The object itself is not used.
+   * @return the number of matching elements of every key.
+   */
+  public <KeyType> Map<KeyType, Integer> countBy(KeyType key)
+  {
+    return getQuery().getGroupedCountResult(key);
+  }
+
+
+  /**
+   * <p>
+   * Computes the sum of the values of a recorded method call per key (see
+   * {@link #sum(Number)} and {@link #asGroupedMap(Object)}). The key method
+   * must be recorded before the value method. The matching elements are not
+   * materialized.
+   * </p>
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * Account account = IterableQB.getRecorder(Account.class);
+   * Map&lt;String, Number&gt; totals = IterableQB.select(Account.class)
+   *     .from(accounts).sumBy(account.getDepartment(), account.getBalance());
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @return the sum of every key.
+   */
+  public <KeyType> Map<KeyType, Number> sumBy(KeyType key, Number evalResult)
+  {
+    Map<KeyType, AggregateResult<Number>> aggregates = getQuery()
+        .getGroupedAggregateResult();
+
+    Map<KeyType, Number> sums = new HashMap<>();
+    for (Map.Entry<KeyType, AggregateResult<Number>> entry : aggregates
+        .entrySet())
+    {
+      sums.put(entry.getKey(), entry.getValue().getSum());
+    }
+    return sums;
+  }
+
+
+  /**
+   * Computes count, sum, min, max and average of the values of a recorded
+   * method call per key in a single pass (see {@link #sumBy(Object, Number)}
+   * and {@link #stats(Object)}).
+   * 
+   * @return the aggregated values of every key.
+   */
+  public <KeyType, R> Map<KeyType, AggregateResult<R>> statsBy(KeyType key,
+      R evalResult)
+  {
+    return getQuery().getGroupedAggregateResult();
+  }
+
+
   /**
    * Basically the same as {@link #asMap(Object)}, but this method returns a
    * {@link Hashtable} instead of a {@link Map}.
@@ -187,6 +333,62 @@ public class QueryResult<T, DataSourceType> extends
   }
 
 
+  /**
+   * <p>
+   * Executes the given task for each matching element in a bounded pool of
+   * worker threads (see {@link ExecutionOptions}). The data source is read
+   * by the calling thread; reading is blocked while the maximum number of
+   * pending batches is reached. This method returns when the task has been
+   * executed for all matching elements.
+   * </p>
+   * <p>
+   * The task must be thread-safe if the parallelism is greater than one. The
+   * elements are not executed in the order of the data source then. If the
+   * task throws an exception then no more elements are executed and the
+   * first exception is thrown by this method.
+   * </p>
+   * 
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * IterableQB.selectFrom(accounts).whereCall(Account::isActive).isEqual(true)
+   *     .execute(notifier, ExecutionOptions.DEFAULT.withParallelism(16));
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param task the not null task to be executed.
+   * @param options the not null execution options.
+   */
+  public void execute(final Task<? super T> task, ExecutionOptions options)
+  {
+    Assert.notNull(task);
+    executeBatches(elements -> {
+      for (T element : elements)
+      {
+        task.execute(element);
+      }
+    }, options);
+  }
+
+
+  /**
+   * Executes the given task for chunks of at most <tt>batchSize</tt> matching
+   * elements (see {@link ExecutionOptions#withBatchSize(int)}). So downstream
+   * operations can be grouped (e.g. batch inserts). See
+   * {@link #execute(Task, ExecutionOptions)} for further details.
+   * 
+   * @param task the not null task to be executed.
+   * @param options the not null execution options.
+   */
+  public void executeBatches(BatchTask<? super T> task,
+      ExecutionOptions options)
+  {
+    getQuery().executeBatches(Assert.notNull(task), Assert.notNull(options));
+  }
+
+
   /**
    * Simple condition that can be used to test all elements for a specific
    * condition. This condition is appended using an AND connector.
@@ -288,6 +490,22 @@ public class QueryResult<T, DataSourceType> extends
   }
 
 
+  /**
+   * Uses the result of the given function (e.g. the method reference
+   * <tt>Account::getBalance</tt>) to test all elements for a specific
+   * condition. No recorder object is needed. The condition is added to the
+   * query by using a AND connector.
+   * 
+   * @param function a not null function that is applied to every element.
+   * @return an object to specify the condition.
+   */
+  public <R> ComparableWhereCondition<T, DataSourceType, R> andCall(
+      Function<? super T, ? extends R> function)
+  {
+    return getQuery().addFunctionAndWhereCondition(Assert.notNull(function));
+  }
+
+
   /**
    * Uses a recorded method call to test all elements for a specific condition.
    * This condition can be specified in the returned
@@ -305,6 +523,22 @@ public class QueryResult<T, DataSourceType> extends
   }
 
 
+  /**
+   * Uses the result of the given function (e.g. the method reference
+   * <tt>Account::getBalance</tt>) to test all elements for a specific
+   * condition. No recorder object is needed. The condition is added to the
+   * query by using a OR connector.
+   * 
+   * @param function a not null function that is applied to every element.
+   * @return an object to specify the condition.
+   */
+  public <R> ComparableWhereCondition<T, DataSourceType, R> orCall(
+      Function<? super T, ? extends R> function)
+  {
+    return getQuery().addFunctionOrWhereCondition(Assert.notNull(function));
+  }
+
+
   /**
    * Uses a recored method call to test all elements for a boolean condition.
    * The condition must return true in order to add the element to the result
@@ -373,6 +607,249 @@ public class QueryResult<T, DataSourceType> extends
   }
 
 
+  /**
+   * Restricts the result of the query to the given number of matching
+   * elements. Reading the data source is stopped as soon as enough matching
+   * elements have been found.
+   * 
+   * @param maxResults the maximum number of matching elements; must be &gt;=
+   *          0.
+   * @return an object to retrieve the result of the query.
+   */
+  public QueryResult<T, DataSourceType> limit(int maxResults)
+  {
+    return getQuery().setMaxResults(maxResults);
+  }
+
+
+  /**
+   * Skips the given number of matching elements.
+   * 
+   * @param offset the number of matching elements to skip; must be &gt;= 0.
+   * @return an object to retrieve the result of the query.
+   */
+  public QueryResult<T, DataSourceType> offset(int offset)
+  {
+    return getQuery().setOffset(offset);
+  }
+
+
+  /**
+   * <p>
+   * Orders the matching elements ascending by the result of a recorded method
+   * call. Call this method several times for ordering by several keys. Null
+   * values are put at the end (see {@link ResultOrder}).
+   * </p>
+   * <p>
+   * If a limit is given then only a bounded heap with the best matching
+   * elements is kept while reading the data source (see
+   * {@link OrderingSink}). So retrieving the top k elements does not sort the
+   * whole result. Data sources that are able to order the elements by
+   * themselves (e.g. database queries whose key maps to a column) are ordered
+   * by the data source.
+   * </p>
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * Account account = IterableQB.getRecorder(Account.class);
+   * List&lt;Account&gt; richest = IterableQB.select(Account.class).from(accounts)
+   *     .orderBy(account.getBalance()).descending().asList(100);
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param evalResult the result of the recorded method call. This result is
+   *          only needed for type safety. The object itself is not used.
+   * @return an object to retrieve the result of the query.
+   */
+  public <R> QueryResult<T, DataSourceType> orderBy(R evalResult)
+  {
+    return getQuery().addOrderBy();
+  }
+
+
+  /**
+   * Orders the matching elements ascending by the result of the given
+   * function (e.g. <tt>Account::getBalance</tt>). See
+   * {@link #orderBy(Object)}. Database queries order such keys in memory.
+   * 
+   * @param key a not null function that returns the key of an element.
+   * @return an object to retrieve the result of the query.
+   */
+  public QueryResult<T, DataSourceType> orderBy(Function<? super T, ?> key)
+  {
+    return getQuery().addOrderBy(Assert.notNull(key));
+  }
+
+
+  /**
+   * Orders the last key given by {@link #orderBy(Object)} in descending order.
+   * 
+   * @return an object to retrieve the result of the query.
+   */
+  public QueryResult<T, DataSourceType> descending()
+  {
+    return getQuery().setOrderDescending(true);
+  }
+
+
+  /**
+   * Orders the last key given by {@link #orderBy(Object)} in ascending order.
+   * This is the default.
+   * 
+   * @return an object to retrieve the result of the query.
+   */
+  public QueryResult<T, DataSourceType> ascending()
+  {
+    return getQuery().setOrderDescending(false);
+  }
+
+
+  /**
+   * Shortcut method for <tt>limit(maxResults).asList()</tt>.
+   * 
+   * @param maxResults the maximum number of matching elements; must be &gt;=
+   *          0.
+   * @return a list containing at most <tt>maxResults</tt> matching elements.
+   */
+  public List<T> asList(int maxResults)
+  {
+    return limit(maxResults).asList();
+  }
+
+
+  /**
+   * <p>
+   * Returns a lazy iterator over all matching elements. The elements are read
+   * one by one from the data source while iterating; they are not buffered.
+   * So this method can be used for huge data sources.
+   * </p>
+   * <p>
+   * <b>The iterator must be closed if not all elements are read.</b> It is
+   * closed automatically after reading the last element.
+   * </p>
+   * 
+   * @return a lazy iterator over all matching elements.
+   */
+  public ResultIterator<T> asIterator()
+  {
+    return getQuery().getIteratorResult();
+  }
+
+
+  /**
+   * <p>
+   * Returns a lazy sequential stream over all matching elements (see
+   * {@link #asIterator()}). The elements are read one by one from the data
+   * source when they are consumed by the stream.
+   * </p>
+   * <p>
+   * <b>The stream must be closed (e.g. by using a try-with-resources
+   * statement) in order to release the resources of the data source.</b>
+   * </p>
+   * 
+   * @return a lazy stream over all matching elements.
+   */
+  public Stream<T> asStream()
+  {
+    return getQuery().getStreamResult();
+  }
+
+
+  /**
+   * Passes all matching elements one by one to the given consumer without
+   * buffering them (see {@link #asIterator()}).
+   * 
+   * @param consumer the not null consumer of the elements.
+   */
+  public void forEach(Consumer<? super T> consumer)
+  {
+    Assert.notNull(consumer);
+    try (ResultIterator<T> it = asIterator())
+    {
+      it.forEachRemaining(consumer);
+    }
+  }
+
+
+  /**
+   * <p>
+   * Computes the sum of the values of a recorded method call on all matching
+   * elements. The sum is computed in the same pass as the evaluation of the
+   * WHERE conditions; the matching elements are not materialized.
+   * </p>
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * Account account = IterableQB.getRecorder(Account.class);
+   * Number total = IterableQB.select().from(accounts).sum(account.getBalance());
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param evalResult the result of the recorded method call. This result is
+   *          only needed for type safety. The object itself is not used.
+   * @return the sum as {@link Long} for integral values and as {@link Double}
+   *         otherwise. Null values are ignored.
+   */
+  public Number sum(Number evalResult)
+  {
+    return getQuery().getAggregateResult().getSum();
+  }
+
+
+  /**
+   * See {@link #sum(Number)}.
+   * 
+   * @return the smallest value of the recorded method call; null if there are
+   *         no values.
+   */
+  public <R> R min(R evalResult)
+  {
+    return getQuery().<R> getAggregateResult().getMin();
+  }
+
+
+  /**
+   * See {@link #sum(Number)}.
+   * 
+   * @return the largest value of the recorded method call; null if there are
+   *         no values.
+   */
+  public <R> R max(R evalResult)
+  {
+    return getQuery().<R> getAggregateResult().getMax();
+  }
+
+
+  /**
+   * See {@link #sum(Number)}.
+   * 
+   * @return the average of the values of the recorded method call; null if
+   *         there are no values.
+   */
+  public Double avg(Number evalResult)
+  {
+    return getQuery().getAggregateResult().getAverage();
+  }
+
+
+  /**
+   * Computes count, sum, min, max and average of the values of a recorded
+   * method call in a single pass (see {@link #sum(Number)}).
+   * 
+   * @param evalResult the result of the recorded method call. This result is
+   *          only needed for type safety. The object itself is not used.
+   * @return the aggregated values.
+   */
+  public <R> AggregateResult<R> stats(R evalResult)
+  {
+    return getQuery().getAggregateResult();
+  }
+
+
   /**
    * @return the number of elements in the result set. Null elements in the
    *         result set are also counted.
@@ -393,4 +870,163 @@ public class QueryResult<T, DataSourceType> extends
     return getQuery().countDistinct();
   }
 
+
+  /**
+   * Creates an immutable, thread-safe template of this query. Comparisons with
+   * query parameters (see {@link PreparedQuery#param(String)}) are bound when
+   * the template is executed. <b>NOTE: no more conditions must be added to
+   * this query afterwards.</b>
+   * 
+   * @return the prepared query.
+   */
+  public PreparedQuery<T> prepare()
+  {
+    return getQuery().prepare();
+  }
+
+
+  /**
+   * <p>
+   * Executes the query asynchronously by using the executor of
+   * {@link Defaults#getAsyncExecutor()}. So slow data sources (e.g. database
+   * round trips or big XML files) can be queried concurrently.
+   * </p>
+   * <p>
+   * <b>NOTE: this query must not be changed or executed again until the
+   * returned future is completed.</b>
+   * </p>
+   * 
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * CompletableFuture&lt;List&lt;Account&gt;&gt; accounts = DatabaseQB.select(
+   *     Account.class).from(dataSource).asListAsync();
+   * CompletableFuture&lt;List&lt;Account&gt;&gt; xmlAccounts = XmlQB.select(
+   *     Account.class).from(xmlFile).asListAsync();
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @return a future that is completed with the result of {@link #asList()}
+   *         resp. with the exception of the query.
+   */
+  public CompletableFuture<List<T>> asListAsync()
+  {
+    return supplyAsync(this::asList);
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #asList()}.
+   * 
+   * @param executor a not null executor that executes the query.
+   */
+  public CompletableFuture<List<T>> asListAsync(Executor executor)
+  {
+    return supplyAsync(this::asList, executor);
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #asSet()}.
+   */
+  public CompletableFuture<Set<T>> asSetAsync()
+  {
+    return supplyAsync(this::asSet);
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #asMap(Object)}. The recorded
+   * method call is consumed by the calling thread.
+   */
+  public <KeyType> CompletableFuture<Map<KeyType, T>> asMapAsync(KeyType key)
+  {
+    final Function<T, KeyType> keyFunction = getRecordedKey();
+    return supplyAsync(() -> asMap(keyFunction));
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #asMap(Function)}.
+   */
+  public <KeyType> CompletableFuture<Map<KeyType, T>> asMapAsync(
+      Function<? super T, ? extends KeyType> key)
+  {
+    Assert.notNull(key);
+    return supplyAsync(() -> asMap(key));
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #asGroupedMap(Object)}. The
+   * recorded method call is consumed by the calling thread.
+   */
+  public <KeyType> CompletableFuture<Map<KeyType, List<T>>> asGroupedMapAsync(
+      KeyType key)
+  {
+    final Function<T, KeyType> keyFunction = getRecordedKey();
+    return supplyAsync(() -> asGroupedMap(keyFunction));
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #uniqueResult()}.
+   */
+  public CompletableFuture<T> uniqueResultAsync()
+  {
+    return supplyAsync(this::uniqueResult);
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #firstResult()}.
+   */
+  public CompletableFuture<T> firstResultAsync()
+  {
+    return supplyAsync(this::firstResult);
+  }
+
+
+  /**
+   * See {@link #asListAsync()} and {@link #count()}.
+   */
+  public CompletableFuture<Integer> countAsync()
+  {
+    return supplyAsync(this::count);
+  }
+
+
+  /**
+   * @return the recorded method call for a key as function. The call must be
+   *         retrieved by the calling thread because the recorder is bound to
+   *         the thread.
+   */
+  @SuppressWarnings("unchecked")
+  private <KeyType> Function<T, KeyType> getRecordedKey()
+  {
+    final MethodInvocation invocation = getQuery().getRecordedInvocation();
+    if (invocation == null)
+    {
+      throw new QueryResultException("No method call has been recorded for "
+          + "the key. Use a recorder object (see getRecorder()) or a "
+          + "function.");
+    }
+    return element -> (KeyType) invocation.invoke(element);
+  }
+
+
+  private <R> CompletableFuture<R> supplyAsync(Supplier<R> terminal)
+  {
+    return supplyAsync(terminal, Defaults.getAsyncExecutor());
+  }
+
+
+  private <R> CompletableFuture<R> supplyAsync(Supplier<R> terminal,
+      Executor executor)
+  {
+    return CompletableFuture.supplyAsync(terminal, Assert.notNull(executor));
+  }
+
 }
@@ -1,6 +1,6 @@
 package org.jaqlib.core;
 
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.core.reflect.Invocation;
 
 /**
  * @author Werner Fragner
@@ -12,16 +12,26 @@ public abstract class ReflectiveCompare<T, ResultType> extends
     AbstractCompare<T, ResultType>
 {
 
-  private final MethodInvocation invocation;
+  private final Invocation invocation;
 
 
-  public ReflectiveCompare(MethodInvocation invocation, ResultType expected)
+  public ReflectiveCompare(Invocation invocation, ResultType expected)
   {
     super(expected);
     this.invocation = invocation;
   }
 
 
+  /**
+   * @return the recorded method call whose result is compared; null if the
+   *         element itself is compared.
+   */
+  public Invocation getInvocation()
+  {
+    return invocation;
+  }
+
+
   protected boolean invocationPresent()
   {
     return invocation != null;
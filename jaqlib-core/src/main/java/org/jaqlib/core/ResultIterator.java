@@ -0,0 +1,124 @@
+package org.jaqlib.core;
+
+import org.jaqlib.util.Assert;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy iterator over the matching elements of a query. The elements are read
+ * one by one from the data source and are tested against the WHERE conditions
+ * of the query. No element is buffered.
+ * <p>
+ * The iterator is closed automatically when the last element has been read.
+ * If the iteration is stopped before then {@link #close()} must be called in
+ * order to release the resources of the data source (e.g. the database result
+ * set).
+ * </p>
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the result element type.
+ */
+public abstract class ResultIterator<T> implements Iterator<T>, AutoCloseable
+{
+
+  private final ElementPredicate<T> predicate;
+  private final ResultLimit limit;
+  private int matchCount = 0;
+
+  private T next;
+  private boolean nextAvailable = false;
+  private boolean closed = false;
+
+
+  protected ResultIterator(ElementPredicate<T> predicate)
+  {
+    this(predicate, ResultLimit.NONE);
+  }
+
+
+  protected ResultIterator(ElementPredicate<T> predicate, ResultLimit limit)
+  {
+    this.predicate = Assert.notNull(predicate);
+    this.limit = Assert.notNull(limit);
+  }
+
+
+  /**
+   * Moves to the next element of the data source.
+   *
+   * @return true if another element is available; false otherwise.
+   */
+  protected abstract boolean readNext();
+
+
+  /**
+   * @return the current element of the data source.
+   */
+  protected abstract T getElement();
+
+
+  /**
+   * Releases the resources of the data source. The default implementation
+   * does nothing.
+   */
+  protected void closeSource()
+  {
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean hasNext()
+  {
+    if (!nextAvailable && !closed)
+    {
+      while (!limit.isReached(matchCount) && readNext())
+      {
+        final T element = getElement();
+        if (predicate.matches(element) && limit.contains(matchCount++))
+        {
+          next = element;
+          nextAvailable = true;
+          return true;
+        }
+      }
+      close();
+    }
+    return nextAvailable;
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public T next()
+  {
+    if (!hasNext())
+    {
+      throw new NoSuchElementException();
+    }
+
+    final T element = next;
+    next = null;
+    nextAvailable = false;
+    return element;
+  }
+
+
+  /**
+   * Closes this iterator and the underlying data source. Calling this method
+   * more than once has no effect.
+   */
+  public void close()
+  {
+    if (!closed)
+    {
+      closed = true;
+      closeSource();
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+package org.jaqlib.core;
+
+/**
+ * Describes the window of matching elements that should be returned by a
+ * query: the first <tt>offset</tt> matching elements are skipped and at most
+ * <tt>maxResults</tt> matching elements are returned. Objects of this class
+ * are immutable.
+ *
+ * @author Werner Fragner
+ */
+public class ResultLimit
+{
+
+  /**
+   * No limit at all. All matching elements are returned.
+   */
+  public static final ResultLimit NONE = new ResultLimit(0, -1);
+
+  private final int offset;
+  private final int maxResults;
+
+  /**
+   * offset + max results, saturated at {@link Integer#MAX_VALUE}; -1 for no
+   * maximum.
+   */
+  private final int maxMatches;
+
+
+  /**
+   * @param offset the number of matching elements to skip; must be &gt;= 0.
+   * @param maxResults the maximum number of matching elements to return; -1
+   *          for no maximum.
+   */
+  public ResultLimit(int offset, int maxResults)
+  {
+    if (offset < 0)
+    {
+      throw new IllegalArgumentException("Offset must not be negative.");
+    }
+    if (maxResults < -1)
+    {
+      throw new IllegalArgumentException("Max results must be -1 or >= 0.");
+    }
+
+    this.offset = offset;
+    this.maxResults = maxResults;
+    this.maxMatches = (maxResults >= 0) ? (int) Math.min((long) offset
+        + maxResults, Integer.MAX_VALUE) : -1;
+  }
+
+
+  public ResultLimit withOffset(int offset)
+  {
+    return new ResultLimit(offset, maxResults);
+  }
+
+
+  public ResultLimit withMaxResults(int maxResults)
+  {
+    return new ResultLimit(offset, maxResults);
+  }
+
+
+  public int getOffset()
+  {
+    return offset;
+  }
+
+
+  /**
+   * @return the maximum number of matching elements to return; -1 if there is
+   *         no maximum.
+   */
+  public int getMaxResults()
+  {
+    return maxResults;
+  }
+
+
+  /**
+   * @return true if not all matching elements are returned.
+   */
+  public boolean isLimited()
+  {
+    return offset > 0 || hasMaxResults();
+  }
+
+
+  /**
+   * @return true if a maximum number of matching elements is given.
+   */
+  public boolean hasMaxResults()
+  {
+    return maxResults >= 0;
+  }
+
+
+  /**
+   * @return the number of matching elements that have to be read at most
+   *         (offset + max results, at most {@link Integer#MAX_VALUE}); -1 if
+   *         all elements have to be read.
+   */
+  public int getMaxMatches()
+  {
+    return maxMatches;
+  }
+
+
+  /**
+   * @param matchIndex the zero based index of a matching element.
+   * @return true if the matching element with the given index must be
+   *         returned.
+   */
+  public boolean contains(int matchIndex)
+  {
+    return matchIndex >= offset
+        && (!hasMaxResults() || matchIndex < maxMatches);
+  }
+
+
+  /**
+   * @param matchCount the number of matching elements that have been read.
+   * @return true if no further matching element must be returned (so reading
+   *         can be stopped). If the maximum number of results is 0 then this
+   *         is already true before the first element is read.
+   */
+  public boolean isReached(int matchCount)
+  {
+    return hasMaxResults() && (maxResults == 0 || matchCount >= maxMatches);
+  }
+
+
+  /**
+   * @param matchCount the total number of matching elements.
+   * @return the number of matching elements that are returned when this limit
+   *         is applied.
+   */
+  public int apply(int matchCount)
+  {
+    int count = Math.max(matchCount - offset, 0);
+    return hasMaxResults() ? Math.min(count, maxResults) : count;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "OFFSET " + offset + (hasMaxResults() ? " LIMIT " + maxResults : "");
+  }
+
+}
@@ -0,0 +1,209 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes the order of the matching elements of a query. The order consists
+ * of one or more keys. Every key is a recorded method call whose result is
+ * compared in ascending or descending order. Objects of this class are
+ * immutable.
+ * <p>
+ * The values of a key must implement {@link Comparable}. Null values (and null
+ * elements) are treated as greater than every other value. So they are put at
+ * the end in ascending order and at the beginning in descending order (as
+ * most databases do).
+ * </p>
+ *
+ * @author Werner Fragner
+ */
+public class ResultOrder
+{
+
+  /**
+   * No order at all. The elements are returned in the order of the data
+   * source.
+   */
+  public static final ResultOrder NONE = new ResultOrder(
+      Collections.<Key> emptyList());
+
+  private final List<Key> keys;
+
+
+  private ResultOrder(List<Key> keys)
+  {
+    this.keys = Collections.unmodifiableList(keys);
+  }
+
+
+  /**
+   * @param invocation the recorded method call of the new key.
+   * @return a new order that additionally sorts ascending by the given key.
+   */
+  public ResultOrder thenBy(Invocation invocation)
+  {
+    List<Key> newKeys = new ArrayList<>(keys);
+    newKeys.add(new Key(invocation, false));
+    return new ResultOrder(newKeys);
+  }
+
+
+  /**
+   * @param descending true for sorting the last added key in descending
+   *          order; false for ascending order.
+   * @return a new order with the changed direction of the last key.
+   */
+  public ResultOrder withDescending(boolean descending)
+  {
+    if (keys.isEmpty())
+    {
+      throw new IllegalStateException(
+          "No order key has been given. Call orderBy() first.");
+    }
+
+    List<Key> newKeys = new ArrayList<>(keys);
+    Key last = newKeys.remove(newKeys.size() - 1);
+    newKeys.add(new Key(last.getInvocation(), descending));
+    return new ResultOrder(newKeys);
+  }
+
+
+  /**
+   * @return true if at least one order key is given.
+   */
+  public boolean isOrdered()
+  {
+    return !keys.isEmpty();
+  }
+
+
+  public List<Key> getKeys()
+  {
+    return keys;
+  }
+
+
+  /**
+   * @param element an element of the data source; may be null.
+   * @return the values of all keys of the given element.
+   */
+  public Object[] getValues(Object element)
+  {
+    final Object[] values = new Object[keys.size()];
+    if (element != null)
+    {
+      for (int i = 0; i < values.length; i++)
+      {
+        values[i] = keys.get(i).getInvocation().invoke(element);
+      }
+    }
+    return values;
+  }
+
+
+  /**
+   * Compares the key values of two elements (see {@link #getValues(Object)}).
+   *
+   * @return a negative number if the first values are ordered before the
+   *         second values, a positive number if they are ordered after the
+   *         second values; 0 otherwise.
+   */
+  public int compare(Object[] values1, Object[] values2)
+  {
+    for (int i = 0; i < values1.length; i++)
+    {
+      int result = compareValues(values1[i], values2[i]);
+      if (result != 0)
+      {
+        return keys.get(i).isDescending() ? -result : result;
+      }
+    }
+    return 0;
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private int compareValues(Object value1, Object value2)
+  {
+    if (value1 == value2)
+    {
+      return 0;
+    }
+    else if (value1 == null)
+    {
+      return 1;
+    }
+    else if (value2 == null)
+    {
+      return -1;
+    }
+    else if (!(value1 instanceof Comparable<?>))
+    {
+      throw new QueryResultException("Values of type '"
+          + value1.getClass().getName() + "' are not comparable.");
+    }
+    return ((Comparable<Object>) value1).compareTo(value2);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    StringBuilder sb = new StringBuilder("ORDER BY ");
+    for (int i = 0; i < keys.size(); i++)
+    {
+      if (i > 0)
+      {
+        sb.append(", ");
+      }
+      sb.append(keys.get(i));
+    }
+    return sb.toString();
+  }
+
+
+  /**
+   * A single order key.
+   */
+  public static class Key
+  {
+
+    private final Invocation invocation;
+    private final boolean descending;
+
+
+    Key(Invocation invocation, boolean descending)
+    {
+      this.invocation = Assert.notNull(invocation);
+      this.descending = descending;
+    }
+
+
+    /**
+     * @return the recorded method call whose results are compared.
+     */
+    public Invocation getInvocation()
+    {
+      return invocation;
+    }
+
+
+    public boolean isDescending()
+    {
+      return descending;
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return invocation + (descending ? " DESC" : " ASC");
+    }
+
+  }
+
+}
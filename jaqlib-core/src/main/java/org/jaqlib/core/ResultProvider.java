@@ -1,6 +1,8 @@
 package org.jaqlib.core;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 /**
@@ -24,9 +26,26 @@ public interface ResultProvider<T, DataSourceType>
   <KeyType> Map<KeyType, T> getMapResult(KeyType key);
 
 
+  <KeyType> Map<KeyType, T> getMapResult(
+      Function<? super T, ? extends KeyType> key);
+
+
   <KeyType> Hashtable<KeyType, T> getHashtableResult(KeyType key);
 
 
+  <KeyType> Map<KeyType, List<T>> getGroupedMapResult(KeyType key);
+
+
+  <KeyType> Map<KeyType, List<T>> getGroupedMapResult(
+      Function<? super T, ? extends KeyType> key);
+
+
+  <KeyType> Map<KeyType, Integer> getGroupedCountResult(KeyType key);
+
+
+  <KeyType, R> Map<KeyType, AggregateResult<R>> getGroupedAggregateResult();
+
+
   T getLastResult();
 
 
@@ -35,4 +54,13 @@ public interface ResultProvider<T, DataSourceType>
 
   T getUniqueResult();
 
+
+  ResultIterator<T> getIteratorResult();
+
+
+  <R> AggregateResult<R> getAggregateResult();
+
+
+  Stream<T> getStreamResult();
+
 }
\ No newline at end of file
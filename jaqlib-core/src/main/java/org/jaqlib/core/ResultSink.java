@@ -0,0 +1,37 @@
+package org.jaqlib.core;
+
+/**
+ * Receives the matching elements of a query one by one. Sinks are used
+ * internally by the queries for results that do not need to keep every
+ * matching element (e.g. a {@link CountSink} or an {@link OrderingSink}). A
+ * result collection is passed as sink by its <tt>add</tt> method (e.g.
+ * <tt>list::add</tt>). Contrary to a collection a sink does not provide
+ * access to the added elements.
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the element type of the query.
+ */
+public interface ResultSink<T>
+{
+
+  /**
+   * @param element a matching element; may be null.
+   */
+  void add(T element);
+
+
+  /**
+   * Adds the given elements in their iteration order.
+   *
+   * @param elements the not null elements to add.
+   */
+  default void addAll(Iterable<? extends T> elements)
+  {
+    for (T element : elements)
+    {
+      add(element);
+    }
+  }
+
+}
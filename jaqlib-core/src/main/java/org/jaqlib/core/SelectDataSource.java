@@ -17,4 +17,20 @@ public interface SelectDataSource
    */
   DsResultSet execute();
 
+
+  /**
+   * Returns a key that identifies the elements returned by
+   * {@link #execute()}. Data sources with equal keys must return equal
+   * elements. The key is used for sharing fetched elements between queries
+   * (see {@link SharedQueryCache}). The key must be retrieved before the data
+   * source is executed.
+   * 
+   * @return the key of the elements of this data source; null if the elements
+   *         must not be shared. The default implementation returns null.
+   */
+  default Object getCacheKey()
+  {
+    return null;
+  }
+
 }
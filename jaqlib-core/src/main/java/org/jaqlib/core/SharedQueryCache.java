@@ -0,0 +1,348 @@
+package org.jaqlib.core;
+
+import org.jaqlib.util.Assert;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * Cache for the elements of data sources that can be shared by many queries.
+ * The elements are stored by a key that identifies the data source (e.g. the
+ * SQL statement and its parameters or the XML resource and the XPath
+ * expression, see {@link SelectDataSource#getCacheKey()}) and the mapping of
+ * the query. So queries on the same data source do not have to fetch the
+ * elements again. The WHERE conditions of the queries are evaluated on the
+ * cached elements.
+ * </p>
+ * <p>
+ * The cache is bounded. If the maximum number of entries or the maximum
+ * (estimated) number of bytes is exceeded then the least recently used
+ * entries are evicted. Entries expire after the configured time to live.
+ * Statistics about hits, misses, evictions and expirations are provided.
+ * </p>
+ * <p>
+ * <b>NOTE: the cached elements are shared by all queries that use this cache.
+ * So the elements must not be changed.</b>
+ * </p>
+ * This class is thread-safe.
+ *
+ * @see Defaults#setSharedQueryCache(SharedQueryCache)
+ * @author Werner Fragner
+ */
+public class SharedQueryCache
+{
+
+  /**
+   * The default size estimation of an element in bytes.
+   */
+  public static final long DEFAULT_ELEMENT_SIZE = 64;
+
+  private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f,
+      true);
+
+  private int maxEntries = 100;
+  private long maxBytes = -1;
+  private long timeToLiveMillis = -1;
+  private ToLongFunction<Object> elementSizeEstimator = element -> DEFAULT_ELEMENT_SIZE;
+
+  private long bytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private long expirationCount = 0;
+
+
+  /**
+   * @param maxEntries the maximum number of cached data sources; must be &gt;
+   *          0. The default is 100.
+   */
+  public synchronized void setMaxEntries(int maxEntries)
+  {
+    if (maxEntries <= 0)
+    {
+      throw new IllegalArgumentException("Max entries must be positive.");
+    }
+    this.maxEntries = maxEntries;
+    evict();
+  }
+
+
+  public synchronized int getMaxEntries()
+  {
+    return maxEntries;
+  }
+
+
+  /**
+   * @param maxBytes the maximum estimated size of all cached elements in
+   *          bytes; -1 for no maximum (the default). The size of the elements
+   *          is estimated by the element size estimator (see
+   *          {@link #setElementSizeEstimator(ToLongFunction)}).
+   */
+  public synchronized void setMaxBytes(long maxBytes)
+  {
+    if (maxBytes < -1)
+    {
+      throw new IllegalArgumentException("Max bytes must be -1 or >= 0.");
+    }
+    this.maxBytes = maxBytes;
+    evict();
+  }
+
+
+  public synchronized long getMaxBytes()
+  {
+    return maxBytes;
+  }
+
+
+  /**
+   * @param timeToLiveMillis the time in milliseconds after which a cached
+   *          entry expires; -1 if entries never expire (the default).
+   */
+  public synchronized void setTimeToLive(long timeToLiveMillis)
+  {
+    if (timeToLiveMillis < -1)
+    {
+      throw new IllegalArgumentException("Time to live must be -1 or >= 0.");
+    }
+    this.timeToLiveMillis = timeToLiveMillis;
+  }
+
+
+  public synchronized long getTimeToLive()
+  {
+    return timeToLiveMillis;
+  }
+
+
+  /**
+   * Sets the function that estimates the size of a cached element in bytes.
+   * By default every element is estimated with {@link #DEFAULT_ELEMENT_SIZE}
+   * bytes.
+   *
+   * @param elementSizeEstimator a not null function.
+   */
+  public synchronized void setElementSizeEstimator(
+      ToLongFunction<Object> elementSizeEstimator)
+  {
+    this.elementSizeEstimator = Assert.notNull(elementSizeEstimator);
+  }
+
+
+  /**
+   * @param key the key of the data source.
+   * @return the cached elements of the data source; null if no elements are
+   *         cached or if they have expired.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T> List<T> get(Object key)
+  {
+    final Entry entry = entries.get(key);
+    if (entry == null)
+    {
+      missCount++;
+      return null;
+    }
+    else if (isExpired(entry))
+    {
+      remove(key);
+      expirationCount++;
+      missCount++;
+      return null;
+    }
+
+    hitCount++;
+    return (List<T>) entry.elements;
+  }
+
+
+  /**
+   * Caches the given elements. Least recently used entries are evicted if
+   * the cache limits are exceeded. Elements whose estimated size exceeds the
+   * maximum number of bytes are not cached at all.
+   *
+   * @param key the key of the data source.
+   * @param elements the elements of the data source. The list must not be
+   *          changed afterwards.
+   */
+  public synchronized void put(Object key, List<?> elements)
+  {
+    Assert.notNull(key);
+    Assert.notNull(elements);
+
+    remove(key);
+
+    long size = 0;
+    for (Object element : elements)
+    {
+      size += elementSizeEstimator.applyAsLong(element);
+    }
+    if (maxBytes >= 0 && size > maxBytes)
+    {
+      // would evict all other entries and could not be kept anyway
+      return;
+    }
+
+    entries.put(key, new Entry(Collections.unmodifiableList(elements), size,
+        currentTimeMillis()));
+    bytes += size;
+    evict();
+  }
+
+
+  /**
+   * Removes the cached elements of the given data source.
+   *
+   * @param key the key of the data source.
+   */
+  public synchronized void invalidate(Object key)
+  {
+    remove(key);
+  }
+
+
+  /**
+   * Removes all cached elements. The statistics are not reset.
+   */
+  public synchronized void clear()
+  {
+    entries.clear();
+    bytes = 0;
+  }
+
+
+  private void remove(Object key)
+  {
+    final Entry entry = entries.remove(key);
+    if (entry != null)
+    {
+      bytes -= entry.size;
+    }
+  }
+
+
+  private void evict()
+  {
+    // the iteration order of the map is the access order: least recently
+    // used entries come first
+    Iterator<Entry> it = entries.values().iterator();
+    while (entries.size() > maxEntries || (maxBytes >= 0 && bytes > maxBytes))
+    {
+      Entry entry = it.next();
+      it.remove();
+      bytes -= entry.size;
+      evictionCount++;
+    }
+  }
+
+
+  private boolean isExpired(Entry entry)
+  {
+    return timeToLiveMillis >= 0
+        && currentTimeMillis() - entry.created > timeToLiveMillis;
+  }
+
+
+  /**
+   * @return the current time in milliseconds. Subclasses can override this
+   *         method for testing purposes.
+   */
+  protected long currentTimeMillis()
+  {
+    return System.currentTimeMillis();
+  }
+
+
+  /**
+   * @return the number of cached data sources.
+   */
+  public synchronized int size()
+  {
+    return entries.size();
+  }
+
+
+  /**
+   * @return the estimated size of all cached elements in bytes.
+   */
+  public synchronized long getEstimatedBytes()
+  {
+    return bytes;
+  }
+
+
+  public synchronized long getHitCount()
+  {
+    return hitCount;
+  }
+
+
+  public synchronized long getMissCount()
+  {
+    return missCount;
+  }
+
+
+  /**
+   * @return the number of entries that have been removed because the cache
+   *         limits have been exceeded.
+   */
+  public synchronized long getEvictionCount()
+  {
+    return evictionCount;
+  }
+
+
+  /**
+   * @return the number of entries that have been removed because they have
+   *         expired.
+   */
+  public synchronized long getExpirationCount()
+  {
+    return expirationCount;
+  }
+
+
+  /**
+   * @return the ratio of hits to all lookups; 0 if no lookups have been made.
+   */
+  public synchronized double getHitRate()
+  {
+    final long lookups = hitCount + missCount;
+    return (lookups == 0) ? 0 : (double) hitCount / lookups;
+  }
+
+
+  @Override
+  public synchronized String toString()
+  {
+    return "SharedQueryCache[size=" + entries.size() + ", bytes=" + bytes
+        + ", hits=" + hitCount + ", misses=" + missCount + ", evictions="
+        + evictionCount + ", expirations=" + expirationCount + "]";
+  }
+
+
+  private static class Entry
+  {
+
+    private final List<?> elements;
+    private final long size;
+    private final long created;
+
+
+    Entry(List<?> elements, long size, long created)
+    {
+      this.elements = elements;
+      this.size = size;
+      this.created = created;
+    }
+
+  }
+
+}
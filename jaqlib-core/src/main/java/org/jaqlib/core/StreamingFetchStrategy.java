@@ -0,0 +1,25 @@
+package org.jaqlib.core;
+
+
+/**
+ * Fetch strategy that processes all elements of the data source without
+ * keeping them (e.g. in a {@link QueryCache}). It is used for counting or lazy
+ * results, where the matching elements are passed to a sink one by one.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type of the query.
+ */
+public class StreamingFetchStrategy<T> extends AbstractFetchStrategy<T>
+{
+
+  /**
+   * All records must be processed. So this method always returns false.
+   */
+  @Override
+  protected boolean elementProcessed(T element, boolean isMatch)
+  {
+    return false;
+  }
+
+}
@@ -0,0 +1,182 @@
+package org.jaqlib.core;
+
+import org.jaqlib.util.Assert;
+import org.jaqlib.util.ExceptionUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sink that groups the added elements into batches and executes a
+ * {@link BatchTask} for every batch in a bounded pool of worker threads (see
+ * {@link ExecutionOptions}). Adding an element blocks while the maximum number
+ * of pending batches is reached. The elements themselves are not stored. If a
+ * batch fails then no more batches are submitted and the first exception is
+ * thrown by the next {@link #add(Object)} resp. by {@link #finish()}.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the element type of the query.
+ */
+class TaskExecutionSink<T> implements ResultSink<T>
+{
+
+  private final BatchTask<? super T> task;
+  private final int batchSize;
+  private final int maxPendingBatches;
+  private final Executor executor;
+
+  /**
+   * The pool that has been created by this sink; null if a custom executor is
+   * used.
+   */
+  private final ExecutorService pool;
+  private final Semaphore pendingBatches;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  private List<T> batch;
+
+
+  TaskExecutionSink(BatchTask<? super T> task, ExecutionOptions options)
+  {
+    this.task = Assert.notNull(task);
+    this.batchSize = options.getBatchSize();
+    this.maxPendingBatches = options.getMaxPendingBatches();
+    this.pendingBatches = new Semaphore(maxPendingBatches);
+    this.batch = new ArrayList<>(batchSize);
+
+    if (options.getExecutor() != null)
+    {
+      this.executor = options.getExecutor();
+      this.pool = null;
+    }
+    else
+    {
+      this.pool = Executors.newFixedThreadPool(options.getParallelism());
+      this.executor = pool;
+    }
+  }
+
+
+  public void add(T element)
+  {
+    throwFailure();
+
+    batch.add(element);
+    if (batch.size() >= batchSize)
+    {
+      submitBatch();
+    }
+  }
+
+
+  private void submitBatch()
+  {
+    final List<T> elements = batch;
+    batch = new ArrayList<>(batchSize);
+
+    // backpressure: wait until a pending batch has been completed
+    acquire(1);
+    try
+    {
+      executor.execute(() -> executeBatch(elements));
+    }
+    catch (RejectedExecutionException e)
+    {
+      pendingBatches.release();
+      throw e;
+    }
+  }
+
+
+  private void executeBatch(List<T> elements)
+  {
+    try
+    {
+      if (failure.get() == null)
+      {
+        task.execute(elements);
+      }
+    }
+    catch (Throwable t)
+    {
+      failure.compareAndSet(null, t);
+    }
+    finally
+    {
+      pendingBatches.release();
+    }
+  }
+
+
+  /**
+   * Executes the remaining elements and waits until all batches have been
+   * completed.
+   * 
+   * @throws RuntimeException the first exception of a batch.
+   */
+  void finish()
+  {
+    try
+    {
+      if (!batch.isEmpty() && failure.get() == null)
+      {
+        submitBatch();
+      }
+      acquire(maxPendingBatches);
+      pendingBatches.release(maxPendingBatches);
+    }
+    finally
+    {
+      shutdown();
+    }
+    throwFailure();
+  }
+
+
+  /**
+   * Shuts down the pool of this sink (if any). Running batches are completed.
+   */
+  void shutdown()
+  {
+    if (pool != null)
+    {
+      pool.shutdown();
+    }
+  }
+
+
+  private void acquire(int permits)
+  {
+    try
+    {
+      pendingBatches.acquire(permits);
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  private void throwFailure()
+  {
+    final Throwable t = failure.get();
+    if (t instanceof Error)
+    {
+      throw (Error) t;
+    }
+    else if (t != null)
+    {
+      throw ExceptionUtil.toRuntimeException(t);
+    }
+  }
+
+}
@@ -1,5 +1,8 @@
 package org.jaqlib.core;
 
+import org.jaqlib.util.Assert;
+
+import java.util.function.Function;
 
 /**
  * Represents the WHERE clause of the query.
@@ -61,6 +64,33 @@ public class WhereClause<T, DataSourceType> extends
   }
 
 
+  /**
+   * Uses the result of the given function to test all elements for a
+   * specific condition. This condition can be specified in the returned
+   * {@link ComparableWhereCondition}. Contrary to {@link #whereCall(Object)}
+   * no recorder object is needed; the function is applied directly to the
+   * elements.
+   * <p>
+   * <b>Example:</b>
+   * 
+   * <pre>
+   * List&lt;Account&gt; result = IterableQB.select(Account.class).from(accounts)
+   *     .whereCall(Account::getBalance).isGreaterThan(0.0).asList();
+   * </pre>
+   * 
+   * </p>
+   * 
+   * @param function a not null function that is applied to every element
+   *          (e.g. a method reference).
+   * @return an object to specify the condition.
+   */
+  public <R> ComparableWhereCondition<T, DataSourceType, R> whereCall(
+      Function<? super T, ? extends R> function)
+  {
+    return getQuery().addFunctionAndWhereCondition(Assert.notNull(function));
+  }
+
+
   /**
    * Uses a recored method call to test all elements for a boolean condition.
    * The condition must return true in order to add the element to the result
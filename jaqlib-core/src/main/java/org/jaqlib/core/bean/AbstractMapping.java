@@ -24,4 +24,19 @@ public abstract class AbstractMapping<T>
    */
   public abstract String getLogString();
 
+
+  /**
+   * Returns a key that identifies this mapping in a
+   * {@link org.jaqlib.core.SharedQueryCache}. Mappings with equal keys must
+   * map data source elements to equal values. The default implementation
+   * returns this object, i.e. the elements are only shared between queries
+   * that use the same mapping instance.
+   * 
+   * @return a not null key.
+   */
+  public Object getCacheKey()
+  {
+    return this;
+  }
+
 }
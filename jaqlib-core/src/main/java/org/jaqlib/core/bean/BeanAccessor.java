@@ -0,0 +1,482 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.util.Assert;
+import org.jaqlib.util.ExceptionUtil;
+import org.jaqlib.util.ReflectionUtil;
+import org.jaqlib.util.lang.SaveConversions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Accessor for the properties of the beans of a class. The setter, the field
+ * and the field type of every property are resolved only once per class into
+ * {@link MethodHandle}s. So mapping many rows to beans does not pay the costs
+ * of the Java bean introspection and the field lookup for every value.
+ * </p>
+ * <p>
+ * A property is set with its public setter (if the bean class has a getter
+ * and a setter for the property, see {@link java.beans.PropertyDescriptor}).
+ * If there is no such setter or the value does not fit its parameter then the
+ * field is set directly. If the value does not fit the field then it is
+ * converted by {@link SaveConversions}. Field values are always read directly
+ * from the field.
+ * </p>
+ * This class is thread-safe.
+ *
+ * @author Werner Fragner
+ */
+public final class BeanAccessor
+{
+
+  private static final ClassValue<BeanAccessor> ACCESSORS =
+      new ClassValue<BeanAccessor>()
+  {
+
+    @Override
+    protected BeanAccessor computeValue(Class<?> beanClass)
+    {
+      return new BeanAccessor(beanClass);
+    }
+
+  };
+
+  private static final MethodType SETTER_TYPE = MethodType.methodType(
+      void.class, Object.class, Object.class);
+  private static final MethodType GETTER_TYPE = MethodType.methodType(
+      Object.class, Object.class);
+
+  /**
+   * The primitive types a wrapped value can be assigned to by an unboxing and
+   * a widening conversion (JLS 5.1.2) by the wrapper classes.
+   */
+  private static final Map<Class<?>, List<Class<?>>> ASSIGNABLE_TYPES =
+      new HashMap<>();
+
+  static
+  {
+    ASSIGNABLE_TYPES.put(Boolean.class, Arrays.<Class<?>> asList(
+        boolean.class));
+    ASSIGNABLE_TYPES.put(Byte.class, Arrays.<Class<?>> asList(byte.class,
+        short.class, int.class, long.class, float.class, double.class));
+    ASSIGNABLE_TYPES.put(Short.class, Arrays.<Class<?>> asList(short.class,
+        int.class, long.class, float.class, double.class));
+    ASSIGNABLE_TYPES.put(Character.class, Arrays.<Class<?>> asList(
+        char.class, int.class, long.class, float.class, double.class));
+    ASSIGNABLE_TYPES.put(Integer.class, Arrays.<Class<?>> asList(int.class,
+        long.class, float.class, double.class));
+    ASSIGNABLE_TYPES.put(Long.class, Arrays.<Class<?>> asList(long.class,
+        float.class, double.class));
+    ASSIGNABLE_TYPES.put(Float.class, Arrays.<Class<?>> asList(float.class,
+        double.class));
+    ASSIGNABLE_TYPES.put(Double.class, Arrays.<Class<?>> asList(
+        double.class));
+  }
+
+  private final Class<?> beanClass;
+  private final ConcurrentMap<String, Property> properties =
+      new ConcurrentHashMap<>();
+
+
+  private BeanAccessor(Class<?> beanClass)
+  {
+    this.beanClass = beanClass;
+  }
+
+
+  /**
+   * @param beanClass a not null bean class.
+   * @return the cached accessor for the given class.
+   */
+  public static BeanAccessor forClass(Class<?> beanClass)
+  {
+    return ACCESSORS.get(Assert.notNull(beanClass));
+  }
+
+
+  /**
+   * @return the class of the beans this accessor is used for.
+   */
+  public Class<?> getBeanClass()
+  {
+    return beanClass;
+  }
+
+
+  /**
+   * Sets the given property of the given bean.
+   *
+   * @param bean a not null bean of the class of this accessor.
+   * @param propertyName a not null property name.
+   * @param value the value to set.
+   * @throws RuntimeException if the bean has no such property or the value
+   *           cannot be set.
+   */
+  public void setValue(Object bean, String propertyName, Object value)
+  {
+    Assert.notNull(bean);
+    getProperty(propertyName).setValue(bean, value);
+  }
+
+
+  /**
+   * @param bean a not null bean of the class of this accessor.
+   * @param fieldName a not null field name.
+   * @return the value of the given field of the given bean.
+   * @throws RuntimeException if the bean class has no such field.
+   */
+  public Object getFieldValue(Object bean, String fieldName)
+  {
+    Assert.notNull(bean);
+    return getProperty(fieldName).getFieldValue(bean);
+  }
+
+
+  /**
+   * @param fieldName a not null field name.
+   * @return the type of the given field. The entire inheritance tree of the
+   *         bean class is searched for the given field.
+   * @throws RuntimeException if the bean class has no such field.
+   */
+  public Class<?> getFieldType(String fieldName)
+  {
+    return getProperty(fieldName).getField().getType();
+  }
+
+
+  /**
+   * @param propertyName a not null property name.
+   * @return the public read method of the given property if the property is
+   *         set with a bean setter (see {@link #getWriteMethod(String)}); null
+   *         otherwise.
+   */
+  Method getReadMethod(String propertyName)
+  {
+    return getProperty(propertyName).readMethod;
+  }
+
+
+  /**
+   * @param propertyName a not null property name.
+   * @return the public bean setter that is used by
+   *         {@link #setValue(Object, String, Object)} for the given property;
+   *         null if the field of the property is set directly.
+   */
+  Method getWriteMethod(String propertyName)
+  {
+    return getProperty(propertyName).writeMethod;
+  }
+
+
+  /**
+   * @param name a not null property name.
+   * @return the resolved accessors of the given property.
+   */
+  Property getProperty(String name)
+  {
+    Assert.notNull(name);
+    Property property = properties.get(name);
+    if (property == null)
+    {
+      property = new Property(name);
+      final Property existing = properties.putIfAbsent(name, property);
+      if (existing != null)
+      {
+        property = existing;
+      }
+    }
+    return property;
+  }
+
+
+  /**
+   * @param type a parameter or field type.
+   * @param value a value.
+   * @return true if the given value can be assigned to the given type without
+   *         a conversion (i.e. {@link Method#invoke(Object, Object...)} resp.
+   *         {@link Field#set(Object, Object)} would not throw an
+   *         IllegalArgumentException).
+   */
+  static boolean isAssignable(Class<?> type, Object value)
+  {
+    if (!type.isPrimitive())
+    {
+      return value == null || type.isInstance(value);
+    }
+    else if (value == null)
+    {
+      return false;
+    }
+
+    final List<Class<?>> assignableTypes = ASSIGNABLE_TYPES.get(value
+        .getClass());
+    return assignableTypes != null && assignableTypes.contains(type);
+  }
+
+
+  /**
+   * @param mh a method handle with the parameters (bean, value) resp. (value)
+   *          for static fields.
+   * @param type the parameter type of the value.
+   * @return a handle with the signature (Object, Object)void. Primitive values
+   *         are unboxed and widened if necessary.
+   */
+  private static MethodHandle toSetterType(MethodHandle mh, Class<?> type)
+  {
+    if (mh.type().parameterCount() == 1)
+    {
+      mh = MethodHandles.dropArguments(mh, 0, Object.class);
+    }
+    if (type.isPrimitive())
+    {
+      // only used for assignable values (see isAssignable()): the explicit
+      // cast is an unboxing followed by a widening conversion
+      return MethodHandles.explicitCastArguments(mh, SETTER_TYPE);
+    }
+    return mh.asType(SETTER_TYPE);
+  }
+
+
+  /**
+   * The resolved accessors of a single property.
+   */
+  final class Property
+  {
+
+    private final String name;
+
+    /**
+     * The bean setter with the signature (Object, Object)void; null if the
+     * property has no accessible bean setter.
+     */
+    private final MethodHandle setter;
+    private final Class<?> setterType;
+    private final Method readMethod;
+    private final Method writeMethod;
+
+    private volatile Field field;
+    private volatile MethodHandle fieldSetter;
+    private volatile MethodHandle fieldGetter;
+
+
+    Property(String name)
+    {
+      this.name = name;
+
+      final String capitalized = name.isEmpty() ? name : name.substring(0, 1)
+          .toUpperCase(Locale.ENGLISH)
+          + name.substring(1);
+      Method read = findPublicMethod("is" + capitalized);
+      if (read == null)
+      {
+        read = findPublicMethod("get" + capitalized);
+      }
+      final Method write = findWriteMethod(read, "set" + capitalized);
+
+      MethodHandle mh = null;
+      if (write != null)
+      {
+        try
+        {
+          mh = toSetterType(MethodHandles.publicLookup().unreflect(write),
+              write.getParameterTypes()[0]);
+        }
+        catch (IllegalAccessException e)
+        {
+          // public method of a non-public class --> set the field
+        }
+      }
+      this.setter = mh;
+      this.setterType = (mh != null) ? write.getParameterTypes()[0] : null;
+      this.readMethod = (mh != null) ? read : null;
+      this.writeMethod = (mh != null) ? write : null;
+    }
+
+
+    /**
+     * @param readMethod the public read method of the property; may be null.
+     * @param methodName the name of the write method.
+     * @return the public write method of the property if the bean class has a
+     *         public read method (<tt>is</tt> resp. <tt>get</tt> prefix) and
+     *         a public write method with the type of the read method; null
+     *         otherwise.
+     */
+    private Method findWriteMethod(Method readMethod, String methodName)
+    {
+      if (name.isEmpty() || readMethod == null
+          || readMethod.getReturnType() == void.class)
+      {
+        return null;
+      }
+
+      try
+      {
+        final Method method = beanClass.getMethod(methodName, readMethod
+            .getReturnType());
+        return (method.getReturnType() == void.class && !Modifier
+            .isStatic(method.getModifiers())) ? method : null;
+      }
+      catch (NoSuchMethodException | SecurityException e)
+      {
+        return null;
+      }
+    }
+
+
+    private Method findPublicMethod(String methodName)
+    {
+      try
+      {
+        final Method method = beanClass.getMethod(methodName);
+        return Modifier.isStatic(method.getModifiers()) ? null : method;
+      }
+      catch (NoSuchMethodException | SecurityException e)
+      {
+        return null;
+      }
+    }
+
+
+    void setValue(Object bean, Object value)
+    {
+      if (setter != null && isAssignable(setterType, value))
+      {
+        try
+        {
+          setter.invokeExact(bean, value);
+          return;
+        }
+        catch (RuntimeException e)
+        {
+          // the setter failed --> set the field directly
+        }
+        catch (Error e)
+        {
+          throw e;
+        }
+        catch (Throwable t)
+        {
+          // checked exception declared by the setter
+          throw ExceptionUtil.toRuntimeException(t);
+        }
+      }
+      setFieldValue(bean, value);
+    }
+
+
+    private void setFieldValue(Object bean, Object value)
+    {
+      final Field f = getField();
+      if (isAssignable(f.getType(), value))
+      {
+        try
+        {
+          getFieldSetter().invokeExact(bean, value);
+          return;
+        }
+        catch (Throwable t)
+        {
+          throw ExceptionUtil.toRuntimeException(t);
+        }
+      }
+
+      try
+      {
+        // throws an IllegalArgumentException because the value does not fit
+        f.set(bean, value);
+      }
+      catch (IllegalArgumentException e)
+      {
+        final Object convertedValue = SaveConversions.convert(value, f
+            .getType());
+        if (convertedValue == value)
+        {
+          // no conversion performed
+          throw ExceptionUtil.toRuntimeException(e);
+        }
+        // conversion performed, try to set the value again
+        setValue(bean, convertedValue);
+      }
+      catch (IllegalAccessException e)
+      {
+        throw ExceptionUtil.toRuntimeException(e);
+      }
+    }
+
+
+    Object getFieldValue(Object bean)
+    {
+      try
+      {
+        return getFieldGetter().invokeExact(bean);
+      }
+      catch (Throwable t)
+      {
+        throw ExceptionUtil.toRuntimeException(t);
+      }
+    }
+
+
+    /**
+     * @throws RuntimeException if the bean class has no such field.
+     */
+    Field getField()
+    {
+      Field f = field;
+      if (f == null)
+      {
+        // throws a RuntimeException if the field does not exist
+        f = ReflectionUtil.getField(beanClass, name);
+        f.setAccessible(true);
+        field = f;
+      }
+      return f;
+    }
+
+
+    private MethodHandle getFieldSetter() throws IllegalAccessException
+    {
+      MethodHandle mh = fieldSetter;
+      if (mh == null)
+      {
+        final Field f = getField();
+        mh = toSetterType(MethodHandles.lookup().unreflectSetter(f), f
+            .getType());
+        fieldSetter = mh;
+      }
+      return mh;
+    }
+
+
+    private MethodHandle getFieldGetter() throws IllegalAccessException
+    {
+      MethodHandle mh = fieldGetter;
+      if (mh == null)
+      {
+        final Field f = getField();
+        mh = MethodHandles.lookup().unreflectGetter(f);
+        if (Modifier.isStatic(f.getModifiers()))
+        {
+          mh = MethodHandles.dropArguments(mh, 0, Object.class);
+        }
+        mh = mh.asType(GETTER_TYPE);
+        fieldGetter = mh;
+      }
+      return mh;
+    }
+
+  }
+
+}
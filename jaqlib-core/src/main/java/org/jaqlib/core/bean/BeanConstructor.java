@@ -0,0 +1,383 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.util.Assert;
+import org.jaqlib.util.ExceptionUtil;
+import org.jaqlib.util.lang.SaveConversions;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The constructor that is used for creating immutable beans (e.g. Java
+ * records) with all their values at once. The constructor is resolved only
+ * once per class into a {@link MethodHandle}. It is the first constructor
+ * found by the following rules:
+ * </p>
+ * <ol>
+ * <li>the canonical constructor of a record class.</li>
+ * <li>the public constructor with the most parameters that is annotated with
+ * {@link ConstructorProperties}.</li>
+ * <li>the public constructor with the most parameters whose parameter names are
+ * present in the class file (i.e. the class has been compiled with the
+ * <tt>-parameters</tt> option).</li>
+ * </ol>
+ * This class is thread-safe.
+ *
+ * @author Werner Fragner
+ * @param <T> the bean type.
+ */
+public final class BeanConstructor<T>
+{
+
+  private static final ClassValue<BeanConstructor<?>> CONSTRUCTORS =
+      new ClassValue<BeanConstructor<?>>()
+  {
+
+    @Override
+    protected BeanConstructor<?> computeValue(Class<?> beanClass)
+    {
+      return new BeanConstructor<>(beanClass);
+    }
+
+  };
+
+  private static final MethodType SPREAD_TYPE = MethodType.methodType(
+      Object.class, Object[].class);
+
+  private final Class<T> beanClass;
+  private final List<String> parameterNames;
+  private final Class<?>[] parameterTypes;
+  private final Type[] genericParameterTypes;
+  private final Object[] defaultValues;
+  private final Map<String, Integer> parameterIndexes = new HashMap<>();
+
+  /**
+   * The constructor with the signature (Object[])Object.
+   */
+  private final MethodHandle constructor;
+
+
+  private BeanConstructor(Class<T> beanClass)
+  {
+    this.beanClass = beanClass;
+
+    String[] names = getRecordComponentNames(beanClass);
+    Constructor<?> c;
+    if (names != null)
+    {
+      c = getCanonicalConstructor(beanClass);
+    }
+    else
+    {
+      c = getAnnotatedConstructor(beanClass);
+      if (c != null)
+      {
+        names = c.getAnnotation(ConstructorProperties.class).value();
+      }
+      else
+      {
+        c = getNamedConstructor(beanClass);
+        names = getParameterNames(c);
+      }
+    }
+
+    if (names.length != c.getParameterCount())
+    {
+      throw new IllegalArgumentException("The parameter names of the "
+          + "constructor '" + c + "' do not match its parameters.");
+    }
+    this.parameterNames = Collections.unmodifiableList(Arrays.asList(names));
+    this.parameterTypes = c.getParameterTypes();
+    this.genericParameterTypes = c.getGenericParameterTypes();
+    this.defaultValues = new Object[names.length];
+    for (int i = 0; i < names.length; i++)
+    {
+      parameterIndexes.put(names[i], i);
+      if (parameterTypes[i].isPrimitive())
+      {
+        defaultValues[i] = Array.get(Array.newInstance(parameterTypes[i], 1),
+            0);
+      }
+    }
+    this.constructor = unreflect(c);
+  }
+
+
+  /**
+   * @param <T> the bean type.
+   * @param beanClass a not null bean class.
+   * @return the cached constructor for the given class.
+   * @throws IllegalArgumentException if the given class has no constructor
+   *           with parameter names.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> BeanConstructor<T> forClass(Class<T> beanClass)
+  {
+    return (BeanConstructor<T>) CONSTRUCTORS.get(Assert.notNull(beanClass));
+  }
+
+
+  /**
+   * @return the class of the beans created by this constructor.
+   */
+  public Class<T> getBeanClass()
+  {
+    return beanClass;
+  }
+
+
+  /**
+   * @return an unmodifiable list with the names of the constructor
+   *         parameters.
+   */
+  public List<String> getParameterNames()
+  {
+    return parameterNames;
+  }
+
+
+  /**
+   * @return the number of constructor parameters.
+   */
+  public int getParameterCount()
+  {
+    return parameterTypes.length;
+  }
+
+
+  /**
+   * @param index the index of a constructor parameter.
+   * @return the type of the given parameter.
+   */
+  public Class<?> getParameterType(int index)
+  {
+    return parameterTypes[index];
+  }
+
+
+  /**
+   * @param index the index of a constructor parameter.
+   * @return the generic type of the given parameter.
+   */
+  public Type getGenericParameterType(int index)
+  {
+    return genericParameterTypes[index];
+  }
+
+
+  /**
+   * @param parameterName a parameter name.
+   * @return the index of the constructor parameter with the given name; -1 if
+   *         the constructor has no such parameter.
+   */
+  public int indexOf(String parameterName)
+  {
+    final Integer index = parameterIndexes.get(parameterName);
+    return (index != null) ? index : -1;
+  }
+
+
+  /**
+   * Creates a new bean. Arguments that do not fit their parameter type are
+   * converted by {@link SaveConversions}. Null arguments for primitive
+   * parameters are replaced by the default value of the primitive type (e.g.
+   * 0, false).
+   *
+   * @param arguments the not null arguments in the order of the constructor
+   *          parameters. The arguments may be converted in place.
+   * @return a new bean.
+   * @throws IllegalArgumentException if the number of arguments does not
+   *           match.
+   * @throws RuntimeException if the constructor throws an exception or if an
+   *           argument cannot be converted.
+   */
+  public T newInstance(Object[] arguments)
+  {
+    if (arguments.length != parameterTypes.length)
+    {
+      throw new IllegalArgumentException("The constructor of "
+          + beanClass.getName() + " has " + parameterTypes.length
+          + " parameters but " + arguments.length + " arguments were given.");
+    }
+
+    for (int i = 0; i < arguments.length; i++)
+    {
+      arguments[i] = toArgument(i, arguments[i]);
+    }
+
+    try
+    {
+      return beanClass.cast(constructor.invokeExact(arguments));
+    }
+    catch (Throwable t)
+    {
+      throw ExceptionUtil.toRuntimeException(t);
+    }
+  }
+
+
+  private Object toArgument(int index, Object value)
+  {
+    final Class<?> type = parameterTypes[index];
+    if (value == null)
+    {
+      return defaultValues[index];
+    }
+    else if (BeanAccessor.isAssignable(type, value))
+    {
+      return value;
+    }
+
+    final Object convertedValue = SaveConversions.convert(value, type);
+    if (!BeanAccessor.isAssignable(type, convertedValue))
+    {
+      throw new IllegalArgumentException("Value '" + value + "' of type "
+          + value.getClass().getName() + " cannot be converted to " + type
+          + ".");
+    }
+    return convertedValue;
+  }
+
+
+  private static MethodHandle unreflect(Constructor<?> c)
+  {
+    try
+    {
+      c.setAccessible(true);
+      final MethodHandle mh = MethodHandles.lookup().unreflectConstructor(c);
+      return mh.asSpreader(Object[].class, c.getParameterCount()).asType(
+          SPREAD_TYPE);
+    }
+    catch (IllegalAccessException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  /**
+   * @return the names of the record components of the given class; null if
+   *         the class is no record or if the Java runtime does not support
+   *         records.
+   */
+  private static String[] getRecordComponentNames(Class<?> beanClass)
+  {
+    try
+    {
+      final Method isRecord = Class.class.getMethod("isRecord");
+      if (!Boolean.TRUE.equals(isRecord.invoke(beanClass)))
+      {
+        return null;
+      }
+
+      final Object[] components = (Object[]) Class.class.getMethod(
+          "getRecordComponents").invoke(beanClass);
+      final String[] names = new String[components.length];
+      for (int i = 0; i < components.length; i++)
+      {
+        names[i] = (String) components[i].getClass().getMethod("getName")
+            .invoke(components[i]);
+      }
+      return names;
+    }
+    catch (NoSuchMethodException e)
+    {
+      // Java runtime without records
+      return null;
+    }
+    catch (ReflectiveOperationException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  private static Constructor<?> getCanonicalConstructor(Class<?> recordClass)
+  {
+    try
+    {
+      final Object[] components = (Object[]) Class.class.getMethod(
+          "getRecordComponents").invoke(recordClass);
+      final Class<?>[] types = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++)
+      {
+        types[i] = (Class<?>) components[i].getClass().getMethod("getType")
+            .invoke(components[i]);
+      }
+      return recordClass.getDeclaredConstructor(types);
+    }
+    catch (ReflectiveOperationException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  private static Constructor<?> getAnnotatedConstructor(Class<?> beanClass)
+  {
+    Constructor<?> result = null;
+    for (Constructor<?> c : beanClass.getConstructors())
+    {
+      if (c.isAnnotationPresent(ConstructorProperties.class)
+          && (result == null || c.getParameterCount() > result
+              .getParameterCount()))
+      {
+        result = c;
+      }
+    }
+    return result;
+  }
+
+
+  private static Constructor<?> getNamedConstructor(Class<?> beanClass)
+  {
+    Constructor<?> result = null;
+    for (Constructor<?> c : beanClass.getConstructors())
+    {
+      if (c.getParameterCount() > 0 && getParameterNames(c) != null
+          && (result == null || c.getParameterCount() > result
+              .getParameterCount()))
+      {
+        result = c;
+      }
+    }
+
+    if (result == null)
+    {
+      throw new IllegalArgumentException("The class " + beanClass.getName()
+          + " is no record and has no public constructor with parameter "
+          + "names (@ConstructorProperties or compiled with -parameters).");
+    }
+    return result;
+  }
+
+
+  private static String[] getParameterNames(Constructor<?> c)
+  {
+    final Parameter[] parameters = c.getParameters();
+    final String[] names = new String[parameters.length];
+    for (int i = 0; i < parameters.length; i++)
+    {
+      if (!parameters[i].isNamePresent())
+      {
+        return null;
+      }
+      names[i] = parameters[i].getName();
+    }
+    return names;
+  }
+
+}
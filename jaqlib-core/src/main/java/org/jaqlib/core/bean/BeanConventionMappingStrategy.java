@@ -12,16 +12,44 @@ import java.util.List;
 import java.util.logging.Logger;
 
 /**
+ * <p>
  * Implementation of the {@link BeanMappingStrategy} interface that tries to
  * retrieve the bean properties of a given class. These properties are added to
  * a given {@link BeanMapping} object if they have appropriate get and set
  * methods (only regarding Java bean naming convention).
+ * </p>
+ * <p>
+ * The bean properties of a class are introspected only once. The result is
+ * cached per class for all instances of this strategy (the cache does not
+ * prevent the class from being unloaded). Every call of
+ * {@link #getMappings(Class)} returns new field mappings, so changes to the
+ * mappings of one {@link BeanMapping} do not affect other bean mappings.
+ * </p>
  * 
  * @author Werner Fragner
  */
 public class BeanConventionMappingStrategy implements BeanMappingStrategy
 {
 
+  private static final ClassValue<PropertyTemplate[]> TEMPLATES =
+      new ClassValue<PropertyTemplate[]>()
+  {
+
+    @Override
+    protected PropertyTemplate[] computeValue(Class<?> beanClass)
+    {
+      PropertyDescriptor[] descriptors = getBeanInfo(beanClass)
+          .getPropertyDescriptors();
+      PropertyTemplate[] templates = new PropertyTemplate[descriptors.length];
+      for (int i = 0; i < descriptors.length; i++)
+      {
+        templates[i] = new PropertyTemplate(beanClass, descriptors[i]);
+      }
+      return templates;
+    }
+
+  };
+
   private final Logger logger = LogUtil.getLogger(this.getClass());
 
 
@@ -33,61 +61,31 @@ public class BeanConventionMappingStrategy implements BeanMappingStrategy
     Assert.notNull(beanClass);
 
     List<FieldMapping<?>> mappings = CollectionUtil.newDefaultList();
-    BeanInfo beanInfo = getBeanInfo(beanClass);
-    for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors())
+    for (PropertyTemplate template : TEMPLATES.get(beanClass))
     {
-      if (shouldAddBeanProperty(descriptor))
+      if (shouldAddBeanProperty(template.descriptor))
       {
-        FieldMapping<?> mapping = getMapping(beanClass, descriptor.getName(),
-            descriptor.getPropertyType());
+        FieldMapping<?> mapping = template.newMapping();
         if (mapping != null)
         {
           mappings.add(mapping);
         }
+        else
+        {
+          logger.fine("Ignoring field '" + beanClass + "." + template.name
+              + "' because it is a non-generic collection. Only generic "
+              + "collections are supported by this class.");
+        }
       }
     }
     return mappings;
   }
 
 
-  @SuppressWarnings("unchecked")
-  private FieldMapping<?> getMapping(Class<?> beanClass, String fieldName,
-      Class<?> fieldType)
-  {
-    if (ReflectionUtil.isPrimitiveType(fieldType))
-    {
-      return new FieldMapping<>(fieldName, (Class<Object>) fieldType);
-    }
-    else if (ReflectionUtil.isCollection(fieldType))
-    {
-      Field field = ReflectionUtil.getField(beanClass, fieldName);
-      if (ReflectionUtil.isGeneric(field))
-      {
-        Class<?> elementType = ReflectionUtil.getCollectionElementClass(field);
-        return new CollectionFieldMapping(fieldName,
-            (Class<Collection<?>>) fieldType, elementType);
-      }
-      else
-      {
-        logger
-            .fine("Ignoring field '"
-                + beanClass
-                + "."
-                + fieldName
-                + "' because it is a non-generic collection. Only generic collections are supported by this class.");
-        return null;
-      }
-    }
-    else
-    {
-      return new BeanFieldMapping<>(fieldName, (Class<Object>) fieldType);
-    }
-  }
-
-
   /**
    * This method can be overridden in order to adapt the logic which bean
-   * properties to add to the mapping result.
+   * properties to add to the mapping result. The given descriptor is shared
+   * by all instances of this strategy and must not be changed.
    * 
    * @param descriptor a not null bean property descriptor.
    * @return true if the property should be added to the mapping result.
@@ -105,7 +103,7 @@ public class BeanConventionMappingStrategy implements BeanMappingStrategy
   }
 
 
-  private BeanInfo getBeanInfo(Class<?> beanClass)
+  private static BeanInfo getBeanInfo(Class<?> beanClass)
   {
     try
     {
@@ -117,4 +115,80 @@ public class BeanConventionMappingStrategy implements BeanMappingStrategy
     }
   }
 
+
+  /**
+   * The cached introspection result of a single bean property. It creates the
+   * field mappings for the property.
+   */
+  private static final class PropertyTemplate
+  {
+
+    private final Class<?> beanClass;
+    private final PropertyDescriptor descriptor;
+    private final String name;
+    private final Class<?> type;
+
+    /**
+     * The element class of a generic collection property; null for
+     * non-generic collections. Only valid if {@link #resolved} is true.
+     */
+    private volatile Class<?> elementType;
+    private volatile boolean resolved;
+
+
+    PropertyTemplate(Class<?> beanClass, PropertyDescriptor descriptor)
+    {
+      this.beanClass = beanClass;
+      this.descriptor = descriptor;
+      this.name = descriptor.getName();
+      this.type = descriptor.getPropertyType();
+    }
+
+
+    /**
+     * @return a new field mapping for this property; null if the property is
+     *         a non-generic collection.
+     */
+    @SuppressWarnings("unchecked")
+    FieldMapping<?> newMapping()
+    {
+      if (ReflectionUtil.isPrimitiveType(type))
+      {
+        return new FieldMapping<>(name, (Class<Object>) type);
+      }
+      else if (ReflectionUtil.isCollection(type))
+      {
+        Class<?> collectionElementType = getElementType();
+        if (collectionElementType == null)
+        {
+          return null;
+        }
+        return new CollectionFieldMapping(name, (Class<Collection<?>>) type,
+            collectionElementType);
+      }
+      else
+      {
+        return new BeanFieldMapping<>(name, (Class<Object>) type);
+      }
+    }
+
+
+    /**
+     * The field of the property is looked up only if the property is mapped
+     * because it does not have to exist for other properties.
+     */
+    private Class<?> getElementType()
+    {
+      if (!resolved)
+      {
+        Field field = ReflectionUtil.getField(beanClass, name);
+        elementType = ReflectionUtil.isGeneric(field) ? ReflectionUtil
+            .getCollectionElementClass(field) : null;
+        resolved = true;
+      }
+      return elementType;
+    }
+
+  }
+
 }
@@ -6,8 +6,13 @@ import org.jaqlib.util.Assert;
 import org.jaqlib.util.ReflectionUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -36,6 +41,23 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
       .getJavaTypeHandlerRegistry();
   private BeanMappingStrategy mappingStrategy = Defaults
       .getBeanMappingStrategy();
+  private boolean rowMapperGeneration = Defaults.getRowMapperGeneration();
+
+  /**
+   * The generated row mappers for the result set shapes of this mapping.
+   */
+  private final List<RowMapper<T>> rowMappers = new CopyOnWriteArrayList<>();
+
+  /**
+   * The pre-resolved conversions of the fields of this mapping.
+   */
+  private volatile FieldConverter[] converters;
+
+  /**
+   * The constructor parameters of the fields of this mapping if the beans are
+   * created by a {@link ConstructorBeanFactory}.
+   */
+  private volatile ConstructorBinding constructorBinding;
 
 
   /**
@@ -69,6 +91,7 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
   public void setFactory(BeanFactory beanFactory)
   {
     this.beanFactory = Assert.notNull(beanFactory);
+    invalidateBindings();
   }
 
 
@@ -94,6 +117,34 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
   public void setJavaTypeHandlerRegistry(JavaTypeHandlerRegistry registry)
   {
     this.javaTypeHandlerRegistry = Assert.notNull(registry);
+    invalidateBindings();
+  }
+
+
+  /**
+   * Enables or disables the generation of row mappers. If enabled then a class
+   * that calls the bean setters directly is generated for every result set
+   * shape (i.e. for the fields that have a value in the data source). Values
+   * that do not fit the setter parameters are set the same way as without
+   * generated row mappers. Requires cglib; if cglib is not available then
+   * this option is ignored. By default the value of
+   * {@link Defaults#getRowMapperGeneration()} is used.
+   * 
+   * @param rowMapperGeneration true for enabling the generation of row
+   *          mappers.
+   */
+  public void setRowMapperGeneration(boolean rowMapperGeneration)
+  {
+    this.rowMapperGeneration = rowMapperGeneration;
+  }
+
+
+  /**
+   * @return true if row mappers are generated for this bean mapping.
+   */
+  public boolean isRowMapperGeneration()
+  {
+    return rowMapperGeneration;
   }
 
 
@@ -150,19 +201,220 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
 
   private T getBean(DsResultSet rs)
   {
+    if (beanFactory instanceof ConstructorBeanFactory)
+    {
+      return getConstructedBean(rs, (ConstructorBeanFactory) beanFactory);
+    }
+    if (rowMapperGeneration && ReflectionUtil.isCgLibAvailable())
+    {
+      return getGeneratedBean(rs);
+    }
+
     T bean = newBeanInstance();
-    for (FieldMapping<?> mapping : this)
+    List<FieldMapping<?>> fields = getMappings();
+    if (bean.getClass() == beanClass)
+    {
+      FieldConverter[] fieldConverters = getConverters(fields);
+      for (int i = 0; i < fieldConverters.length; i++)
+      {
+        Object value = fields.get(i).getValue(rs);
+        if (value != DsResultSet.NO_RESULT)
+        {
+          fieldConverters[i].setValue(bean, value);
+        }
+      }
+      return bean;
+    }
+
+    // subclass instance of a custom bean factory
+    BeanAccessor accessor = BeanAccessor.forClass(bean.getClass());
+    for (FieldMapping<?> mapping : fields)
     {
       Object value = mapping.getValue(rs);
       if (value != DsResultSet.NO_RESULT)
       {
-        setValue(bean, mapping.getTargetName(), value);
+        setValue(accessor, bean, mapping.getTargetName(), value);
+      }
+    }
+    return bean;
+  }
+
+
+  /**
+   * Sets the given values of a row on the given bean.
+   */
+  private void setValues(T bean, List<FieldMapping<?>> fields,
+      Object[] values)
+  {
+    if (bean.getClass() == beanClass)
+    {
+      FieldConverter[] fieldConverters = getConverters(fields);
+      for (int i = 0; i < values.length; i++)
+      {
+        if (values[i] != DsResultSet.NO_RESULT)
+        {
+          fieldConverters[i].setValue(bean, values[i]);
+        }
+      }
+      return;
+    }
+
+    BeanAccessor accessor = BeanAccessor.forClass(bean.getClass());
+    for (int i = 0; i < values.length; i++)
+    {
+      if (values[i] != DsResultSet.NO_RESULT)
+      {
+        setValue(accessor, bean, fields.get(i).getTargetName(), values[i]);
+      }
+    }
+  }
+
+
+  private FieldConverter[] getConverters(List<FieldMapping<?>> fields)
+  {
+    FieldConverter[] result = converters;
+    if (result == null || !isBound(result, fields))
+    {
+      BeanAccessor accessor = BeanAccessor.forClass(beanClass);
+      result = new FieldConverter[fields.size()];
+      for (int i = 0; i < result.length; i++)
+      {
+        result[i] = new FieldConverter(javaTypeHandlerRegistry, accessor,
+            fields.get(i));
+      }
+      converters = result;
+    }
+    return result;
+  }
+
+
+  /**
+   * @return true if the given converters have been created for the current
+   *         target names and types of the given fields (the field mappings
+   *         may have been changed after the first row has been mapped).
+   */
+  private static boolean isBound(FieldConverter[] converters,
+      List<FieldMapping<?>> fields)
+  {
+    if (converters.length != fields.size())
+    {
+      return false;
+    }
+    for (int i = 0; i < converters.length; i++)
+    {
+      if (!converters[i].isBoundTo(fields.get(i)))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+  private void invalidateBindings()
+  {
+    rowMappers.clear();
+    converters = null;
+    constructorBinding = null;
+  }
+
+
+  private T getConstructedBean(DsResultSet rs, ConstructorBeanFactory factory)
+  {
+    BeanConstructor<? extends T> constructor = factory
+        .getConstructor(beanClass);
+    List<FieldMapping<?>> fields = getMappings();
+    ConstructorBinding binding = getConstructorBinding(constructor, fields);
+    int[] indexes = binding.parameterIndexes;
+
+    Object[] arguments = new Object[constructor.getParameterCount()];
+    Object[] otherValues = null;
+    for (int i = 0; i < indexes.length; i++)
+    {
+      Object value = fields.get(i).getValue(rs);
+      if (value == DsResultSet.NO_RESULT)
+      {
+        continue;
+      }
+
+      int index = indexes[i];
+      if (index >= 0)
+      {
+        arguments[index] = binding.converters[i].convert(value);
+      }
+      else
+      {
+        if (otherValues == null)
+        {
+          otherValues = new Object[indexes.length];
+          Arrays.fill(otherValues, DsResultSet.NO_RESULT);
+        }
+        otherValues[i] = value;
       }
     }
+
+    T bean = factory.newInstance(beanClass, arguments);
+    if (otherValues != null)
+    {
+      // fields that are no constructor parameters
+      setValues(bean, fields, otherValues);
+    }
     return bean;
   }
 
 
+  private ConstructorBinding getConstructorBinding(
+      BeanConstructor<?> constructor, List<FieldMapping<?>> fields)
+  {
+    ConstructorBinding binding = constructorBinding;
+    if (binding == null || binding.constructor != constructor
+        || !binding.isBoundTo(fields))
+    {
+      binding = new ConstructorBinding(constructor, fields,
+          javaTypeHandlerRegistry);
+      constructorBinding = binding;
+    }
+    return binding;
+  }
+
+
+  private T getGeneratedBean(DsResultSet rs)
+  {
+    List<FieldMapping<?>> fields = getMappings();
+    Object[] values = new Object[fields.size()];
+    for (int i = 0; i < values.length; i++)
+    {
+      values[i] = fields.get(i).getValue(rs);
+    }
+
+    T bean = newBeanInstance();
+    if (!getRowMapper(fields, values).setValues(bean, values,
+        getConverters(fields)))
+    {
+      // subclass instance of a custom bean factory
+      setValues(bean, fields, values);
+    }
+    return bean;
+  }
+
+
+  private RowMapper<T> getRowMapper(List<FieldMapping<?>> fields,
+      Object[] values)
+  {
+    for (RowMapper<T> rowMapper : rowMappers)
+    {
+      if (rowMapper.matches(fields, values))
+      {
+        return rowMapper;
+      }
+    }
+
+    RowMapper<T> rowMapper = new RowMapper<>(beanClass, fields, values);
+    rowMappers.add(0, rowMapper);
+    return rowMapper;
+  }
+
+
   private T getPrimitive(DsResultSet rs)
   {
     FieldMapping<T> mapping = new FieldMapping<>();
@@ -185,7 +437,8 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
    */
   public Object applyJavaTypeHandler(String fieldName, Object value)
   {
-    Class<?> fieldType = ReflectionUtil.getFieldType(beanClass, fieldName);
+    Class<?> fieldType = BeanAccessor.forClass(beanClass).getFieldType(
+        fieldName);
     return applyJavaTypeHandler(fieldType, value);
   }
 
@@ -196,10 +449,11 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
   }
 
 
-  private void setValue(T bean, String fieldName, Object value)
+  private void setValue(BeanAccessor accessor, T bean, String fieldName,
+      Object value)
   {
     value = applyJavaTypeHandler(fieldName, value);
-    ReflectionUtil.setFieldValue(bean, fieldName, value);
+    accessor.setValue(bean, fieldName, value);
   }
 
 
@@ -238,6 +492,7 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
     if (field != null)
     {
       this.mappings.add(field);
+      invalidateBindings();
     }
     return field;
   }
@@ -257,6 +512,7 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
     if (mapping != null)
     {
       getMappings().remove(mapping);
+      invalidateBindings();
     }
     return mapping;
   }
@@ -386,6 +642,7 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
   public void removeAllFields()
   {
     this.mappings = new ArrayList<>();
+    invalidateBindings();
   }
 
 
@@ -408,6 +665,59 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
   }
 
 
+  /**
+   * Returns a key consisting of the bean class, the infrastructure components
+   * and the keys of all field mappings. So bean mappings that have been
+   * created independently for the same bean class can share their elements in
+   * a {@link org.jaqlib.core.SharedQueryCache}.
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    return getCacheKey(new HashSet<Class<?>>());
+  }
+
+
+  private Object getCacheKey(Set<Class<?>> visitedBeanClasses)
+  {
+    if (!visitedBeanClasses.add(beanClass))
+    {
+      // recursive bean structure; the fields have already been added
+      return beanClass;
+    }
+
+    List<Object> fieldKeys = new ArrayList<>();
+    for (FieldMapping<?> mapping : getMappings())
+    {
+      fieldKeys.add(getFieldCacheKey(mapping, visitedBeanClasses));
+    }
+    visitedBeanClasses.remove(beanClass);
+    return Arrays.asList(getClass(), beanClass, beanFactory,
+        javaTypeHandlerRegistry, fieldKeys);
+  }
+
+
+  private Object getFieldCacheKey(FieldMapping<?> mapping,
+      Set<Class<?>> visitedBeanClasses)
+  {
+    if (mapping instanceof BeanFieldMapping<?>)
+    {
+      BeanMapping<?> beanMapping = ((BeanFieldMapping<?>) mapping)
+          .getBeanMapping();
+      return Arrays.asList(mapping.getCacheKey(), beanMapping
+          .getCacheKey(visitedBeanClasses));
+    }
+    else if (mapping instanceof CollectionFieldMapping)
+    {
+      BeanMapping<?> elementMapping = ((CollectionFieldMapping) mapping)
+          .getElementMapping();
+      return Arrays.asList(mapping.getCacheKey(), elementMapping
+          .getCacheKey(visitedBeanClasses));
+    }
+    return mapping.getCacheKey();
+  }
+
+
   /**
    * Creates a {@link BeanMapping} instance by using the bean properties of the
    * given class. Bean properties must have a valid get and set method in order
@@ -440,4 +750,66 @@ public class BeanMapping<T> extends AbstractMapping<T> implements
     return beanMapping;
   }
 
+
+  /**
+   * The constructor parameter indexes of the fields of a bean mapping and the
+   * conversions of their values to the parameter types.
+   */
+  private static final class ConstructorBinding
+  {
+
+    private final BeanConstructor<?> constructor;
+
+    /**
+     * The parameter index for every field; -1 for fields that are no
+     * constructor parameters.
+     */
+    private final int[] parameterIndexes;
+    private final FieldConverter[] converters;
+    private final String[] targetNames;
+
+
+    ConstructorBinding(BeanConstructor<?> constructor,
+        List<FieldMapping<?>> fields, JavaTypeHandlerRegistry registry)
+    {
+      this.constructor = constructor;
+      this.parameterIndexes = new int[fields.size()];
+      this.converters = new FieldConverter[fields.size()];
+      this.targetNames = new String[fields.size()];
+      for (int i = 0; i < parameterIndexes.length; i++)
+      {
+        targetNames[i] = fields.get(i).getTargetName();
+        int index = constructor.indexOf(targetNames[i]);
+        parameterIndexes[i] = index;
+        if (index >= 0)
+        {
+          converters[i] = new FieldConverter(registry, constructor
+              .getParameterType(index));
+        }
+      }
+    }
+
+
+    /**
+     * @return true if this binding has been created for the current target
+     *         names of the given fields.
+     */
+    boolean isBoundTo(List<FieldMapping<?>> fields)
+    {
+      if (targetNames.length != fields.size())
+      {
+        return false;
+      }
+      for (int i = 0; i < targetNames.length; i++)
+      {
+        if (!Objects.equals(targetNames[i], fields.get(i).getTargetName()))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
 }
@@ -1,5 +1,6 @@
 package org.jaqlib.core.bean;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -98,4 +99,14 @@ public class CollectionFieldMapping extends FieldMapping<Collection<?>>
     return name;
   }
 
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    return Arrays.asList(super.getCacheKey(), getElementSourceName());
+  }
+
 }
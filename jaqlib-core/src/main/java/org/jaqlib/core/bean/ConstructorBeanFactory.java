@@ -0,0 +1,59 @@
+package org.jaqlib.core.bean;
+
+/**
+ * <p>
+ * Implementation of the {@link BeanFactory} interface that creates immutable
+ * beans (e.g. Java records) by calling their constructor with all values of a
+ * data source row (see {@link BeanConstructor}). A {@link BeanMapping} with
+ * this factory passes the values of the fields that match a constructor
+ * parameter by name to the constructor. The values of all other fields are
+ * set after the bean has been created. This factory is usually combined with
+ * the {@link ConstructorMappingStrategy}.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ * 
+ * @author Werner Fragner
+ */
+public class ConstructorBeanFactory implements BeanFactory
+{
+
+  /**
+   * Creates a new bean with the default values for all constructor parameters
+   * (i.e. null resp. 0 and false for primitive types).
+   */
+  public <T> T newInstance(Class<T> beanClass)
+  {
+    return newInstance(beanClass, new Object[getConstructor(beanClass)
+        .getParameterCount()]);
+  }
+
+
+  /**
+   * @param <T> the type of the bean.
+   * @param beanClass a not null bean class.
+   * @param arguments the not null arguments in the order of the constructor
+   *          parameters (see {@link BeanConstructor#newInstance(Object[])}).
+   * @return a new instance of the given class.
+   */
+  public <T> T newInstance(Class<T> beanClass, Object[] arguments)
+  {
+    return getConstructor(beanClass).newInstance(arguments);
+  }
+
+
+  /**
+   * @param <T> the type of the bean.
+   * @param beanClass a not null bean class.
+   * @return the constructor that is used for creating beans of the given
+   *         class.
+   * @throws IllegalArgumentException if the given class has no constructor
+   *           with parameter names.
+   */
+  public <T> BeanConstructor<T> getConstructor(Class<T> beanClass)
+  {
+    return BeanConstructor.forClass(beanClass);
+  }
+
+}
@@ -0,0 +1,98 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.util.Assert;
+import org.jaqlib.util.CollectionUtil;
+import org.jaqlib.util.LogUtil;
+import org.jaqlib.util.ReflectionUtil;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of the {@link BeanMappingStrategy} interface that maps the
+ * parameters of the constructor of a given class (see {@link BeanConstructor})
+ * instead of its bean properties. So immutable beans like Java records can be
+ * mapped. This strategy has to be combined with the
+ * {@link ConstructorBeanFactory}.
+ * 
+ * @author Werner Fragner
+ */
+public class ConstructorMappingStrategy implements BeanMappingStrategy
+{
+
+  private final Logger logger = LogUtil.getLogger(this.getClass());
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<FieldMapping<?>> getMappings(Class<?> beanClass)
+  {
+    Assert.notNull(beanClass);
+
+    List<FieldMapping<?>> mappings = CollectionUtil.newDefaultList();
+    BeanConstructor<?> constructor = BeanConstructor.forClass(beanClass);
+    List<String> names = constructor.getParameterNames();
+    for (int i = 0; i < names.size(); i++)
+    {
+      FieldMapping<?> mapping = getMapping(beanClass, names.get(i),
+          constructor.getParameterType(i), constructor
+              .getGenericParameterType(i));
+      if (mapping != null)
+      {
+        mappings.add(mapping);
+      }
+    }
+    return mappings;
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private FieldMapping<?> getMapping(Class<?> beanClass, String name,
+      Class<?> type, Type genericType)
+  {
+    if (ReflectionUtil.isPrimitiveType(type))
+    {
+      return new FieldMapping<>(name, (Class<Object>) type);
+    }
+    else if (ReflectionUtil.isCollection(type))
+    {
+      Class<?> elementType = getElementType(genericType);
+      if (elementType != null)
+      {
+        return new CollectionFieldMapping(name, (Class<Collection<?>>) type,
+            elementType);
+      }
+      else
+      {
+        logger.fine("Ignoring constructor parameter '" + beanClass + "."
+            + name + "' because it is no generic collection with a single "
+            + "element class.");
+        return null;
+      }
+    }
+    else
+    {
+      return new BeanFieldMapping<>(name, (Class<Object>) type);
+    }
+  }
+
+
+  private Class<?> getElementType(Type genericType)
+  {
+    if (genericType instanceof ParameterizedType)
+    {
+      Type[] elementTypes = ((ParameterizedType) genericType)
+          .getActualTypeArguments();
+      if (elementTypes.length == 1 && elementTypes[0] instanceof Class)
+      {
+        return (Class<?>) elementTypes[0];
+      }
+    }
+    return null;
+  }
+
+}
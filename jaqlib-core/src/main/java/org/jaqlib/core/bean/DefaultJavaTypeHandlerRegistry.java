@@ -14,6 +14,7 @@ public class DefaultJavaTypeHandlerRegistry implements JavaTypeHandlerRegistry
 
   private final Map<Class<?>, JavaTypeHandler> handlers = newDefaultMap();
   private final JavaTypeHandler defaultHandler = JavaTypeHandler.NULL;
+  private volatile int modificationCount;
 
 
   /**
@@ -46,6 +47,16 @@ public class DefaultJavaTypeHandlerRegistry implements JavaTypeHandlerRegistry
     {
       handlers.put(fieldType, typeHandler);
     }
+    modificationCount++;
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public int getModificationCount()
+  {
+    return modificationCount;
   }
 
 }
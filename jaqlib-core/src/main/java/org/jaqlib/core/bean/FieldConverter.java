@@ -0,0 +1,134 @@
+package org.jaqlib.core.bean;
+
+import java.util.Objects;
+
+/**
+ * The pre-resolved conversion chain for the values of a single field of a
+ * {@link BeanMapping}: the java type handler for the field type and the bean
+ * property the converted values are set on (by the setter, directly by the
+ * field or after a {@link org.jaqlib.util.lang.SaveConversions} conversion;
+ * see {@link BeanAccessor}). The type handler is resolved again only if the
+ * registry has been changed.
+ * 
+ * @author Werner Fragner
+ */
+final class FieldConverter
+{
+
+  private final JavaTypeHandlerRegistry registry;
+
+  /**
+   * The accessor of the bean class, the name of the bean property and the
+   * type of the field mapping; null for converters of constructor parameters.
+   */
+  private final BeanAccessor accessor;
+  private final String propertyName;
+  private final Class<?> mappingType;
+
+  private volatile BeanAccessor.Property property;
+  private volatile Class<?> type;
+  private volatile TypeHandlerBinding binding;
+
+
+  /**
+   * @param registry the not null registry of the java type handlers.
+   * @param accessor the not null accessor of the bean class.
+   * @param mapping the not null field mapping whose target is the bean
+   *          property. The property and its field type are resolved when the
+   *          first value is converted because the field does not have to
+   *          exist for fields without values.
+   */
+  FieldConverter(JavaTypeHandlerRegistry registry, BeanAccessor accessor,
+      FieldMapping<?> mapping)
+  {
+    this.registry = registry;
+    this.accessor = accessor;
+    this.propertyName = mapping.getTargetName();
+    this.mappingType = mapping.getFieldType();
+  }
+
+
+  /**
+   * @param registry the not null registry of the java type handlers.
+   * @param type the not null target type of the converted values (e.g. the
+   *          type of a constructor parameter).
+   */
+  FieldConverter(JavaTypeHandlerRegistry registry, Class<?> type)
+  {
+    this.registry = registry;
+    this.accessor = null;
+    this.propertyName = null;
+    this.mappingType = null;
+    this.type = type;
+  }
+
+
+  /**
+   * @param mapping a not null field mapping.
+   * @return true if this converter has been created for the current target
+   *         name and field type of the given field mapping; false if the
+   *         field mapping has been changed since.
+   */
+  boolean isBoundTo(FieldMapping<?> mapping)
+  {
+    return Objects.equals(propertyName, mapping.getTargetName())
+        && mappingType == mapping.getFieldType();
+  }
+
+
+  /**
+   * @param value a data source value.
+   * @return the value converted by the java type handler of the field type.
+   * @throws RuntimeException if the bean class has no such field.
+   */
+  Object convert(Object value)
+  {
+    TypeHandlerBinding b = binding;
+    TypeHandlerBinding current = TypeHandlerBinding.bind(b, registry,
+        getType());
+    if (current != b)
+    {
+      binding = current;
+    }
+    return current.getTypeHandler().convert(value);
+  }
+
+
+  /**
+   * Converts the given value and sets it on the given bean.
+   * 
+   * @param bean a not null bean of the class of the bean property.
+   * @param value a data source value.
+   * @throws RuntimeException if the value cannot be set.
+   */
+  void setValue(Object bean, Object value)
+  {
+    final Object convertedValue = convert(value);
+    getProperty().setValue(bean, convertedValue);
+  }
+
+
+  private BeanAccessor.Property getProperty()
+  {
+    BeanAccessor.Property p = property;
+    if (p == null)
+    {
+      p = accessor.getProperty(propertyName);
+      property = p;
+    }
+    return p;
+  }
+
+
+  private Class<?> getType()
+  {
+    Class<?> t = type;
+    if (t == null)
+    {
+      t = getProperty().getField().getType();
+      type = t;
+    }
+    return t;
+  }
+
+}
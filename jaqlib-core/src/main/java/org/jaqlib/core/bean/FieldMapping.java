@@ -4,6 +4,8 @@ import org.jaqlib.core.Defaults;
 import org.jaqlib.core.DsResultSet;
 import org.jaqlib.util.ReflectionUtil;
 
+import java.util.Arrays;
+
 /**
  * Represents the mapping between a source field (e.g. database column, XML
  * element, ...) to a Java been field.
@@ -21,6 +23,12 @@ public class FieldMapping<T> extends AbstractMapping<T>
 
   private JavaTypeHandler typeHandler = JavaTypeHandler.NULL;
 
+  /**
+   * The type handler resolved by the default registry if no type handler has
+   * been set.
+   */
+  private volatile TypeHandlerBinding defaultTypeHandler;
+
 
   public FieldMapping()
   {
@@ -118,8 +126,14 @@ public class FieldMapping<T> extends AbstractMapping<T>
   {
     if (typeHandler == JavaTypeHandler.NULL)
     {
-      return Defaults.getJavaTypeHandlerRegistry().getTypeHandler(
-          getFieldType());
+      TypeHandlerBinding binding = defaultTypeHandler;
+      TypeHandlerBinding current = TypeHandlerBinding.bind(binding, Defaults
+          .getJavaTypeHandlerRegistry(), getFieldType());
+      if (current != binding)
+      {
+        defaultTypeHandler = current;
+      }
+      return current.getTypeHandler();
     }
     else
     {
@@ -164,6 +178,17 @@ public class FieldMapping<T> extends AbstractMapping<T>
   }
 
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    return Arrays.asList(getClass(), fieldType, targetName, sourceName,
+        typeHandler);
+  }
+
+
   /**
    * {@inheritDoc}
    */
@@ -191,13 +216,15 @@ public class FieldMapping<T> extends AbstractMapping<T>
 
   protected Object getFieldValue(Object bean)
   {
-    return ReflectionUtil.getFieldValue(bean, getTargetName());
+    return BeanAccessor.forClass(bean.getClass()).getFieldValue(bean,
+        getTargetName());
   }
 
 
   protected Class<?> getFieldType(Object bean)
   {
-    return ReflectionUtil.getFieldType(bean.getClass(), getTargetName());
+    return BeanAccessor.forClass(bean.getClass()).getFieldType(
+        getTargetName());
   }
 
 }
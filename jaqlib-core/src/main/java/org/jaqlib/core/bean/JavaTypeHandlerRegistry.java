@@ -21,4 +21,19 @@ public interface JavaTypeHandlerRegistry
    */
   void registerTypeHandler(JavaTypeHandler typeHandler);
 
+
+  /**
+   * Returns a number that changes whenever the type handlers of this registry
+   * change (e.g. by {@link #registerTypeHandler(JavaTypeHandler)}). Bean
+   * mappings use it for caching the resolved type handlers of their fields.
+   * 
+   * @return the modification count of this registry; a negative number if
+   *         the modifications are not counted. In this case the type handlers
+   *         are not cached. The default implementation returns -1.
+   */
+  default int getModificationCount()
+  {
+    return -1;
+  }
+
 }
@@ -0,0 +1,306 @@
+package org.jaqlib.core.bean;
+
+import net.sf.cglib.beans.BulkBean;
+import org.jaqlib.core.DsResultSet;
+import org.jaqlib.util.LogUtil;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Sets the values of a data source row on a bean. A row mapper is created for
+ * a single result set shape, i.e. for the fields of a {@link BeanMapping} that
+ * have a value in the data source (see {@link DsResultSet#NO_RESULT}). The
+ * properties with a bean setter are set by a generated {@link BulkBean} class
+ * that calls all setters one after the other without reflection. The other
+ * properties are set by the {@link BeanAccessor} of the bean class.
+ * </p>
+ * <p>
+ * Values that do not exactly fit the setter parameter (e.g. values that would
+ * need a widening or a {@link org.jaqlib.util.lang.SaveConversions}
+ * conversion) cannot be set by the generated class. If a row contains such a
+ * value then all values of the row are set with the {@link BeanAccessor}.
+ * This is decided before the first setter is called; so no setter is called
+ * twice for the same row.
+ * </p>
+ * This class is thread-safe. It requires cglib.
+ *
+ * @author Werner Fragner
+ * @param <T> the bean type.
+ */
+final class RowMapper<T>
+{
+
+  private static final Logger LOG = LogUtil.getLogger(RowMapper.class);
+
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+  static
+  {
+    WRAPPERS.put(boolean.class, Boolean.class);
+    WRAPPERS.put(byte.class, Byte.class);
+    WRAPPERS.put(short.class, Short.class);
+    WRAPPERS.put(char.class, Character.class);
+    WRAPPERS.put(int.class, Integer.class);
+    WRAPPERS.put(long.class, Long.class);
+    WRAPPERS.put(float.class, Float.class);
+    WRAPPERS.put(double.class, Double.class);
+  }
+
+  private final Class<?> beanClass;
+  private final BeanAccessor accessor;
+
+  /**
+   * The target names of all fields of the bean mapping; null for fields
+   * without a value in the data source.
+   */
+  private final String[] targetNames;
+
+  /**
+   * The indexes of the fields set by the generated class and their setter
+   * parameter types.
+   */
+  private final int[] setterIndexes;
+  private final Class<?>[] setterTypes;
+  private final BulkBean bulkBean;
+
+  /**
+   * The indexes of the fields set by the accessor.
+   */
+  private final int[] accessorIndexes;
+
+
+  /**
+   * @param beanClass a not null class of the beans created by the bean
+   *          mapping.
+   * @param fields the not null field mappings of the bean mapping.
+   * @param values the values of a row for the given field mappings; defines
+   *          the shape of this row mapper.
+   */
+  RowMapper(Class<?> beanClass, List<FieldMapping<?>> fields, Object[] values)
+  {
+    this.beanClass = beanClass;
+    this.accessor = BeanAccessor.forClass(beanClass);
+    this.targetNames = new String[fields.size()];
+
+    final List<Method> readMethods = new ArrayList<>();
+    final List<Method> writeMethods = new ArrayList<>();
+    final List<Integer> setters = new ArrayList<>();
+    final List<Integer> others = new ArrayList<>();
+    for (int i = 0; i < targetNames.length; i++)
+    {
+      if (values[i] == DsResultSet.NO_RESULT)
+      {
+        continue;
+      }
+
+      final String name = fields.get(i).getTargetName();
+      targetNames[i] = name;
+
+      final Method writeMethod = accessor.getWriteMethod(name);
+      if (writeMethod != null)
+      {
+        readMethods.add(accessor.getReadMethod(name));
+        writeMethods.add(writeMethod);
+        setters.add(i);
+      }
+      else
+      {
+        others.add(i);
+      }
+    }
+
+    BulkBean bulk = createBulkBean(readMethods, writeMethods);
+    if (bulk == null)
+    {
+      // the generation failed --> set all values with the accessor
+      others.addAll(setters);
+      setters.clear();
+      writeMethods.clear();
+    }
+
+    this.bulkBean = bulk;
+    this.setterIndexes = toArray(setters);
+    this.setterTypes = new Class<?>[setterIndexes.length];
+    for (int i = 0; i < setterTypes.length; i++)
+    {
+      setterTypes[i] = writeMethods.get(i).getParameterTypes()[0];
+    }
+    this.accessorIndexes = toArray(others);
+  }
+
+
+  private BulkBean createBulkBean(List<Method> readMethods,
+      List<Method> writeMethods)
+  {
+    if (writeMethods.isEmpty())
+    {
+      return null;
+    }
+
+    final String[] getters = new String[writeMethods.size()];
+    final String[] setters = new String[writeMethods.size()];
+    final Class<?>[] types = new Class<?>[writeMethods.size()];
+    for (int i = 0; i < types.length; i++)
+    {
+      getters[i] = readMethods.get(i).getName();
+      setters[i] = writeMethods.get(i).getName();
+      types[i] = writeMethods.get(i).getParameterTypes()[0];
+    }
+
+    try
+    {
+      return BulkBean.create(beanClass, getters, setters, types);
+    }
+    catch (RuntimeException e)
+    {
+      // e.g. a CodeGenerationException for a bean class that can't be
+      // accessed by the generated class
+      LOG.log(Level.FINE, "Could not generate row mapper for "
+          + beanClass.getName(), e);
+      return null;
+    }
+  }
+
+
+  private static int[] toArray(List<Integer> list)
+  {
+    final int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+
+  /**
+   * @param fields the field mappings of the bean mapping.
+   * @param values the values of a row for the given field mappings.
+   * @return true if this row mapper has been created for the given field
+   *         mappings and the shape of the given row.
+   */
+  boolean matches(List<FieldMapping<?>> fields, Object[] values)
+  {
+    if (fields.size() != targetNames.length)
+    {
+      return false;
+    }
+    for (int i = 0; i < targetNames.length; i++)
+    {
+      final String name = targetNames[i];
+      if (values[i] == DsResultSet.NO_RESULT)
+      {
+        if (name != null)
+        {
+          return false;
+        }
+      }
+      else if (name == null || !name.equals(fields.get(i).getTargetName()))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+  /**
+   * Converts the given values with the given converters and sets them on the
+   * given bean. The given array is used as buffer for the converted values;
+   * its content is undefined afterwards.
+   *
+   * @param bean a not null bean.
+   * @param values the values of a row for the field mappings this row mapper
+   *          has been created for.
+   * @param converters the not null converters of the fields.
+   * @return true if the values have been set; false if the given bean is no
+   *         instance of the bean class of this row mapper. In this case the
+   *         given values have not been changed.
+   * @throws RuntimeException if a value cannot be set.
+   */
+  boolean setValues(T bean, Object[] values, FieldConverter[] converters)
+  {
+    if (bean.getClass() != beanClass)
+    {
+      return false;
+    }
+
+    for (int i = 0; i < values.length; i++)
+    {
+      if (targetNames[i] != null)
+      {
+        values[i] = converters[i].convert(values[i]);
+      }
+    }
+
+    if (!fits(values))
+    {
+      // the values are set before the first setter is called
+      for (int i = 0; i < values.length; i++)
+      {
+        if (targetNames[i] != null)
+        {
+          accessor.setValue(bean, targetNames[i], values[i]);
+        }
+      }
+      return true;
+    }
+
+    for (int index : accessorIndexes)
+    {
+      accessor.setValue(bean, targetNames[index], values[index]);
+    }
+
+    if (bulkBean != null)
+    {
+      // the setter indexes are ascending --> the setter values can be moved
+      // to the beginning of the array; the generated class ignores the rest
+      for (int i = 0; i < setterIndexes.length; i++)
+      {
+        values[i] = values[setterIndexes[i]];
+      }
+      bulkBean.setPropertyValues(bean, values);
+    }
+    return true;
+  }
+
+
+  /**
+   * @return true if the generated class can set all given values.
+   */
+  private boolean fits(Object[] values)
+  {
+    for (int i = 0; i < setterIndexes.length; i++)
+    {
+      if (!fits(setterTypes[i], values[setterIndexes[i]]))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+  /**
+   * @return true if the generated class can pass the given value to a setter
+   *         with the given parameter type. Primitive parameters need a value
+   *         of the exact wrapper class because the generated class only
+   *         unboxes values.
+   */
+  private static boolean fits(Class<?> type, Object value)
+  {
+    if (!type.isPrimitive())
+    {
+      return value == null || type.isInstance(value);
+    }
+    return value != null && WRAPPERS.get(type) == value.getClass();
+  }
+
+}
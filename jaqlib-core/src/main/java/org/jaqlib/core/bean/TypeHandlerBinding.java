@@ -0,0 +1,55 @@
+package org.jaqlib.core.bean;
+
+/**
+ * The java type handler that has been resolved for a type by a
+ * {@link JavaTypeHandlerRegistry}. The binding is valid as long as the
+ * registry has not been changed (see
+ * {@link JavaTypeHandlerRegistry#getModificationCount()}).
+ * 
+ * @author Werner Fragner
+ */
+final class TypeHandlerBinding
+{
+
+  private final JavaTypeHandlerRegistry registry;
+  private final Class<?> type;
+  private final int modificationCount;
+  private final JavaTypeHandler typeHandler;
+
+
+  private TypeHandlerBinding(JavaTypeHandlerRegistry registry, Class<?> type)
+  {
+    this.registry = registry;
+    this.type = type;
+    // read before the lookup so that a concurrent change invalidates it
+    this.modificationCount = registry.getModificationCount();
+    this.typeHandler = registry.getTypeHandler(type);
+  }
+
+
+  /**
+   * @param binding a previous binding; may be null.
+   * @param registry a not null registry.
+   * @param type a not null type.
+   * @return the given binding if it is still valid for the given registry and
+   *         type; a new binding otherwise.
+   */
+  static TypeHandlerBinding bind(TypeHandlerBinding binding,
+      JavaTypeHandlerRegistry registry, Class<?> type)
+  {
+    if (binding != null && binding.registry == registry
+        && binding.type == type && binding.modificationCount >= 0
+        && binding.modificationCount == registry.getModificationCount())
+    {
+      return binding;
+    }
+    return new TypeHandlerBinding(registry, type);
+  }
+
+
+  JavaTypeHandler getTypeHandler()
+  {
+    return typeHandler;
+  }
+
+}
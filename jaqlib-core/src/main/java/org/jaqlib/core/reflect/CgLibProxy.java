@@ -2,6 +2,7 @@ package org.jaqlib.core.reflect;
 
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.transform.impl.UndeclaredThrowableStrategy;
 import org.jaqlib.util.Assert;
 import org.jaqlib.util.ReflectionUtil;
@@ -9,6 +10,11 @@ import org.jaqlib.util.ReflectionUtil;
 import java.lang.reflect.InvocationHandler;
 
 /**
+ * Creates CGLib proxies for classes. The proxy class is generated only once
+ * per class loader and target class. A prototype instance of it is cached and
+ * new proxies are created by {@link Factory#newInstance(Callback[])}, so no
+ * {@link Enhancer} has to be configured per proxy.
+ *
  * @author Werner Fragner
  * 
  * @param <T>
@@ -16,6 +22,9 @@ import java.lang.reflect.InvocationHandler;
 public class CgLibProxy<T>
 {
 
+  private static final ProxyClassCache<Factory> PROTOTYPES = new ProxyClassCache<>(
+      CgLibProxy::createPrototype);
+
   private final ClassLoader classLoader;
   private final InvocationHandler invocationHandler;
 
@@ -29,6 +38,40 @@ public class CgLibProxy<T>
 
   @SuppressWarnings("unchecked")
   public T getProxy(Class<T> targetClass)
+  {
+    Callback[] callbacks = new Callback[] { new CgLibInvocationHandlerAdapter(
+        invocationHandler) };
+    return (T) PROTOTYPES.get(classLoader, targetClass).newInstance(callbacks);
+  }
+
+
+  /**
+   * Generates the proxy class for the given class if it has not been
+   * generated yet.
+   *
+   * @param classLoader a not null class loader of the proxy class.
+   * @param targetClass a not null class with a default constructor.
+   */
+  public static void warmUp(ClassLoader classLoader, Class<?> targetClass)
+  {
+    PROTOTYPES.get(Assert.notNull(classLoader), Assert.notNull(targetClass));
+  }
+
+
+  /**
+   * @param classLoader a class loader.
+   * @param targetClass a class.
+   * @return true if the proxy class for the given class has already been
+   *         generated by the given class loader.
+   */
+  public static boolean isCached(ClassLoader classLoader, Class<?> targetClass)
+  {
+    return PROTOTYPES.contains(classLoader, targetClass);
+  }
+
+
+  private static Factory createPrototype(ClassLoader classLoader,
+      Class<?> targetClass)
   {
     Enhancer enhancer = new Enhancer();
     enhancer.setClassLoader(classLoader);
@@ -37,19 +80,15 @@ public class CgLibProxy<T>
     enhancer.setSuperclass(targetClass);
     enhancer.setInterfaces(getInterfaces(targetClass));
     enhancer.setInterceptDuringConstruction(false);
+    enhancer.setCallbackType(net.sf.cglib.proxy.InvocationHandler.class);
 
-    Callback[] callbacks = new Callback[] { new CgLibInvocationHandlerAdapter(
-        invocationHandler) };
-    enhancer.setCallbacks(callbacks);
-
-    Class<?>[] types = new Class[] { net.sf.cglib.proxy.InvocationHandler.class };
-    enhancer.setCallbackTypes(types);
-
-    return (T) enhancer.create();
+    // the prototype has no callbacks; it is only used for creating proxies
+    Class<?> proxyClass = enhancer.createClass();
+    return (Factory) ReflectionUtil.newInstance(proxyClass);
   }
 
 
-  private Class<?>[] getInterfaces(Class<T> targetClass)
+  private static Class<?>[] getInterfaces(Class<?> targetClass)
   {
     return ReflectionUtil.getAllInterfaces(targetClass);
   }
@@ -0,0 +1,99 @@
+package org.jaqlib.core.reflect;
+
+import org.jaqlib.util.Assert;
+
+import java.util.function.Function;
+
+/**
+ * Represents a property reference given as a {@link Function} (e.g. the
+ * method reference <tt>Account::getBalance</tt>) instead of a method call that
+ * has been recorded on a proxy object. The function is applied directly to
+ * the elements; no proxy, recording or reflection is needed.
+ * 
+ * @author Werner Fragner
+ */
+public class FunctionInvocation implements Invocation
+{
+
+  private final Function<Object, ?> function;
+
+
+  @SuppressWarnings("unchecked")
+  public FunctionInvocation(Function<?, ?> function)
+  {
+    this.function = (Function<Object, ?>) Assert.notNull(function);
+  }
+
+
+  /**
+   * @return the function that is applied to the elements.
+   */
+  public Function<?, ?> getFunction()
+  {
+    return function;
+  }
+
+
+  /**
+   * @return always <tt>Object.class</tt> because the return type of a
+   *         function is not known at runtime.
+   */
+  @Override
+  public Class<?> getReturnType()
+  {
+    return Object.class;
+  }
+
+
+  /**
+   * @return always null because the property name of a function is not known
+   *         at runtime.
+   */
+  @Override
+  public String getPropertyName()
+  {
+    return null;
+  }
+
+
+  @Override
+  public Object invoke(Object target)
+  {
+    return function.apply(target);
+  }
+
+
+  /**
+   * Two function invocations are equal if their functions are equal. Note
+   * that a method reference expression may create a new function object every
+   * time it is evaluated.
+   */
+  @Override
+  public boolean equals(Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+    if (!(obj instanceof FunctionInvocation))
+    {
+      return false;
+    }
+    return function.equals(((FunctionInvocation) obj).function);
+  }
+
+
+  @Override
+  public int hashCode()
+  {
+    return function.hashCode();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "function()";
+  }
+
+}
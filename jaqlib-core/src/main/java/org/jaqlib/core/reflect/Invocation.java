@@ -0,0 +1,61 @@
+package org.jaqlib.core.reflect;
+
+/**
+ * A call that reads a value from the elements of a query, e.g. a
+ * {@link MethodInvocation} recorded on a proxy object or a
+ * {@link FunctionInvocation} given as a method reference.
+ *
+ * @author Werner Fragner
+ */
+public interface Invocation
+{
+
+  /**
+   * @param target the object the call is applied to.
+   * @return the result of the call.
+   */
+  Object invoke(Object target);
+
+
+  /**
+   * @return the return type of the call; <tt>Object.class</tt> if it is not
+   *         known.
+   */
+  Class<?> getReturnType();
+
+
+  /**
+   * @return the name of the bean property that is read by the call; null if
+   *         it is not known.
+   */
+  String getPropertyName();
+
+
+  /**
+   * Invokes the call and returns its result as a primitive <tt>long</tt>.
+   * This method can only be used if the call returns an integral number. The
+   * default implementation unboxes the result of {@link #invoke(Object)}.
+   *
+   * @param target the object the call is applied to.
+   * @return the widened result of the call.
+   */
+  default long invokeLong(Object target)
+  {
+    return ((Number) invoke(target)).longValue();
+  }
+
+
+  /**
+   * Invokes the call and returns its result as a primitive <tt>double</tt>.
+   * This method can only be used if the call returns a number. The default
+   * implementation unboxes the result of {@link #invoke(Object)}.
+   *
+   * @param target the object the call is applied to.
+   * @return the widened result of the call.
+   */
+  default double invokeDouble(Object target)
+  {
+    return ((Number) invoke(target)).doubleValue();
+  }
+
+}
@@ -1,11 +1,17 @@
 package org.jaqlib.core.reflect;
 
 import org.jaqlib.util.Assert;
+import org.jaqlib.util.ExceptionUtil;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 
 /**
+ * Creates JDK proxies for interfaces. The generated proxy classes and their
+ * constructors are cached per class loader and interface.
+ *
  * @author Werner Fragner
  * 
  * @param <T>
@@ -13,6 +19,9 @@ import java.lang.reflect.Proxy;
 public class JdkProxy<T>
 {
 
+  private static final ProxyClassCache<Constructor<?>> CONSTRUCTORS = new ProxyClassCache<>(
+      JdkProxy::createProxyConstructor);
+
   private final ClassLoader classLoader;
   private final InvocationHandler invocationHandler;
 
@@ -27,8 +36,68 @@ public class JdkProxy<T>
   @SuppressWarnings("unchecked")
   public T getProxy(Class<T> targetClass)
   {
-    final Class[] classes = new Class[] { targetClass};
-    return (T) Proxy.newProxyInstance(classLoader, classes, invocationHandler);
+    final Constructor<?> constructor = getProxyConstructor(classLoader,
+        targetClass);
+    try
+    {
+      return (T) constructor.newInstance(invocationHandler);
+    }
+    catch (InvocationTargetException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e.getCause());
+    }
+    catch (ReflectiveOperationException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  /**
+   * Generates the proxy class for the given interface if it has not been
+   * generated yet.
+   *
+   * @param classLoader a not null class loader of the proxy class.
+   * @param targetClass a not null interface.
+   */
+  public static void warmUp(ClassLoader classLoader, Class<?> targetClass)
+  {
+    getProxyConstructor(Assert.notNull(classLoader), Assert
+        .notNull(targetClass));
+  }
+
+
+  /**
+   * @param classLoader a class loader.
+   * @param targetClass an interface.
+   * @return true if the proxy class for the given interface has already been
+   *         generated by the given class loader.
+   */
+  public static boolean isCached(ClassLoader classLoader, Class<?> targetClass)
+  {
+    return CONSTRUCTORS.contains(classLoader, targetClass);
+  }
+
+
+  private static Constructor<?> getProxyConstructor(ClassLoader classLoader,
+      Class<?> targetClass)
+  {
+    return CONSTRUCTORS.get(classLoader, targetClass);
+  }
+
+
+  private static Constructor<?> createProxyConstructor(ClassLoader classLoader,
+      Class<?> targetClass)
+  {
+    final Class<?> proxyClass = Proxy.getProxyClass(classLoader, targetClass);
+    try
+    {
+      return proxyClass.getConstructor(InvocationHandler.class);
+    }
+    catch (NoSuchMethodException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e);
+    }
   }
 
 }
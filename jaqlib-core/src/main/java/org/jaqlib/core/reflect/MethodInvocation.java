@@ -3,18 +3,53 @@ package org.jaqlib.core.reflect;
 import org.jaqlib.util.ExceptionUtil;
 import org.jaqlib.util.ReflectionUtil;
 
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 /**
+ * Represents a recorded method call. The recorded method is bound once into a
+ * {@link MethodHandle} (including the recorded method arguments) the first
+ * time this invocation is invoked. So consecutive invocations on many
+ * elements do not pay the costs of {@link Method#invoke(Object, Object...)}.
+ * 
  * @author Werner Fragner
  */
-public class MethodInvocation
+public class MethodInvocation implements Invocation
 {
 
+  private static final MethodType TARGET_TYPE = MethodType.methodType(
+      Object.class, Object.class);
+  private static final MethodType LONG_TARGET_TYPE = MethodType.methodType(
+      long.class, Object.class);
+  private static final MethodType DOUBLE_TARGET_TYPE = MethodType
+      .methodType(double.class, Object.class);
+
+  /**
+   * Marks a signature the method can't be bound to.
+   */
+  private static final MethodHandle NOT_BINDABLE = MethodHandles
+      .identity(Object.class);
+
   private final Method method;
   private final Object[] methodArgs;
 
+  /**
+   * The bound method with the signature (Object)Object resp. (Object)long and
+   * (Object)double; null if not bound yet; {@link #NOT_BINDABLE} if the
+   * method can't be bound to the signature. Binding is idempotent; so
+   * concurrent threads may bind the same handle twice. The fields are
+   * volatile in order to publish a bound handle to other threads.
+   */
+  private volatile MethodHandle handle;
+  private volatile MethodHandle longHandle;
+  private volatile MethodHandle doubleHandle;
+
 
   public MethodInvocation(Method method, Object[] methodArgs)
   {
@@ -23,7 +58,68 @@ public class MethodInvocation
   }
 
 
+  /**
+   * @return the return type of the recorded method.
+   */
+  @Override
+  public Class<?> getReturnType()
+  {
+    return method.getReturnType();
+  }
+
+
+  /**
+   * @return the name of the bean property if the recorded method is a getter
+   *         without arguments (e.g. <tt>balance</tt> for
+   *         <tt>getBalance()</tt>); null otherwise.
+   */
+  @Override
+  public String getPropertyName()
+  {
+    if (methodArgs != null && methodArgs.length > 0)
+    {
+      return null;
+    }
+
+    final String name = method.getName();
+    if (name.startsWith("get") && name.length() > 3)
+    {
+      return Introspector.decapitalize(name.substring(3));
+    }
+    else if (name.startsWith("is") && name.length() > 2)
+    {
+      return Introspector.decapitalize(name.substring(2));
+    }
+    return null;
+  }
+
+
+  @Override
   public Object invoke(Object target)
+  {
+    MethodHandle mh = handle;
+    if (mh == null)
+    {
+      handle = mh = bind(TARGET_TYPE);
+    }
+    if (mh == NOT_BINDABLE)
+    {
+      return invokeReflective(target);
+    }
+
+    try
+    {
+      return mh.invokeExact(target);
+    }
+    catch (Throwable t)
+    {
+      throw ExceptionUtil.toRuntimeException("Could not invoke method '"
+          + this + "' on target object '" + target + "'", t);
+    }
+  }
+
+
+  private Object invokeReflective(Object target)
   {
     try
     {
@@ -37,6 +133,161 @@ public class MethodInvocation
   }
 
 
+  /**
+   * Invokes the recorded method and returns its result without boxing if the
+   * recorded method returns a primitive <tt>byte</tt>, <tt>short</tt>,
+   * <tt>int</tt> or <tt>long</tt>. Otherwise the result of
+   * {@link #invoke(Object)} is unboxed.
+   * 
+   * @param target the object the method is invoked on.
+   * @return the widened result of the method.
+   */
+  @Override
+  public long invokeLong(Object target)
+  {
+    MethodHandle mh = longHandle;
+    if (mh == null)
+    {
+      longHandle = mh = bindPrimitive(LONG_TARGET_TYPE);
+    }
+    if (mh == NOT_BINDABLE)
+    {
+      return ((Number) invoke(target)).longValue();
+    }
+
+    try
+    {
+      return (long) mh.invokeExact(target);
+    }
+    catch (Throwable t)
+    {
+      throw ExceptionUtil.toRuntimeException("Could not invoke method '"
+          + this + "' on target object '" + target + "'", t);
+    }
+  }
+
+
+  /**
+   * Invokes the recorded method and returns its result without boxing if the
+   * recorded method returns a primitive number. Otherwise the result of
+   * {@link #invoke(Object)} is unboxed.
+   * 
+   * @param target the object the method is invoked on.
+   * @return the widened result of the method.
+   */
+  @Override
+  public double invokeDouble(Object target)
+  {
+    MethodHandle mh = doubleHandle;
+    if (mh == null)
+    {
+      doubleHandle = mh = bindPrimitive(DOUBLE_TARGET_TYPE);
+    }
+    if (mh == NOT_BINDABLE)
+    {
+      return ((Number) invoke(target)).doubleValue();
+    }
+
+    try
+    {
+      return (double) mh.invokeExact(target);
+    }
+    catch (Throwable t)
+    {
+      throw ExceptionUtil.toRuntimeException("Could not invoke method '"
+          + this + "' on target object '" + target + "'", t);
+    }
+  }
+
+
+  /**
+   * Binds the method to a signature with a primitive return type. Results of
+   * other types (e.g. <tt>Number</tt>) would be unboxed by a cast to a
+   * specific wrapper type; so they are not bound.
+   * 
+   * @param targetType the signature of the returned handle.
+   * @return the bound method; {@link #NOT_BINDABLE} if the method can't be
+   *         bound to the signature.
+   */
+  private MethodHandle bindPrimitive(MethodType targetType)
+  {
+    if (!method.getReturnType().isPrimitive())
+    {
+      return NOT_BINDABLE;
+    }
+    return bind(targetType);
+  }
+
+
+  /**
+   * @param targetType the signature of the returned handle.
+   * @return the bound method; {@link #NOT_BINDABLE} if the method can't be
+   *         bound to the signature.
+   */
+  private MethodHandle bind(MethodType targetType)
+  {
+    try
+    {
+      MethodHandle mh = MethodHandles.publicLookup().unreflect(method)
+          .asFixedArity();
+      if (methodArgs != null && methodArgs.length > 0)
+      {
+        mh = MethodHandles.insertArguments(mh, 1, methodArgs);
+      }
+      return mh.asType(targetType);
+    }
+    catch (IllegalAccessException | ClassCastException
+        | WrongMethodTypeException e)
+    {
+      // method is not accessible via a method handle (e.g. a public method
+      // of a non-public class), the recorded arguments do not fit the
+      // parameter types or the return type can't be converted (e.g. a
+      // boolean to a long) --> fall back to reflection resp. unboxing
+      return NOT_BINDABLE;
+    }
+  }
+
+
+  /**
+   * Two invocations are equal if they call a method with the same name and
+   * parameter types with equal arguments. The declaring class is not
+   * compared; so a call recorded on an interface equals the same call
+   * recorded on an implementing class (both are dispatched to the same
+   * method of an element).
+   */
+  @Override
+  public boolean equals(Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+    if (obj == null || obj.getClass() != getClass())
+    {
+      return false;
+    }
+
+    MethodInvocation other = (MethodInvocation) obj;
+    return method.getName().equals(other.method.getName())
+        && Arrays.equals(method.getParameterTypes(), other.method
+            .getParameterTypes())
+        && Arrays.equals(getArgs(), other.getArgs());
+  }
+
+
+  @Override
+  public int hashCode()
+  {
+    return 31 * method.getName().hashCode() + Arrays.hashCode(getArgs());
+  }
+
+
+  private Object[] getArgs()
+  {
+    return (methodArgs != null) ? methodArgs : new Object[0];
+  }
+
+
   @Override
   public String toString()
   {
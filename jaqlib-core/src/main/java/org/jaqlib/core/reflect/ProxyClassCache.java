@@ -0,0 +1,96 @@
+package org.jaqlib.core.reflect;
+
+import org.jaqlib.util.Assert;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Cache for generated proxy classes resp. their constructors. The values are
+ * stored per target class and per class loader that is used for generating
+ * the proxy class. So a proxy class is generated only once and every
+ * following proxy only costs an instantiation.<br>
+ * The class loaders are referenced weakly and the values softly, because the
+ * values (proxy classes) reference their class loaders. So the cache does not
+ * prevent a class loader from being unloaded even if the target class has
+ * been loaded by a parent class loader. This class is thread-safe.
+ *
+ * @author Werner Fragner
+ *
+ * @param <V> the type of the cached values.
+ */
+class ProxyClassCache<V>
+{
+
+  private final ClassValue<Map<ClassLoader, Reference<V>>> values =
+      new ClassValue<Map<ClassLoader, Reference<V>>>()
+  {
+
+    @Override
+    protected Map<ClassLoader, Reference<V>> computeValue(Class<?> type)
+    {
+      return new WeakHashMap<>(4);
+    }
+
+  };
+
+  private final BiFunction<ClassLoader, Class<?>, V> factory;
+
+
+  /**
+   * @param factory a not null function that creates the value for a class
+   *          loader and a target class.
+   */
+  ProxyClassCache(BiFunction<ClassLoader, Class<?>, V> factory)
+  {
+    this.factory = Assert.notNull(factory);
+  }
+
+
+  /**
+   * @param classLoader the class loader of the proxy class.
+   * @param targetClass the proxied class.
+   * @return the cached value; it is created if it does not exist yet.
+   */
+  V get(ClassLoader classLoader, Class<?> targetClass)
+  {
+    final Map<ClassLoader, Reference<V>> perLoader = values.get(targetClass);
+    synchronized (perLoader)
+    {
+      V value = get(perLoader, classLoader);
+      if (value == null)
+      {
+        value = factory.apply(classLoader, targetClass);
+        perLoader.put(classLoader, new SoftReference<>(value));
+      }
+      return value;
+    }
+  }
+
+
+  private static <V> V get(Map<ClassLoader, Reference<V>> perLoader,
+      ClassLoader classLoader)
+  {
+    final Reference<V> reference = perLoader.get(classLoader);
+    return (reference != null) ? reference.get() : null;
+  }
+
+
+  /**
+   * @param classLoader the class loader of the proxy class.
+   * @param targetClass the proxied class.
+   * @return true if a value is cached for the given class loader and class.
+   */
+  boolean contains(ClassLoader classLoader, Class<?> targetClass)
+  {
+    final Map<ClassLoader, Reference<V>> perLoader = values.get(targetClass);
+    synchronized (perLoader)
+    {
+      return get(perLoader, classLoader) != null;
+    }
+  }
+
+}
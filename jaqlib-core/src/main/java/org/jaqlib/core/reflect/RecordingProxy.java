@@ -4,6 +4,12 @@ import org.jaqlib.util.Assert;
 import org.jaqlib.util.ReflectionUtil;
 
 /**
+ * Creates proxies that record all method calls. Interfaces are proxied by JDK
+ * proxies, classes by CGLib proxies. The generated proxy classes are cached
+ * per class loader and target class (see {@link #warmUp(ClassLoader, Class...)}
+ * for generating them in advance), so a new recording proxy only costs an
+ * instantiation.
+ *
  * @author Werner Fragner
  * 
  * @param <T>
@@ -34,13 +40,51 @@ public class RecordingProxy<T>
       return getCgLibProxy(targetClass);
     }
 
-    throw new IllegalArgumentException("Cannot proxy class because CGLib is "
+    throw newCgLibNotAvailableException();
+  }
+
+
+  /**
+   * Generates the proxy classes for the given classes in advance (e.g. at
+   * application startup). Following calls of {@link #getProxy(Class)} for
+   * these classes only instantiate the cached proxy classes.
+   *
+   * @param classLoader a not null class loader for the proxy classes.
+   * @param targetClasses the classes resp. interfaces that should be proxied.
+   */
+  public static void warmUp(ClassLoader classLoader, Class<?>... targetClasses)
+  {
+    Assert.notNull(classLoader);
+    for (Class<?> targetClass : targetClasses)
+    {
+      Assert.notNull(targetClass, "Cannot proxy a null class.");
+
+      if (targetClass.isInterface())
+      {
+        JdkProxy.warmUp(classLoader, targetClass);
+      }
+      else if (isCgLibAvailable())
+      {
+        assertHasDefaultConstructor(targetClass);
+        CgLibProxy.warmUp(classLoader, targetClass);
+      }
+      else
+      {
+        throw newCgLibNotAvailableException();
+      }
+    }
+  }
+
+
+  private static IllegalArgumentException newCgLibNotAvailableException()
+  {
+    return new IllegalArgumentException("Cannot proxy class because CGLib is "
         + "not on classpath. Use an interface instead or put CGLib "
         + "on the classpath.");
   }
 
 
-  private boolean isCgLibAvailable()
+  private static boolean isCgLibAvailable()
   {
     return ReflectionUtil.isCgLibAvailable();
   }
@@ -48,14 +92,17 @@ public class RecordingProxy<T>
 
   private T getCgLibProxy(Class<T> targetClass)
   {
-    assertHasDefaultConstructor(targetClass);
+    if (!CgLibProxy.isCached(classLoader, targetClass))
+    {
+      assertHasDefaultConstructor(targetClass);
+    }
 
     CgLibProxy<T> proxy = new CgLibProxy<>(classLoader, methodCallRecorder);
     return proxy.getProxy(targetClass);
   }
 
 
-  private void assertHasDefaultConstructor(Class<T> targetClass)
+  private static void assertHasDefaultConstructor(Class<?> targetClass)
   {
     try
     {
@@ -0,0 +1,373 @@
+package org.jaqlib.core.syntaxtree;
+
+import org.jaqlib.core.ElementPredicate;
+import org.jaqlib.core.TaskWhereCondition;
+import org.jaqlib.core.WhereCondition;
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Predicate that reorders the conditions of a {@link SyntaxTree} by their
+ * runtime costs and selectivities. The first elements (see sample size) are
+ * evaluated in the declared order while the evaluation time and the match
+ * rate of every condition are sampled. Afterwards the operands of every AND
+ * resp. OR group are reordered so that cheap conditions that decide the result
+ * of the group (i.e. that reject resp. accept many elements) are evaluated
+ * first. The reordered tree is compiled into a {@link CompiledSyntaxTree} that
+ * is used for all following elements.
+ * </p>
+ * <p>
+ * The conditions must be free of side effects because the number of
+ * evaluations of a single condition changes when it is reordered. If the
+ * reordered program throws an exception (e.g. because a condition relies on a
+ * preceding null check) then the element is evaluated again in the declared
+ * order.
+ * </p>
+ * This class is thread-safe.
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the element type.
+ */
+class AdaptivePredicate<T> implements ElementPredicate<T>
+{
+
+  /**
+   * Default number of elements that are evaluated in the declared order for
+   * sampling the costs and selectivities of the conditions.
+   */
+  static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+  private final CompiledSyntaxTree<T> declared;
+  private final Node<T> root;
+  private final int sampleSize;
+  private final AtomicInteger sampled = new AtomicInteger();
+  private volatile CompiledSyntaxTree<T> optimized;
+
+
+  AdaptivePredicate(SyntaxTreeNode<T> root, CompiledSyntaxTree<T> declared,
+      int sampleSize)
+  {
+    this.root = Assert.notNull(toNode(root));
+    this.declared = Assert.notNull(declared);
+    this.sampleSize = sampleSize;
+  }
+
+
+  /**
+   * @param root the root node of a syntax tree; may be null.
+   * @return true if the given tree has at least two conditions and all
+   *         conditions can be reordered (i.e. it has no tasks).
+   */
+  static boolean isReorderable(SyntaxTreeNode<?> root)
+  {
+    return CompiledSyntaxTree.compile(root).size() > 1 && !hasTask(root);
+  }
+
+
+  private static boolean hasTask(SyntaxTreeNode<?> node)
+  {
+    if (node instanceof Connector<?>)
+    {
+      Connector<?> connector = (Connector<?>) node;
+      return hasTask(connector.getLeft()) || hasTask(connector.getRight());
+    }
+    else if (node instanceof Condition<?>)
+    {
+      // tasks are executed for every element that reaches them
+      return ((Condition<?>) node).getCondition() instanceof TaskWhereCondition<?>;
+    }
+    return false;
+  }
+
+
+  public boolean matches(T element)
+  {
+    CompiledSyntaxTree<T> program = optimized;
+    if (program == null)
+    {
+      if (sampled.getAndIncrement() < sampleSize)
+      {
+        return root.evaluate(element);
+      }
+      program = optimize();
+    }
+
+    try
+    {
+      return program.matches(element);
+    }
+    catch (RuntimeException e)
+    {
+      // the declared order may be needed (e.g. a null check before a method
+      // call); the conditions are free of side effects
+      return declared.matches(element);
+    }
+  }
+
+
+  /**
+   * @return true if the conditions have already been reordered.
+   */
+  boolean isOptimized()
+  {
+    return optimized != null;
+  }
+
+
+  private synchronized CompiledSyntaxTree<T> optimize()
+  {
+    if (optimized == null)
+    {
+      optimized = CompiledSyntaxTree.compile(root.optimize().node);
+    }
+    return optimized;
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private static <T> Node<T> toNode(SyntaxTreeNode<T> node)
+  {
+    if (node instanceof Condition<?>)
+    {
+      return new Leaf<>(((Condition<T>) node).getCondition());
+    }
+    else if (node instanceof Connector<?>)
+    {
+      Connector<T> connector = (Connector<T>) node;
+      if (connector.getLeft() instanceof NullSyntraxTreeNode<?>)
+      {
+        return toNode(connector.getRight());
+      }
+
+      // operands of nested connectors of the same type are merged
+      Group<T> group = new Group<>(connector instanceof And<?>);
+      group.addOperand(toNode(connector.getLeft()));
+      group.addOperand(toNode(connector.getRight()));
+      return group;
+    }
+    return null;
+  }
+
+
+  /**
+   * A reordered node and its estimated cost and match rate.
+   */
+  private static class Plan<T>
+  {
+
+    private final SyntaxTreeNode<T> node;
+    private final double cost;
+    private final double matchRate;
+    private final boolean sampled;
+
+
+    Plan(SyntaxTreeNode<T> node, double cost, double matchRate, boolean sampled)
+    {
+      this.node = node;
+      this.cost = cost;
+      this.matchRate = matchRate;
+      this.sampled = sampled;
+    }
+
+
+    /**
+     * @param and true if the node is an operand of an AND group.
+     * @return the expected costs per decided element of the group. Operands
+     *         with a lower rank are evaluated first.
+     */
+    double getRank(boolean and)
+    {
+      final double decisionRate = and ? 1 - matchRate : matchRate;
+      if (!sampled || decisionRate <= 0)
+      {
+        return Double.POSITIVE_INFINITY;
+      }
+      return cost / decisionRate;
+    }
+
+  }
+
+
+  /**
+   * The samples are recorded with {@link LongAdder}s so that threads
+   * evaluating elements in parallel do not block each other.
+   */
+  private abstract static class Node<T>
+  {
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+
+
+    abstract boolean evaluate(T element);
+
+
+    abstract Plan<T> optimize();
+
+
+    void record(boolean match)
+    {
+      evaluations.increment();
+      if (match)
+      {
+        matches.increment();
+      }
+    }
+
+
+    long getEvaluations()
+    {
+      return evaluations.sum();
+    }
+
+
+    boolean isSampled()
+    {
+      return getEvaluations() > 0;
+    }
+
+
+    double getMatchRate()
+    {
+      final long count = getEvaluations();
+      return (count > 0) ? (double) matches.sum() / count : 1;
+    }
+
+  }
+
+
+  private static class Leaf<T> extends Node<T>
+  {
+
+    private final WhereCondition<? super T> condition;
+    private final LongAdder nanos = new LongAdder();
+
+
+    Leaf(WhereCondition<? super T> condition)
+    {
+      this.condition = condition;
+    }
+
+
+    @Override
+    boolean evaluate(T element)
+    {
+      final long start = System.nanoTime();
+      final boolean match = condition.evaluate(element);
+      record(match, System.nanoTime() - start);
+      return match;
+    }
+
+
+    private void record(boolean match, long elapsed)
+    {
+      nanos.add(elapsed);
+      record(match);
+    }
+
+
+    private double getCost()
+    {
+      final long count = getEvaluations();
+      return (count > 0) ? (double) nanos.sum() / count : 0;
+    }
+
+
+    @Override
+    Plan<T> optimize()
+    {
+      return new Plan<>(new Condition<>(condition), getCost(), getMatchRate(),
+          isSampled());
+    }
+
+  }
+
+
+  private static class Group<T> extends Node<T>
+  {
+
+    private final boolean and;
+    private final List<Node<T>> operands = new ArrayList<>();
+
+
+    Group(boolean and)
+    {
+      this.and = and;
+    }
+
+
+    void addOperand(Node<T> operand)
+    {
+      if (operand instanceof Group<?> && ((Group<T>) operand).and == and)
+      {
+        // AND resp. OR is associative
+        operands.addAll(((Group<T>) operand).operands);
+      }
+      else if (operand != null)
+      {
+        operands.add(operand);
+      }
+    }
+
+
+    @Override
+    boolean evaluate(T element)
+    {
+      // declared order with short-circuit evaluation
+      boolean match = and;
+      for (Node<T> operand : operands)
+      {
+        if (operand.evaluate(element) != and)
+        {
+          match = !and;
+          break;
+        }
+      }
+      record(match);
+      return match;
+    }
+
+
+    @Override
+    Plan<T> optimize()
+    {
+      List<Plan<T>> plans = new ArrayList<>();
+      for (Node<T> operand : operands)
+      {
+        plans.add(operand.optimize());
+      }
+      // the sort is stable: operands without samples keep their order
+      Collections.sort(plans, Comparator.comparingDouble(plan -> plan
+          .getRank(and)));
+
+      // expected costs if the operands are independent
+      double cost = 0;
+      double reachRate = 1;
+      for (Plan<T> plan : plans)
+      {
+        cost += reachRate * plan.cost;
+        reachRate *= and ? plan.matchRate : 1 - plan.matchRate;
+      }
+
+      SyntaxTreeNode<T> node = plans.get(plans.size() - 1).node;
+      for (int i = plans.size() - 2; i >= 0; i--)
+      {
+        Connector<T> connector = and ? new And<T>() : new Or<T>();
+        connector.setLeft(plans.get(i).node);
+        connector.setRight(node);
+        node = connector;
+      }
+      return new Plan<>(node, cost, getMatchRate(), isSampled());
+    }
+
+  }
+
+}
@@ -0,0 +1,274 @@
+package org.jaqlib.core.syntaxtree;
+
+import org.jaqlib.core.BindableWhereCondition;
+import org.jaqlib.core.ElementPredicate;
+import org.jaqlib.core.WhereCondition;
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat representation of a {@link SyntaxTree}. The conditions of the tree are
+ * stored in an array of slots. Each slot holds the index of the slot that has
+ * to be evaluated next if its condition matches resp. does not match. So an
+ * element is evaluated by a simple loop instead of recursively visiting the
+ * {@link Connector} nodes of the tree. AND and OR connectors are translated to
+ * short-circuit jumps.
+ *
+ * @author Werner Fragner
+ *
+ * @param <T>
+ */
+public class CompiledSyntaxTree<T> implements ElementPredicate<T>
+{
+
+  // placeholder targets that are resolved after all slots have been emitted
+  private static final int ACCEPT = Integer.MAX_VALUE;
+  private static final int REJECT = -1;
+
+  private final WhereCondition<? super T>[] conditions;
+  private final int[] onTrue;
+  private final int[] onFalse;
+
+  /**
+   * Jump target for 'element matches'. This is the first index after the last
+   * slot.
+   */
+  private final int accept;
+
+
+  private CompiledSyntaxTree(WhereCondition<? super T>[] conditions,
+      int[] onTrue, int[] onFalse)
+  {
+    this.conditions = conditions;
+    this.onTrue = onTrue;
+    this.onFalse = onFalse;
+    this.accept = conditions.length;
+  }
+
+
+  private CompiledSyntaxTree(List<Slot<T>> slots)
+  {
+    final int size = slots.size();
+    this.conditions = newConditions(size);
+    this.onTrue = new int[size];
+    this.onFalse = new int[size];
+    this.accept = size;
+
+    for (int i = 0; i < size; i++)
+    {
+      Slot<T> slot = slots.get(i);
+      conditions[i] = slot.condition;
+      onTrue[i] = slot.onTrue;
+      onFalse[i] = slot.onFalse;
+    }
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private static <T> WhereCondition<? super T>[] newConditions(int size)
+  {
+    return (WhereCondition<? super T>[]) new WhereCondition<?>[size];
+  }
+
+
+  public boolean matches(T element)
+  {
+    int pc = 0;
+    while (pc >= 0 && pc < accept)
+    {
+      pc = conditions[pc].evaluate(element) ? onTrue[pc] : onFalse[pc];
+    }
+    return pc == accept;
+  }
+
+
+  /**
+   * @return the number of condition slots of this program.
+   */
+  public int size()
+  {
+    return conditions.length;
+  }
+
+
+  /**
+   * @return the conditions of all slots in the order of evaluation.
+   */
+  public List<WhereCondition<? super T>> getConditions()
+  {
+    return Collections.unmodifiableList(Arrays.asList(conditions));
+  }
+
+
+  /**
+   * Binds the query parameters of the conditions of this program (see
+   * {@link BindableWhereCondition}). The jumps of this program are shared
+   * with the returned program; only the conditions are copied.
+   * 
+   * @param values the values of the query parameters by their names.
+   * @return a new program with the bound conditions.
+   */
+  @SuppressWarnings("unchecked")
+  public CompiledSyntaxTree<T> bind(Map<String, ?> values)
+  {
+    final WhereCondition<? super T>[] bound = conditions.clone();
+    for (int i = 0; i < bound.length; i++)
+    {
+      if (bound[i] instanceof BindableWhereCondition<?>)
+      {
+        bound[i] = ((BindableWhereCondition<T>) bound[i]).bind(values);
+      }
+    }
+    return new CompiledSyntaxTree<>(bound, onTrue, onFalse);
+  }
+
+
+  /**
+   * Returns the conditions that every matching element must fulfill. These
+   * are the leading conditions of the program that are connected by AND
+   * (i.e. if one of them does not match then the element is rejected). Data
+   * sources can use these conditions for preselecting the elements (e.g. by
+   * an index); the program must nevertheless be evaluated on the preselected
+   * elements.
+   *
+   * @return the required conditions; an empty list if there are none.
+   */
+  public List<WhereCondition<? super T>> getRequiredConditions()
+  {
+    List<WhereCondition<? super T>> required = new ArrayList<>();
+    // every slot of the leading AND chain is evaluated for every element
+    int pc = 0;
+    while (pc < accept && onFalse[pc] == REJECT)
+    {
+      required.add(conditions[pc]);
+      if (onTrue[pc] != pc + 1)
+      {
+        break;
+      }
+      pc++;
+    }
+    return required;
+  }
+
+
+  /**
+   * Compiles the given tree. A null node results in a program that matches
+   * every element.
+   *
+   * @param <T> the element type.
+   * @param root the root node of the tree; may be null.
+   * @return the compiled tree.
+   */
+  static <T> CompiledSyntaxTree<T> compile(SyntaxTreeNode<T> root)
+  {
+    List<Slot<T>> slots = new ArrayList<>();
+    if (root != null)
+    {
+      emit(root, ACCEPT, REJECT, slots);
+      resolveTargets(slots);
+    }
+    return new CompiledSyntaxTree<>(slots);
+  }
+
+
+  private static <T> void emit(SyntaxTreeNode<T> node, int trueTarget,
+      int falseTarget, List<Slot<T>> slots)
+  {
+    if (node instanceof Condition<?>)
+    {
+      Condition<T> condition = (Condition<T>) node;
+      slots.add(new Slot<>(condition.getCondition(), trueTarget, falseTarget));
+    }
+    else if (node instanceof Connector<?>)
+    {
+      Connector<T> connector = (Connector<T>) node;
+      SyntaxTreeNode<T> left = connector.getLeft();
+      SyntaxTreeNode<T> right = connector.getRight();
+
+      if (left instanceof NullSyntraxTreeNode<?>)
+      {
+        // null nodes always match; only the right node has to be evaluated
+        emit(right, trueTarget, falseTarget, slots);
+        return;
+      }
+
+      final int rightStart = slots.size() + countConditions(left);
+      if (connector instanceof And<?>)
+      {
+        emit(left, rightStart, falseTarget, slots);
+      }
+      else if (connector instanceof Or<?>)
+      {
+        emit(left, trueTarget, rightStart, slots);
+      }
+      else
+      {
+        throw handleUnsupportedNode(connector);
+      }
+      emit(right, trueTarget, falseTarget, slots);
+    }
+    else if (!(node instanceof NullSyntraxTreeNode<?>))
+    {
+      throw handleUnsupportedNode(node);
+    }
+  }
+
+
+  private static int countConditions(SyntaxTreeNode<?> node)
+  {
+    if (node instanceof Connector<?>)
+    {
+      Connector<?> connector = (Connector<?>) node;
+      return countConditions(connector.getLeft())
+          + countConditions(connector.getRight());
+    }
+    else if (node instanceof Condition<?>)
+    {
+      return 1;
+    }
+    return 0;
+  }
+
+
+  private static <T> void resolveTargets(List<Slot<T>> slots)
+  {
+    final int accept = slots.size();
+    for (Slot<T> slot : slots)
+    {
+      slot.onTrue = (slot.onTrue == ACCEPT) ? accept : slot.onTrue;
+      slot.onFalse = (slot.onFalse == ACCEPT) ? accept : slot.onFalse;
+    }
+  }
+
+
+  private static IllegalStateException handleUnsupportedNode(
+      SyntaxTreeNode<?> node)
+  {
+    return new IllegalStateException("Cannot compile syntax tree node '"
+        + node.getClass().getName() + "'.");
+  }
+
+
+  private static class Slot<T>
+  {
+
+    private final WhereCondition<? super T> condition;
+    private int onTrue;
+    private int onFalse;
+
+
+    Slot(WhereCondition<? super T> condition, int onTrue, int onFalse)
+    {
+      this.condition = Assert.notNull(condition);
+      this.onTrue = onTrue;
+      this.onFalse = onFalse;
+    }
+
+  }
+
+}
@@ -28,6 +28,12 @@ public class Condition<T> implements SyntaxTreeNode<T>
   }
 
 
+  public WhereCondition<? super T> getCondition()
+  {
+    return condition;
+  }
+
+
   public void appendLogString(StringBuilder sb)
   {
     if (condition instanceof LoggableQueryItem)
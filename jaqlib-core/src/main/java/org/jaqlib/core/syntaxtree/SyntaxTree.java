@@ -1,5 +1,6 @@
 package org.jaqlib.core.syntaxtree;
 
+import org.jaqlib.core.Defaults;
 import org.jaqlib.core.ElementPredicate;
 import org.jaqlib.util.Assert;
 
@@ -18,17 +19,73 @@ public class SyntaxTree<T> implements ElementPredicate<T>
 
   private Root<T> root;
   private Connector<T> current;
+  private CompiledSyntaxTree<T> program;
+  private ElementPredicate<T> predicate;
+  private int sampleSize = AdaptivePredicate.DEFAULT_SAMPLE_SIZE;
 
 
   public boolean matches(T element)
   {
-    if (root != null)
+    return getPredicate().matches(element);
+  }
+
+
+  /**
+   * Returns the predicate for evaluating the elements of a data source. If
+   * adaptive condition ordering is enabled (see
+   * {@link Defaults#setAdaptiveConditionOrder(boolean)}) and the tree has no
+   * tasks then the conditions of the AND and OR groups are reordered by their
+   * costs and selectivities that are sampled during the evaluation of the
+   * first elements. Otherwise the compiled tree (see {@link #compile()}) is
+   * returned. The predicate is cached until a new condition is added to this
+   * tree.
+   * 
+   * @return the predicate of this tree.
+   */
+  public ElementPredicate<T> getPredicate()
+  {
+    if (predicate == null)
+    {
+      if (Defaults.getAdaptiveConditionOrder()
+          && AdaptivePredicate.isReorderable(root))
+      {
+        predicate = new AdaptivePredicate<>(root, compile(), sampleSize);
+      }
+      else
+      {
+        predicate = compile();
+      }
+    }
+    return predicate;
+  }
+
+
+  /**
+   * @param sampleSize the number of elements that are evaluated for sampling
+   *          the costs and selectivities of the conditions before they are
+   *          reordered.
+   */
+  void setSampleSize(int sampleSize)
+  {
+    this.sampleSize = sampleSize;
+    this.predicate = null;
+  }
+
+
+  /**
+   * Compiles this tree into a flat {@link CompiledSyntaxTree}. The compiled
+   * program is cached until a new condition is added to this tree. A tree
+   * without conditions is compiled to a program that matches every element.
+   * 
+   * @return the compiled form of this tree.
+   */
+  public CompiledSyntaxTree<T> compile()
+  {
+    if (program == null)
     {
-      return root.visit(element);
+      program = CompiledSyntaxTree.compile(root);
     }
-    // no root present, so no conditions should be evaluated
-    // --> return true
-    return true;
+    return program;
   }
 
 
@@ -61,6 +118,8 @@ public class SyntaxTree<T> implements ElementPredicate<T>
 
   private void addConnector(Connector<T> connector, Condition<T> condition)
   {
+    program = null;
+    predicate = null;
     if (hasRoot())
     {
       addConnector(connector).setRight(condition);
@@ -0,0 +1,65 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AggregationSinkTest
+{
+
+  private AggregationSink<String> createSink(String methodName)
+      throws Exception
+  {
+    return new AggregationSink<>(new MethodInvocation(String.class
+        .getMethod(methodName), null));
+  }
+
+
+  @Test
+  public void testGetResult_PrimitiveInt() throws Exception
+  {
+    AggregationSink<String> sink = createSink("length");
+    sink.add("abc");
+    sink.add(null);
+    sink.add("a");
+
+    AggregationSink<String> other = sink.newSink();
+    other.add("abcde");
+    sink.combine(other);
+
+    AggregateResult<Integer> result = sink.getResult();
+    assertEquals(3, result.getCount());
+    assertEquals(9L, result.getSum());
+    // min and max keep the return type of the method
+    assertEquals(Integer.valueOf(1), result.getMin());
+    assertEquals(Integer.valueOf(5), result.getMax());
+  }
+
+
+  @Test
+  public void testGetResult_Empty() throws Exception
+  {
+    AggregateResult<Integer> result = createSink("length").getResult();
+    assertEquals(0, result.getCount());
+    assertNull(result.getMin());
+    assertNull(result.getMax());
+    assertNull(result.getAverage());
+  }
+
+
+  @Test
+  public void testGetResult_NotNumeric() throws Exception
+  {
+    AggregationSink<String> sink = createSink("trim");
+    sink.add(" b ");
+    sink.add("a");
+
+    AggregateResult<String> result = sink.getResult();
+    assertEquals(2, result.getCount());
+    assertNull(result.getSum());
+    assertEquals("a", result.getMin());
+    assertEquals("b", result.getMax());
+  }
+
+}
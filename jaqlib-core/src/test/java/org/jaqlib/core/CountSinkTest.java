@@ -0,0 +1,33 @@
+package org.jaqlib.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountSinkTest
+{
+
+  @Test
+  public void testGetCount()
+  {
+    CountSink<String> sink = new CountSink<>();
+    sink.add("a");
+    sink.add(null);
+    sink.addCount(3);
+    assertEquals(5, sink.getCount());
+  }
+
+
+  @Test
+  public void testGetCount_Saturated()
+  {
+    CountSink<String> sink = new CountSink<>();
+    sink.addCount(Integer.MAX_VALUE);
+    sink.add("a");
+    assertEquals(Integer.MAX_VALUE, sink.getCount());
+
+    sink.addCount(1L << 32);
+    assertEquals(Integer.MAX_VALUE, sink.getCount());
+  }
+
+}
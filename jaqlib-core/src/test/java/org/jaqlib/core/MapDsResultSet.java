@@ -0,0 +1,41 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.bean.FieldMapping;
+
+import java.util.Map;
+
+/**
+ * Result set with a single row whose values are taken from a map by the
+ * source names of the field mappings.
+ */
+public class MapDsResultSet implements DsResultSet
+{
+
+  private final Map<String, Object> row;
+
+
+  public MapDsResultSet(Map<String, Object> row)
+  {
+    this.row = row;
+  }
+
+
+  public boolean next()
+  {
+    return true;
+  }
+
+
+  public Object getObject(FieldMapping<?> mapping)
+  {
+    String name = mapping.getSourceName();
+    return row.containsKey(name) ? row.get(name) : NO_RESULT;
+  }
+
+
+  public Object getAnynomousObject(FieldMapping<?> mapping)
+  {
+    return getObject(mapping);
+  }
+
+}
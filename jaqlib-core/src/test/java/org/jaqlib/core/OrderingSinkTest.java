@@ -0,0 +1,124 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderingSinkTest
+{
+
+  private ResultOrder createOrder() throws Exception
+  {
+    return ResultOrder.NONE.thenBy(new MethodInvocation(Integer.class
+        .getMethod("intValue"), null));
+  }
+
+
+  private List<Integer> createRandomElements(int count)
+  {
+    Random random = new Random(4711);
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < count; i++)
+    {
+      elements.add(random.nextInt(100));
+    }
+    return elements;
+  }
+
+
+  @Test
+  public void testFullSort() throws Exception
+  {
+    List<Integer> elements = createRandomElements(1000);
+    OrderingSink<Integer> sink = new OrderingSink<>(createOrder(),
+        ResultLimit.NONE);
+    sink.addAll(elements);
+
+    Collections.sort(elements);
+    assertEquals(elements, sink.getResult());
+  }
+
+
+  @Test
+  public void testHugeLimit() throws Exception
+  {
+    ResultLimit limit = new ResultLimit(1, Integer.MAX_VALUE);
+    // offset + max results must not overflow
+    assertEquals(Integer.MAX_VALUE, limit.getMaxMatches());
+    assertFalse(limit.isReached(1));
+    assertTrue(limit.contains(1));
+    assertFalse(limit.contains(0));
+
+    List<Integer> elements = createRandomElements(100);
+    OrderingSink<Integer> sink = new OrderingSink<>(createOrder(), limit);
+    sink.addAll(elements);
+
+    Collections.sort(elements);
+    assertEquals(elements.subList(1, 100), sink.getResult());
+  }
+
+
+  @Test
+  public void testTopK() throws Exception
+  {
+    List<Integer> elements = createRandomElements(1000);
+    OrderingSink<Integer> sink = new OrderingSink<>(createOrder()
+        .withDescending(true), new ResultLimit(5, 10));
+    sink.addAll(elements);
+
+    // only offset + max results elements are kept
+    assertEquals(15, sink.size());
+
+    elements.sort(Collections.reverseOrder());
+    assertEquals(elements.subList(5, 15), sink.getResult());
+  }
+
+
+  @Test
+  public void testNullsLast() throws Exception
+  {
+    OrderingSink<Integer> sink = new OrderingSink<>(createOrder(),
+        ResultLimit.NONE);
+    sink.addAll(Arrays.asList(3, null, 1, 2));
+    assertEquals(Arrays.asList(1, 2, 3, null), sink.getResult());
+
+    sink = new OrderingSink<>(createOrder().withDescending(true),
+        ResultLimit.NONE);
+    sink.addAll(Arrays.asList(3, null, 1, 2));
+    assertEquals(Arrays.asList(null, 3, 2, 1), sink.getResult());
+  }
+
+
+  @Test
+  public void testStable() throws Exception
+  {
+    String a = new String("a");
+    String b = new String("b");
+    String c = new String("c");
+    ResultOrder order = ResultOrder.NONE.thenBy(new MethodInvocation(
+        String.class.getMethod("length"), null));
+    OrderingSink<String> sink = new OrderingSink<>(order,
+        new ResultLimit(0, 2));
+    sink.addAll(Arrays.asList(a, b, c));
+
+    List<String> result = sink.getResult();
+    assertSame(a, result.get(0));
+    assertSame(b, result.get(1));
+  }
+
+
+  @Test
+  public void testDescendingWithoutKey()
+  {
+    assertThrows(IllegalStateException.class, () -> ResultOrder.NONE
+        .withDescending(true));
+  }
+
+}
@@ -0,0 +1,178 @@
+package org.jaqlib.core;
+
+import org.jaqlib.core.reflect.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveComparisonTest
+{
+
+  private static final Numbers NUMBERS = new Numbers(5, 5L, 2.5, 1.5f, 3,
+      null);
+
+
+  private static MethodInvocation invocation(String methodName)
+      throws Exception
+  {
+    return new MethodInvocation(Numbers.class.getMethod(methodName), null);
+  }
+
+
+  @Test
+  public void testCreate() throws Exception
+  {
+    assertNotNull(PrimitiveComparison.create(invocation("getInt"), 1));
+    assertNotNull(PrimitiveComparison.create(invocation("getLong"), 1L));
+    assertNotNull(PrimitiveComparison.create(invocation("getDouble"), 1.0));
+    assertNotNull(PrimitiveComparison.create(invocation("getFloat"), 1.0f));
+    assertNotNull(PrimitiveComparison.create(invocation("getInteger"), 1));
+    assertNotNull(PrimitiveComparison.create(invocation("getWrappedDouble"),
+        1.0));
+
+    // the expected value must be of the return type
+    assertNull(PrimitiveComparison.create(invocation("getInt"), 1L));
+    assertNull(PrimitiveComparison.create(invocation("getDouble"), 1));
+    assertNull(PrimitiveComparison.create(invocation("getInteger"), "1"));
+    assertNull(PrimitiveComparison.create(invocation("getInt"), null));
+    assertNull(PrimitiveComparison.create(invocation("toString"), "1"));
+    assertNull(PrimitiveComparison.create(null, 1));
+  }
+
+
+  @Test
+  public void testCompare() throws Exception
+  {
+    assertEquals(0, PrimitiveComparison.create(invocation("getInt"), 5)
+        .compare(NUMBERS));
+    assertTrue(PrimitiveComparison.create(invocation("getLong"), 7L).compare(
+        NUMBERS) < 0);
+    assertTrue(PrimitiveComparison.create(invocation("getDouble"), 2.0)
+        .compare(NUMBERS) > 0);
+    assertEquals(0, PrimitiveComparison.create(invocation("getFloat"), 1.5f)
+        .compare(NUMBERS));
+    assertTrue(PrimitiveComparison.create(invocation("getInteger"), 2)
+        .compare(NUMBERS) > 0);
+  }
+
+
+  @Test
+  public void testCompare_Null() throws Exception
+  {
+    assertEquals(PrimitiveComparison.NULL, PrimitiveComparison.create(
+        invocation("getInt"), 5).compare(null));
+    assertEquals(PrimitiveComparison.NULL, PrimitiveComparison.create(
+        invocation("getWrappedDouble"), 1.0).compare(NUMBERS));
+  }
+
+
+  @Test
+  public void testCompare_SameResultsAsCompareTo() throws Exception
+  {
+    final double[] values = { Double.NaN, Double.NEGATIVE_INFINITY, -1.0,
+        -0.0, 0.0, 1.0, Double.MAX_VALUE };
+    for (double actual : values)
+    {
+      Numbers numbers = new Numbers(0, 0L, actual, 0f, 0, actual);
+      for (double expected : values)
+      {
+        final int compareTo = Double.valueOf(actual).compareTo(expected);
+        assertEquals(Integer.signum(compareTo), Integer
+            .signum(PrimitiveComparison.create(invocation("getDouble"),
+                expected).compare(numbers)));
+        assertEquals(Integer.signum(compareTo), Integer
+            .signum(PrimitiveComparison.create(invocation("getWrappedDouble"),
+                expected).compare(numbers)));
+      }
+    }
+  }
+
+
+  @Test
+  public void testComparisons() throws Exception
+  {
+    final MethodInvocation getInt = invocation("getInt");
+    assertTrue(new IsEqual<Numbers, Integer>(getInt, 5).evaluate(NUMBERS));
+    assertFalse(new IsNotEqual<Numbers, Integer>(getInt, 5).evaluate(NUMBERS));
+    assertTrue(new IsGreaterThan<Numbers, Integer>(getInt, 4)
+        .evaluate(NUMBERS));
+    assertTrue(new IsGreaterThanOrEqualTo<Numbers, Integer>(getInt, 5)
+        .evaluate(NUMBERS));
+    assertFalse(new IsSmallerThan<Numbers, Integer>(getInt, 5)
+        .evaluate(NUMBERS));
+    assertTrue(new IsSmallerThanOrEqualTo<Numbers, Integer>(getInt, 5)
+        .evaluate(NUMBERS));
+
+    // null results
+    final MethodInvocation getWrappedDouble = invocation("getWrappedDouble");
+    assertFalse(new IsEqual<Numbers, Double>(getWrappedDouble, 1.0)
+        .evaluate(NUMBERS));
+    assertTrue(new IsNotEqual<Numbers, Double>(getWrappedDouble, 1.0)
+        .evaluate(NUMBERS));
+    assertFalse(new IsGreaterThan<Numbers, Double>(getWrappedDouble, 1.0)
+        .evaluate(NUMBERS));
+    assertFalse(new IsSmallerThan<Numbers, Integer>(getInt, 5).evaluate(null));
+  }
+
+
+  public static class Numbers
+  {
+
+    private final int intValue;
+    private final long longValue;
+    private final double doubleValue;
+    private final float floatValue;
+    private final Integer integer;
+    private final Double wrappedDouble;
+
+
+    public Numbers(int intValue, long longValue, double doubleValue,
+        float floatValue, Integer integer, Double wrappedDouble)
+    {
+      this.intValue = intValue;
+      this.longValue = longValue;
+      this.doubleValue = doubleValue;
+      this.floatValue = floatValue;
+      this.integer = integer;
+      this.wrappedDouble = wrappedDouble;
+    }
+
+
+    public int getInt()
+    {
+      return intValue;
+    }
+
+
+    public long getLong()
+    {
+      return longValue;
+    }
+
+
+    public double getDouble()
+    {
+      return doubleValue;
+    }
+
+
+    public float getFloat()
+    {
+      return floatValue;
+    }
+
+
+    public Integer getInteger()
+    {
+      return integer;
+    }
+
+
+    public Double getWrappedDouble()
+    {
+      return wrappedDouble;
+    }
+
+  }
+
+}
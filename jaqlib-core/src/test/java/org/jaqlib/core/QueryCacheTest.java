@@ -52,6 +52,28 @@ public class QueryCacheTest
     assertTrue(cache.isFilled());
   }
 
+  @Test
+  public void testIsFilled_SharedCache()
+  {
+    SharedQueryCache sharedCache = new SharedQueryCache();
+
+    QueryCache<Account> cache1 = new QueryCache<>(predicate, sharedCache,
+        () -> "key");
+    assertFalse(cache1.isFilled());
+    cache1.add(new AccountImpl());
+    cache1.setFilled();
+    assertEquals(1, sharedCache.size());
+
+    QueryCache<Account> cache2 = new QueryCache<>(predicate, sharedCache,
+        () -> "key");
+    assertTrue(cache2.isFilled());
+
+    // no key --> the shared cache is not used
+    QueryCache<Account> cache3 = new QueryCache<>(predicate, sharedCache,
+        () -> null);
+    assertFalse(cache3.isFilled());
+  }
+
   @Test
   public void testAddResults_Collection()
   {
@@ -0,0 +1,159 @@
+package org.jaqlib.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedQueryCacheTest
+{
+
+  private long now;
+  private SharedQueryCache cache;
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    now = 0;
+    cache = new SharedQueryCache()
+    {
+
+      @Override
+      protected long currentTimeMillis()
+      {
+        return now;
+      }
+
+    };
+  }
+
+
+  @Test
+  public void testGet()
+  {
+    assertNull(cache.get("key"));
+
+    List<String> elements = Arrays.asList("a", "b");
+    cache.put("key", elements);
+    assertEquals(elements, cache.get("key"));
+
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRate(), 0.0001);
+  }
+
+
+  @Test
+  public void testGet_Unmodifiable()
+  {
+    cache.put("key", Arrays.asList("a", "b"));
+    List<String> elements = cache.get("key");
+    try
+    {
+      elements.set(0, "c");
+      fail("Did not throw UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+  }
+
+
+  @Test
+  public void testMaxEntries()
+  {
+    cache.setMaxEntries(2);
+    cache.put("key1", Arrays.asList("a"));
+    cache.put("key2", Arrays.asList("b"));
+
+    // key1 is now the most recently used entry
+    assertNotNull(cache.get("key1"));
+    cache.put("key3", Arrays.asList("c"));
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("key2"));
+    assertNotNull(cache.get("key1"));
+    assertNotNull(cache.get("key3"));
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+
+  @Test
+  public void testMaxEntries_Invalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> cache.setMaxEntries(0));
+  }
+
+
+  @Test
+  public void testMaxBytes()
+  {
+    cache.setElementSizeEstimator(element -> 10);
+    cache.setMaxBytes(50);
+
+    cache.put("key1", Arrays.asList("a", "b"));
+    cache.put("key2", Arrays.asList("c", "d"));
+    assertEquals(40, cache.getEstimatedBytes());
+
+    cache.put("key3", Arrays.asList("e", "f"));
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(40, cache.getEstimatedBytes());
+    assertNull(cache.get("key1"));
+  }
+
+
+  @Test
+  public void testMaxBytes_LargeEntryIsNotCached()
+  {
+    cache.setElementSizeEstimator(element -> 10);
+    cache.setMaxBytes(15);
+
+    cache.put("key1", Arrays.asList("a"));
+    cache.put("key2", Arrays.asList("a", "b"));
+    // the entry does not fit into the cache --> the other entries are kept
+    assertEquals(1, cache.size());
+    assertNull(cache.get("key2"));
+    assertNotNull(cache.get("key1"));
+    assertEquals(10, cache.getEstimatedBytes());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+
+  @Test
+  public void testTimeToLive()
+  {
+    cache.setTimeToLive(1000);
+    cache.put("key", Arrays.asList("a"));
+
+    now = 1000;
+    assertNotNull(cache.get("key"));
+
+    now = 1001;
+    assertNull(cache.get("key"));
+    assertEquals(1, cache.getExpirationCount());
+    assertEquals(0, cache.size());
+  }
+
+
+  @Test
+  public void testInvalidate()
+  {
+    cache.setElementSizeEstimator(element -> 10);
+    cache.put("key1", Arrays.asList("a"));
+    cache.put("key2", Arrays.asList("b"));
+
+    cache.invalidate("key1");
+    assertNull(cache.get("key1"));
+    assertEquals(10, cache.getEstimatedBytes());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getEstimatedBytes());
+  }
+
+}
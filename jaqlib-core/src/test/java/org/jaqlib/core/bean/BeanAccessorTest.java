@@ -0,0 +1,212 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.AccountImpl;
+import org.jaqlib.Department;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BeanAccessorTest
+{
+
+  @Test
+  public void testForClass()
+  {
+    BeanAccessor accessor = BeanAccessor.forClass(AccountImpl.class);
+    assertSame(accessor, BeanAccessor.forClass(AccountImpl.class));
+    assertSame(AccountImpl.class, accessor.getBeanClass());
+    assertNotSame(accessor, BeanAccessor.forClass(Bean.class));
+
+    try
+    {
+      BeanAccessor.forClass(null);
+      fail("Did not throw IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+    }
+  }
+
+
+  @Test
+  public void testSetValue_Setter()
+  {
+    AccountImpl account = new AccountImpl();
+    BeanAccessor accessor = BeanAccessor.forClass(AccountImpl.class);
+
+    accessor.setValue(account, "lastName", "huber");
+    accessor.setValue(account, "balance", 10.0);
+    assertEquals("huber", account.getLastName());
+    assertEquals(10.0, account.getBalance(), 0);
+    // the setter has been called
+    assertTrue(account.hasChanged());
+
+    accessor.setValue(account, "lastName", null);
+    assertNull(account.getLastName());
+  }
+
+
+  @Test
+  public void testSetValue_Field()
+  {
+    // no getter for the department property --> field is set directly
+    AccountImpl account = new AccountImpl();
+    Department department = new Department("linz");
+    BeanAccessor.forClass(AccountImpl.class).setValue(account, "department",
+        department);
+    assertSame(department, account.getDepartmentObj());
+    assertFalse(account.hasChanged());
+  }
+
+
+  @Test
+  public void testSetValue_Primitive()
+  {
+    Bean bean = new Bean();
+    BeanAccessor accessor = BeanAccessor.forClass(Bean.class);
+
+    // widening conversions
+    accessor.setValue(bean, "count", 5);
+    assertEquals(5L, bean.getCount());
+    accessor.setValue(bean, "count", (short) 6);
+    assertEquals(6L, bean.getCount());
+    accessor.setValue(bean, "value", 7);
+    assertEquals(7, bean.value);
+
+    // conversion by SaveConversions
+    accessor.setValue(bean, "total", 8);
+    assertEquals(Long.valueOf(8), bean.total);
+
+    try
+    {
+      // no conversion available
+      accessor.setValue(bean, "value", 9L);
+      fail("Did not throw RuntimeException");
+    }
+    catch (RuntimeException e)
+    {
+    }
+    try
+    {
+      accessor.setValue(bean, "value", null);
+      fail("Did not throw RuntimeException");
+    }
+    catch (RuntimeException e)
+    {
+    }
+  }
+
+
+  @Test
+  public void testSetValue_SetterFails()
+  {
+    Bean bean = new Bean();
+    BeanAccessor accessor = BeanAccessor.forClass(Bean.class);
+
+    // the setter rejects the value --> the field is set directly
+    accessor.setValue(bean, "name", "invalid");
+    assertEquals("invalid", bean.name);
+
+    // errors are not swallowed
+    assertThrows(InternalError.class, () -> accessor.setValue(bean, "name",
+        "error"));
+  }
+
+
+  @Test
+  public void testSetValue_NonExistingProperty()
+  {
+    try
+    {
+      BeanAccessor.forClass(Bean.class).setValue(new Bean(), "nonExisting",
+          "value");
+      fail("Did not throw RuntimeException");
+    }
+    catch (RuntimeException e)
+    {
+    }
+  }
+
+
+  @Test
+  public void testGetFieldValue()
+  {
+    Bean bean = new Bean();
+    bean.setCount(3);
+    bean.value = 4;
+
+    BeanAccessor accessor = BeanAccessor.forClass(Bean.class);
+    assertEquals(3L, accessor.getFieldValue(bean, "count"));
+    assertEquals(4, accessor.getFieldValue(bean, "value"));
+
+    AccountImpl account = new AccountImpl();
+    account.setLastName("maier");
+    assertEquals("maier", BeanAccessor.forClass(AccountImpl.class)
+        .getFieldValue(account, "lastName"));
+  }
+
+
+  @Test
+  public void testGetFieldType()
+  {
+    BeanAccessor accessor = BeanAccessor.forClass(Bean.class);
+    assertEquals(long.class, accessor.getFieldType("count"));
+    assertEquals(int.class, accessor.getFieldType("value"));
+    assertEquals(Department.class, BeanAccessor.forClass(AccountImpl.class)
+        .getFieldType("department"));
+
+    try
+    {
+      accessor.getFieldType("nonExisting");
+      fail("Did not throw RuntimeException");
+    }
+    catch (RuntimeException e)
+    {
+    }
+  }
+
+
+  public static class Bean
+  {
+
+    private long count;
+    private int value;
+    private Long total;
+    private String name;
+
+
+    public long getCount()
+    {
+      return count;
+    }
+
+
+    public void setCount(long count)
+    {
+      this.count = count;
+    }
+
+
+    public String getName()
+    {
+      return name;
+    }
+
+
+    public void setName(String name)
+    {
+      if ("invalid".equals(name))
+      {
+        throw new IllegalArgumentException("Invalid name.");
+      }
+      else if ("error".equals(name))
+      {
+        throw new InternalError();
+      }
+      this.name = name;
+    }
+
+  }
+
+}
@@ -0,0 +1,73 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.AccountImpl;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyDescriptor;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BeanConventionMappingStrategyTest
+{
+
+  @Test
+  public void testGetMappings()
+  {
+    BeanConventionMappingStrategy strategy =
+        new BeanConventionMappingStrategy();
+    List<FieldMapping<?>> mappings = strategy.getMappings(AccountImpl.class);
+    assertNotNull(getMapping(mappings, "lastName"));
+    assertTrue(getMapping(mappings,
+        "transactions") instanceof CollectionFieldMapping);
+    // no get method
+    assertNull(getMapping(mappings, "department"));
+
+    // new field mappings for every call
+    List<FieldMapping<?>> otherMappings = new BeanConventionMappingStrategy()
+        .getMappings(AccountImpl.class);
+    assertEquals(mappings.size(), otherMappings.size());
+    FieldMapping<?> lastName = getMapping(otherMappings, "lastName");
+    assertNotSame(getMapping(mappings, "lastName"), lastName);
+
+    lastName.setSourceName("name");
+    assertEquals("lastName", getMapping(
+        strategy.getMappings(AccountImpl.class), "lastName").getSourceName());
+  }
+
+
+  @Test
+  public void testGetMappings_ShouldAddBeanProperty()
+  {
+    BeanConventionMappingStrategy strategy = new BeanConventionMappingStrategy()
+    {
+
+      @Override
+      protected boolean shouldAddBeanProperty(PropertyDescriptor descriptor)
+      {
+        return descriptor.getName().equals("id");
+      }
+
+    };
+
+    List<FieldMapping<?>> mappings = strategy.getMappings(AccountImpl.class);
+    assertEquals(1, mappings.size());
+    assertEquals("id", mappings.get(0).getTargetName());
+  }
+
+
+  private FieldMapping<?> getMapping(List<FieldMapping<?>> mappings,
+      String name)
+  {
+    for (FieldMapping<?> mapping : mappings)
+    {
+      if (mapping.getTargetName().equals(name))
+      {
+        return mapping;
+      }
+    }
+    return null;
+  }
+
+}
@@ -4,10 +4,14 @@ import org.jaqlib.AccountImpl;
 import org.jaqlib.AccountSetup;
 import org.jaqlib.CreditRating;
 import org.jaqlib.CreditRatingTypeHandler;
+import org.jaqlib.core.MapDsResultSet;
 import org.jaqlib.core.MockDsResultSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -114,4 +118,147 @@ public class BeanMappingTest
     assertEquals("abc", mapping.applyJavaTypeHandler("lastName", "abc"));
   }
 
+  @Test
+  public void testGetValue_RowMapperGeneration()
+  {
+    mapping.setRowMapperGeneration(true);
+    assertTrue(mapping.isRowMapperGeneration());
+    MockDsResultSet rs = new MockDsResultSet();
+
+    AccountImpl huber = mapping.getValue(rs);
+    AccountImpl maier = mapping.getValue(rs);
+
+    assertEquals(AccountSetup.HUBER_ACCOUNT.getId(), huber.getId());
+    assertEquals(AccountSetup.HUBER_ACCOUNT.getLastName(), huber
+        .getLastName());
+    assertEquals(AccountSetup.MAIER_ACCOUNT.getId(), maier.getId());
+    assertEquals(AccountSetup.MAIER_ACCOUNT.getLastName(), maier
+        .getLastName());
+    // the setters have been called
+    assertTrue(huber.hasChanged());
+    assertTrue(maier.hasChanged());
+  }
+
+
+  @Test
+  public void testGetValue_RowMapperGeneration_Conversions()
+  {
+    mapping.setRowMapperGeneration(true);
+    mapping.registerJavaTypeHandler(new CreditRatingTypeHandler());
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("id", 5L);
+    row.put("balance", 10.0);
+    row.put("active", Boolean.FALSE);
+    row.put("creditRating", CreditRating.GOOD.intValue());
+    AccountImpl account = mapping.getValue(new MapDsResultSet(row));
+    assertEquals(Long.valueOf(5), account.getId());
+    assertEquals(10.0, account.getBalance(), 0);
+    assertFalse(account.isActive());
+    assertEquals(CreditRating.GOOD, account.getCreditRating());
+    assertNull(account.getLastName());
+
+    // value that does not fit the setter --> converted the same way as
+    // without row mapper generation
+    row.put("id", 6);
+    row.put("lastName", "huber");
+    account = mapping.getValue(new MapDsResultSet(row));
+    assertEquals(Long.valueOf(6), account.getId());
+    assertEquals("huber", account.getLastName());
+  }
+
+  @Test
+  public void testGetValue_TypeHandlerRegisteredAfterBinding()
+  {
+    Map<String, Object> row = new HashMap<>();
+    row.put("lastName", "huber");
+    assertEquals("huber", mapping.getValue(new MapDsResultSet(row))
+        .getLastName());
+
+    // the resolved type handlers of the mapping must be invalidated
+    mapping.registerJavaTypeHandler(new CreditRatingTypeHandler());
+    row.put("creditRating", CreditRating.GOOD.intValue());
+    assertEquals(CreditRating.GOOD, mapping.getValue(new MapDsResultSet(row))
+        .getCreditRating());
+  }
+
+  @Test
+  public void testGetValue_FieldChangedAfterBinding()
+  {
+    mapping.removeAllFields();
+    FieldMapping<String> field = mapping.addField("lastName", String.class);
+    field.setSourceName("name");
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("name", "huber");
+    assertEquals("huber", mapping.getValue(new MapDsResultSet(row))
+        .getLastName());
+
+    // the field mapping is changed after the first row has been mapped
+    field.setTargetName("firstName");
+    AccountImpl account = mapping.getValue(new MapDsResultSet(row));
+    assertEquals("huber", account.getFirstName());
+    assertNull(account.getLastName());
+  }
+
+  @Test
+  public void testGetValue_RowMapperGeneration_SettersCalledOnce()
+  {
+    BeanMapping<CountingBean> beanMapping = new BeanMapping<>(
+        CountingBean.class);
+    beanMapping.setMappingStrategy(new BeanConventionMappingStrategy());
+    beanMapping.setRowMapperGeneration(true);
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("name", "huber");
+    row.put("id", 5L);
+    CountingBean bean = beanMapping.getValue(new MapDsResultSet(row));
+    assertEquals("huber", bean.getName());
+    assertEquals(Long.valueOf(5), bean.getId());
+    assertEquals(2, bean.calls);
+
+    // the id does not fit the setter --> every setter is called only once
+    row.put("id", 6);
+    bean = beanMapping.getValue(new MapDsResultSet(row));
+    assertEquals("huber", bean.getName());
+    assertEquals(Long.valueOf(6), bean.getId());
+    assertEquals(2, bean.calls);
+  }
+
+
+  public static class CountingBean
+  {
+
+    private int calls;
+    private Long id;
+    private String name;
+
+
+    public Long getId()
+    {
+      return id;
+    }
+
+
+    public void setId(Long id)
+    {
+      this.id = id;
+      calls++;
+    }
+
+
+    public String getName()
+    {
+      return name;
+    }
+
+
+    public void setName(String name)
+    {
+      this.name = name;
+      calls++;
+    }
+
+  }
+
 }
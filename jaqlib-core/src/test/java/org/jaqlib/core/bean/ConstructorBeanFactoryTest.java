@@ -0,0 +1,150 @@
+package org.jaqlib.core.bean;
+
+import org.jaqlib.AccountImpl;
+import org.jaqlib.core.MapDsResultSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.beans.ConstructorProperties;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ConstructorBeanFactoryTest
+{
+
+  private ConstructorBeanFactory factory;
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    factory = new ConstructorBeanFactory();
+  }
+
+
+  @Test
+  public void testGetConstructor()
+  {
+    BeanConstructor<Person> constructor = factory.getConstructor(Person.class);
+    assertSame(constructor, factory.getConstructor(Person.class));
+    assertEquals(3, constructor.getParameterCount());
+    assertEquals("name", constructor.getParameterNames().get(0));
+    assertEquals(int.class, constructor.getParameterType(1));
+    assertEquals(2, constructor.indexOf("id"));
+    assertEquals(-1, constructor.indexOf("nonExisting"));
+
+    try
+    {
+      // no constructor with parameter names
+      factory.getConstructor(AccountImpl.class);
+      fail("Did not throw IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+    }
+  }
+
+
+  @Test
+  public void testNewInstance()
+  {
+    Person person = factory.newInstance(Person.class, new Object[] { "huber",
+        (short) 30, 5 });
+    assertEquals("huber", person.getName());
+    assertEquals(30, person.getAge());
+    // converted by SaveConversions
+    assertEquals(Long.valueOf(5), person.getId());
+
+    // default values
+    person = factory.newInstance(Person.class);
+    assertNull(person.getName());
+    assertEquals(0, person.getAge());
+    assertNull(person.getId());
+
+    try
+    {
+      factory.newInstance(Person.class, new Object[] { "huber" });
+      fail("Did not throw IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+    }
+  }
+
+
+  @Test
+  public void testGetValue()
+  {
+    BeanMapping<Person> mapping = BeanMapping.build(
+        new ConstructorMappingStrategy(), Person.class);
+    mapping.setFactory(factory);
+
+    List<FieldMapping<?>> fields = mapping.getFieldMappings();
+    assertEquals(3, fields.size());
+    assertEquals("name", fields.get(0).getTargetName());
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("name", "maier");
+    row.put("id", 7L);
+    Person person = mapping.getValue(new MapDsResultSet(row));
+    assertEquals("maier", person.getName());
+    assertEquals(0, person.getAge());
+    assertEquals(Long.valueOf(7), person.getId());
+
+    // fields that are no constructor parameters are set afterwards
+    mapping.addField("remark", String.class);
+    row.put("remark", "test");
+    person = mapping.getValue(new MapDsResultSet(row));
+    assertEquals("maier", person.getName());
+    assertEquals("test", person.remark);
+  }
+
+
+  public static class Person
+  {
+
+    private final String name;
+    private final int age;
+    private final Long id;
+    private String remark;
+
+
+    public Person(String name)
+    {
+      this(name, 0, null);
+    }
+
+
+    @ConstructorProperties( { "name", "age", "id" })
+    public Person(String name, int age, Long id)
+    {
+      this.name = name;
+      this.age = age;
+      this.id = id;
+    }
+
+
+    public String getName()
+    {
+      return name;
+    }
+
+
+    public int getAge()
+    {
+      return age;
+    }
+
+
+    public Long getId()
+    {
+      return id;
+    }
+
+  }
+
+}
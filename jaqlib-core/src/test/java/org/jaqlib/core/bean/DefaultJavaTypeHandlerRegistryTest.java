@@ -69,4 +69,13 @@ public class DefaultJavaTypeHandlerRegistryTest
     assertSame(th, registry.getTypeHandler(CreditRating.class));
   }
 
+  @Test
+  public void testGetModificationCount()
+  {
+    int count = registry.getModificationCount();
+    assertTrue(count >= 0);
+    registry.registerTypeHandler(new CreditRatingTypeHandler());
+    assertTrue(registry.getModificationCount() != count);
+  }
+
 }
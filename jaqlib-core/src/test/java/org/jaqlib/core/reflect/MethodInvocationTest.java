@@ -0,0 +1,97 @@
+package org.jaqlib.core.reflect;
+
+import org.jaqlib.Account;
+import org.jaqlib.AccountImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodInvocationTest
+{
+
+  @Test
+  public void testInvoke_Getter() throws Exception
+  {
+    AccountImpl account = new AccountImpl();
+    account.setBalance(10.0);
+
+    MethodInvocation invocation = new MethodInvocation(Account.class
+        .getMethod("getBalance"), null);
+    assertEquals(10.0, invocation.invoke(account));
+
+    account.setBalance(20.0);
+    assertEquals(20.0, invocation.invoke(account));
+  }
+
+
+  @Test
+  public void testInvoke_WithArguments() throws Exception
+  {
+    MethodInvocation invocation = new MethodInvocation(String.class.getMethod(
+        "substring", int.class, int.class), new Object[] { 1, 3 });
+    assertEquals("bc", invocation.invoke("abcd"));
+  }
+
+
+  @Test
+  public void testInvoke_Exception() throws Exception
+  {
+    MethodInvocation invocation = new MethodInvocation(String.class.getMethod(
+        "substring", int.class), new Object[] { 10 });
+    try
+    {
+      invocation.invoke("abc");
+      fail("Did not throw StringIndexOutOfBoundsException");
+    }
+    catch (StringIndexOutOfBoundsException e)
+    {
+      // expected
+    }
+  }
+
+
+  @Test
+  public void testInvokePrimitive() throws Exception
+  {
+    MethodInvocation length = new MethodInvocation(String.class
+        .getMethod("length"), null);
+    assertEquals(3L, length.invokeLong("abc"));
+    assertEquals(3.0, length.invokeDouble("abc"));
+
+    // double can't be narrowed by a method handle --> the result is unboxed
+    MethodInvocation balance = new MethodInvocation(Account.class
+        .getMethod("getBalance"), null);
+    AccountImpl account = new AccountImpl();
+    account.setBalance(10.5);
+    assertEquals(10L, balance.invokeLong(account));
+    assertEquals(10.5, balance.invokeDouble(account));
+
+    // an Object result can be any wrapper type
+    MethodInvocation first = new MethodInvocation(List.class.getMethod("get",
+        int.class), new Object[] { 0 });
+    assertEquals(7L, first.invokeLong(Arrays.asList(7)));
+
+    // boolean can't be converted to a number at all
+    MethodInvocation isEmpty = new MethodInvocation(String.class
+        .getMethod("isEmpty"), null);
+    assertThrows(ClassCastException.class, () -> isEmpty.invokeLong(""));
+    assertEquals(Boolean.TRUE, isEmpty.invoke(""));
+  }
+
+
+  @Test
+  public void testFunctionInvocation() throws Exception
+  {
+    Invocation invocation = new FunctionInvocation((String s) -> s.length());
+    assertEquals(3, invocation.invoke("abc"));
+    // the primitive methods unbox the result of the function
+    assertEquals(3L, invocation.invokeLong("abc"));
+    assertEquals(3.0, invocation.invokeDouble("abc"));
+    assertEquals(Object.class, invocation.getReturnType());
+    assertNull(invocation.getPropertyName());
+  }
+
+}
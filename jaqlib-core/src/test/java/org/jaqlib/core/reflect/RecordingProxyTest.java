@@ -0,0 +1,111 @@
+package org.jaqlib.core.reflect;
+
+import org.jaqlib.Account;
+import org.jaqlib.AccountImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingProxyTest
+{
+
+  private final ClassLoader classLoader = getClass().getClassLoader();
+
+
+  @Test
+  public void testGetProxy_Class()
+  {
+    RecordingProxy<AccountImpl> proxy1 = new RecordingProxy<>(classLoader);
+    RecordingProxy<AccountImpl> proxy2 = new RecordingProxy<>(classLoader);
+    AccountImpl account1 = proxy1.getProxy(AccountImpl.class);
+    AccountImpl account2 = proxy2.getProxy(AccountImpl.class);
+
+    assertNotSame(account1, account2);
+    assertSame(account1.getClass(), account2.getClass());
+    assertTrue(CgLibProxy.isCached(classLoader, AccountImpl.class));
+
+    account1.getBalance();
+    account2.getId();
+    assertEquals("balance", proxy1.getMethodCallRecorder()
+        .getCurrentInvocation().getPropertyName());
+    assertEquals("id", proxy2.getMethodCallRecorder()
+        .getCurrentInvocation().getPropertyName());
+  }
+
+
+  @Test
+  public void testGetProxy_Interface()
+  {
+    RecordingProxy<Account> proxy1 = new RecordingProxy<>(classLoader);
+    RecordingProxy<Account> proxy2 = new RecordingProxy<>(classLoader);
+    Account account1 = proxy1.getProxy(Account.class);
+    Account account2 = proxy2.getProxy(Account.class);
+
+    assertNotSame(account1, account2);
+    assertSame(account1.getClass(), account2.getClass());
+    assertTrue(JdkProxy.isCached(classLoader, Account.class));
+
+    account2.getBalance();
+    assertNull(proxy1.getMethodCallRecorder().getCurrentInvocation());
+    assertEquals("balance", proxy2.getMethodCallRecorder()
+        .getCurrentInvocation().getPropertyName());
+  }
+
+
+  @Test
+  public void testWarmUp()
+  {
+    RecordingProxy.warmUp(classLoader, WarmUpInterface.class,
+        WarmUpClass.class);
+    assertTrue(JdkProxy.isCached(classLoader, WarmUpInterface.class));
+    assertTrue(CgLibProxy.isCached(classLoader, WarmUpClass.class));
+    assertFalse(CgLibProxy.isCached(classLoader, WarmUpInterface.class));
+  }
+
+
+  @Test
+  public void testWarmUp_NoDefaultConstructor()
+  {
+    assertThrows(IllegalArgumentException.class, () -> RecordingProxy.warmUp(
+        classLoader, NoDefaultConstructor.class));
+    assertFalse(CgLibProxy.isCached(classLoader, NoDefaultConstructor.class));
+  }
+
+
+  @Test
+  public void testWarmUp_Null()
+  {
+    assertThrows(IllegalArgumentException.class, () -> RecordingProxy.warmUp(
+        classLoader, (Class<?>) null));
+  }
+
+
+  public interface WarmUpInterface
+  {
+
+    String getName();
+
+  }
+
+
+  public static class WarmUpClass
+  {
+
+    public String getName()
+    {
+      return null;
+    }
+
+  }
+
+
+  public static class NoDefaultConstructor
+  {
+
+    public NoDefaultConstructor(String name)
+    {
+    }
+
+  }
+
+}
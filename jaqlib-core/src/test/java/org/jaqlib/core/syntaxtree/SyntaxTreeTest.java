@@ -0,0 +1,250 @@
+package org.jaqlib.core.syntaxtree;
+
+import org.jaqlib.core.Defaults;
+import org.jaqlib.core.TaskWhereCondition;
+import org.jaqlib.core.WhereCondition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntaxTreeTest
+{
+
+  private final List<String> evaluated = new ArrayList<>();
+
+
+  @AfterEach
+  public void tearDown()
+  {
+    Defaults.reset();
+  }
+
+
+  private Condition<Integer> condition(final String name, final boolean result)
+  {
+    return new Condition<>(new WhereCondition<Integer>()
+    {
+
+      public boolean evaluate(Integer element)
+      {
+        evaluated.add(name);
+        return result;
+      }
+
+    });
+  }
+
+
+  @Test
+  public void testMatches_NoConditions()
+  {
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    assertTrue(tree.matches(1));
+    assertEquals(0, tree.compile().size());
+  }
+
+
+  @Test
+  public void testMatches_And()
+  {
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(condition("c1", true));
+    tree.and(condition("c2", false));
+    tree.and(condition("c3", true));
+
+    assertFalse(tree.matches(1));
+    // c3 must not be evaluated because c2 does not match
+    assertEquals(2, evaluated.size());
+  }
+
+
+  @Test
+  public void testMatches_Or()
+  {
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(condition("c1", false));
+    tree.or(condition("c2", true));
+    tree.or(condition("c3", false));
+
+    assertTrue(tree.matches(1));
+    // c3 must not be evaluated because c2 matches
+    assertEquals(2, evaluated.size());
+  }
+
+
+  @Test
+  public void testMatches_AndOr()
+  {
+    // c1 AND (c2 OR c3)
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(condition("c1", false));
+    tree.and(condition("c2", true));
+    tree.or(condition("c3", true));
+
+    assertFalse(tree.matches(1));
+    assertEquals(1, evaluated.size());
+    assertEquals(3, tree.compile().size());
+  }
+
+
+  @Test
+  public void testMatches_OrAnd()
+  {
+    // c1 OR (c2 AND c3)
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(condition("c1", false));
+    tree.or(condition("c2", true));
+    tree.and(condition("c3", true));
+
+    assertTrue(tree.matches(1));
+    assertEquals(3, evaluated.size());
+  }
+
+
+  @Test
+  public void testCompile_RecompiledAfterNewCondition()
+  {
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(condition("c1", true));
+    CompiledSyntaxTree<Integer> program = tree.compile();
+    assertSame(program, tree.compile());
+
+    tree.and(condition("c2", false));
+    assertNotSame(program, tree.compile());
+    assertFalse(tree.matches(1));
+  }
+
+
+  @Test
+  public void testRequiredConditions()
+  {
+    Condition<Integer> c1 = condition("c1", true);
+    Condition<Integer> c2 = condition("c2", true);
+    Condition<Integer> c3 = condition("c3", true);
+
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.and(c1);
+    tree.and(c2);
+    tree.or(c3);
+
+    // c1 AND (c2 OR c3): only c1 must match for every element
+    List<WhereCondition<? super Integer>> required = tree.compile()
+        .getRequiredConditions();
+    assertEquals(1, required.size());
+    assertSame(c1.getCondition(), required.get(0));
+
+    tree = new SyntaxTree<>();
+    tree.and(c1);
+    tree.and(c2);
+    assertEquals(2, tree.compile().getRequiredConditions().size());
+
+    tree = new SyntaxTree<>();
+    tree.and(c1);
+    tree.or(c2);
+    assertTrue(tree.compile().getRequiredConditions().isEmpty());
+  }
+
+
+  private void evaluateSamples(SyntaxTree<Integer> tree, int count)
+  {
+    for (int i = 0; i < count; i++)
+    {
+      tree.matches(i);
+    }
+    evaluated.clear();
+  }
+
+
+  @Test
+  public void testAdaptiveOrder_And()
+  {
+    Defaults.setAdaptiveConditionOrder(true);
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.setSampleSize(10);
+    tree.and(condition("c1", true));
+    tree.and(condition("c2", false));
+
+    evaluateSamples(tree, 10);
+    assertFalse(tree.matches(1));
+    // c2 rejects every element --> it is evaluated first
+    assertEquals(Arrays.asList("c2"), evaluated);
+  }
+
+
+  @Test
+  public void testAdaptiveOrder_Or()
+  {
+    Defaults.setAdaptiveConditionOrder(true);
+    // c1 AND (c2 OR c3)
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.setSampleSize(10);
+    tree.and(condition("c1", true));
+    tree.and(condition("c2", false));
+    tree.or(condition("c3", true));
+
+    evaluateSamples(tree, 10);
+    assertTrue(tree.matches(1));
+    // c3 accepts every element --> it is evaluated before c2
+    assertEquals(Arrays.asList("c1", "c3"), evaluated);
+  }
+
+
+  @Test
+  public void testAdaptiveOrder_Disabled()
+  {
+    // adaptive ordering is opt-in
+    assertFalse(Defaults.getAdaptiveConditionOrder());
+
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.setSampleSize(10);
+    tree.and(condition("c1", true));
+    tree.and(condition("c2", false));
+
+    evaluateSamples(tree, 10);
+    assertFalse(tree.matches(1));
+    assertEquals(Arrays.asList("c1", "c2"), evaluated);
+  }
+
+
+  @Test
+  public void testAdaptiveOrder_Task()
+  {
+    Defaults.setAdaptiveConditionOrder(true);
+    SyntaxTree<Integer> tree = new SyntaxTree<>();
+    tree.setSampleSize(10);
+    tree.and(new Condition<>(new TaskWhereCondition<Integer>(element -> evaluated
+        .add("task"))));
+    tree.and(condition("c2", false));
+
+    evaluateSamples(tree, 10);
+    assertFalse(tree.matches(1));
+    // tasks have side effects --> the declared order is kept
+    assertEquals(Arrays.asList("task", "c2"), evaluated);
+  }
+
+
+  @Test
+  public void testAdaptiveOrder_DeclaredOrderOnException()
+  {
+    Defaults.setAdaptiveConditionOrder(true);
+    SyntaxTree<String> tree = new SyntaxTree<>();
+    tree.setSampleSize(10);
+    tree.and(new Condition<>(element -> element != null));
+    tree.and(new Condition<>(element -> element.length() > 5));
+
+    for (int i = 0; i < 10; i++)
+    {
+      tree.matches("short");
+    }
+
+    // the null check is evaluated after the length check now
+    assertFalse(tree.matches(null));
+    assertTrue(tree.matches("long enough"));
+  }
+
+}
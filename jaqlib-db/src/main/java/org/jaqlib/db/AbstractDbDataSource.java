@@ -49,6 +49,15 @@ public abstract class AbstractDbDataSource
   }
 
 
+  /**
+   * @return the JDBC data source of this object.
+   */
+  protected DataSource getDataSource()
+  {
+    return dataSource;
+  }
+
+
   /**
    * <p>
    * If <tt>true</tt> the database {@link Connection} is automatically closed
@@ -7,6 +7,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.Arrays;
 
 
 /**
@@ -207,6 +208,17 @@ public class ColumnMapping<T> extends FieldMapping<T>
   }
 
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    return Arrays.asList(super.getCacheKey(), columnLabel, columnName,
+        columnIndex, columnDataType);
+  }
+
+
   @Override
   public String getLogString()
   {
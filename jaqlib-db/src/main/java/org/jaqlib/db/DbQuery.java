@@ -2,9 +2,16 @@ package org.jaqlib.db;
 
 import org.jaqlib.core.DataSourceQuery;
 import org.jaqlib.core.QueryResult;
+import org.jaqlib.core.ResultLimit;
+import org.jaqlib.core.ResultOrder;
 import org.jaqlib.core.bean.AbstractMapping;
+import org.jaqlib.core.bean.BeanMapping;
+import org.jaqlib.core.bean.FieldMapping;
 import org.jaqlib.core.reflect.MethodCallRecorder;
 
+import java.sql.Statement;
+import java.util.List;
+
 /**
  * @author Werner Fragner
  * 
@@ -40,6 +47,117 @@ public class DbQuery<T> extends DataSourceQuery<T, DbSelectDataSource>
   }
 
 
+  /**
+   * If no Java conditions have been added to this query then the counting is
+   * done by the database (see {@link DbSelectDataSource#count()}).
+   */
+  @Override
+  public int count()
+  {
+    if (hasConditions() || isCacheFilled())
+    {
+      return super.count();
+    }
+    executionStarted("Count");
+    logQuery("Count");
+    return getResultLimit().apply(countByDataSource(getDataSource()::count));
+  }
+
+
+  /**
+   * The elements are ordered by the database if every order key is a getter
+   * of a bean field that is mapped by a {@link ColumnMapping}. The column
+   * index or label of the mapping is used in the SQL ORDER BY clause.
+   */
+  @Override
+  protected boolean isOrderedByDataSource()
+  {
+    return !isCacheFilled() && getSqlOrderBy() != null;
+  }
+
+
+  private String getSqlOrderBy()
+  {
+    final ResultOrder order = getOrder();
+    if (!order.isOrdered() || !(getMapping() instanceof BeanMapping<?>))
+    {
+      return null;
+    }
+
+    final BeanMapping<T> mapping = (BeanMapping<T>) getMapping();
+    final StringBuilder sb = new StringBuilder();
+    for (ResultOrder.Key key : order.getKeys())
+    {
+      final String column = getOrderColumn(mapping, key.getInvocation()
+          .getPropertyName());
+      if (column == null)
+      {
+        return null;
+      }
+
+      if (sb.length() > 0)
+      {
+        sb.append(", ");
+      }
+      sb.append(column);
+      if (key.isDescending())
+      {
+        sb.append(" DESC");
+      }
+    }
+    return sb.toString();
+  }
+
+
+  private String getOrderColumn(BeanMapping<T> mapping, String propertyName)
+  {
+    if (propertyName == null || !mapping.hasField(propertyName))
+    {
+      return null;
+    }
+
+    final FieldMapping<?> field = mapping.getField(propertyName);
+    if (!(field instanceof ColumnMapping<?>))
+    {
+      return null;
+    }
+
+    final ColumnMapping<?> column = (ColumnMapping<?>) field;
+    if (column.hasColumnIndex())
+    {
+      return String.valueOf(column.getColumnIndex());
+    }
+    else if (column.hasColumnLabel())
+    {
+      return column.getColumnLabel();
+    }
+    return null;
+  }
+
+
+  /**
+   * If no Java conditions have been added to this query then the result limit
+   * is also applied on the database (see {@link Statement#setMaxRows(int)}).
+   * The SQL ORDER BY clause is set if the elements are ordered by the database
+   * (see {@link #isOrderedByDataSource()}).
+   */
+  @Override
+  protected void prepareDataSource(DbSelectDataSource dataSource)
+  {
+    dataSource.setSqlOrderBy(isOrderedByDataSource() ? getSqlOrderBy() : null);
+
+    final ResultLimit limit = getLimit();
+    if (limit.hasMaxResults() && limit.getMaxMatches() > 0 && !hasConditions())
+    {
+      dataSource.setMaxRows(limit.getMaxMatches());
+    }
+    else
+    {
+      dataSource.setMaxRows(0);
+    }
+  }
+
+
   public QueryResult<T, DbSelectDataSource> addPrepStmtParameters(
       Object[] prepStmtParameters)
   {
@@ -55,6 +173,21 @@ public class DbQuery<T> extends DataSourceQuery<T, DbSelectDataSource>
   }
 
 
+  /**
+   * The parameters of the prepared SELECT statement are consumed by every
+   * execution (see {@link #addPrepStmtParameters(Object[])}). So the
+   * parameters that are given when the query is prepared are restored before
+   * every execution of the prepared query.
+   */
+  @Override
+  protected Runnable createExecutionSetup()
+  {
+    final DbSelectDataSource dataSource = getDataSource();
+    final List<Object> params = dataSource.getPreparedStatementParameters();
+    return () -> dataSource.setPreparedStatementParameters(params);
+  }
+
+
   public QueryResult<T, DbSelectDataSource> addAndWhereCondition(
       String sqlWhereCondition)
   {
@@ -4,13 +4,16 @@ import org.jaqlib.core.DataSourceQueryException;
 import org.jaqlib.core.SelectDataSource;
 import org.jaqlib.db.sql.typehandler.SqlTypeHandler;
 import org.jaqlib.db.sql.typehandler.SqlTypeHandlerRegistry;
+import org.jaqlib.db.util.DbUtil;
 import org.jaqlib.util.Assert;
 
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -38,6 +41,8 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
 
   private final List<Object> prepStmtParameters = new ArrayList<Object>();
   private String sqlWhereCondition;
+  private String sqlOrderBy;
+  private int maxRows = 0;
 
 
   public DbSelectDataSource(DataSource dataSource, String sql)
@@ -68,7 +73,35 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
   }
 
 
+  /**
+   * Sets the SQL ORDER BY clause. Like the WHERE condition (see
+   * {@link #setSqlWhereCondition(String)}) it is simply appended to the given
+   * SQL statement using the ORDER BY keywords. So do not add an ORDER BY
+   * clause in the SQL statement when using this method!
+   * 
+   * @param sqlOrderBy an optional comma separated list of columns (e.g.
+   *          "balance DESC, lastname").
+   */
+  public void setSqlOrderBy(String sqlOrderBy)
+  {
+    this.sqlOrderBy = sqlOrderBy;
+  }
+
+
   public String getSql()
+  {
+    if (isEmpty(sqlOrderBy))
+    {
+      return getUnorderedSql();
+    }
+    else
+    {
+      return getUnorderedSql() + " ORDER BY " + sqlOrderBy;
+    }
+  }
+
+
+  private String getUnorderedSql()
   {
     if (isEmpty(sqlWhereCondition))
     {
@@ -107,12 +140,54 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
   }
 
 
+  /**
+   * Limits the number of rows that are fetched from the database for the
+   * next SELECT statements (see {@link Statement#setMaxRows(int)}). The fetch
+   * size is set accordingly.
+   * 
+   * @param maxRows the maximum number of rows; 0 for no limit.
+   */
+  void setMaxRows(int maxRows)
+  {
+    this.maxRows = maxRows;
+  }
+
+
+  private void applyMaxRows(Statement stmt) throws SQLException
+  {
+    stmt.setMaxRows(maxRows);
+    stmt.setFetchSize(maxRows);
+  }
+
+
   public void addPreparedStatementParameter(Object param)
   {
     prepStmtParameters.add(param);
   }
 
 
+  /**
+   * @return a copy of the parameters for the next execution of the prepared
+   *         statement.
+   */
+  List<Object> getPreparedStatementParameters()
+  {
+    return new ArrayList<Object>(prepStmtParameters);
+  }
+
+
+  /**
+   * Replaces the parameters for the next execution of the prepared statement.
+   * 
+   * @param params the not null parameters.
+   */
+  void setPreparedStatementParameters(List<?> params)
+  {
+    prepStmtParameters.clear();
+    prepStmtParameters.addAll(params);
+  }
+
+
   private void closeResultSet()
   {
     close(resultSet);
@@ -164,6 +239,69 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
   }
 
 
+  /**
+   * Returns a key consisting of the JDBC data source, the SQL statement and
+   * the parameters of the prepared statement. So the same SELECT statement on
+   * the same database can share the fetched rows.
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    return Arrays.asList(getDataSource(), getSql(), new ArrayList<>(
+        prepStmtParameters), getSqlTypeHandlerRegistry(), strictFieldCheck);
+  }
+
+
+  /**
+   * Counts the rows of the SELECT statement on the database by using a
+   * <tt>SELECT COUNT(*)</tt> statement. The rows are not transferred to the
+   * client.
+   * 
+   * @return the number of rows of the SELECT statement.
+   */
+  public int count()
+  {
+    final String countSql = getCountSql();
+    ResultSet rs = null;
+    try
+    {
+      if (prepStmtParameters.isEmpty())
+      {
+        log.fine("Executing SQL COUNT statement: " + countSql);
+
+        rs = getStatement().executeQuery(countSql);
+      }
+      else
+      {
+        log.fine("Executing prepared SQL COUNT statement: " + countSql);
+
+        PreparedStatement stmt = getPreparedStatement(countSql);
+        setParameters(stmt, prepStmtParameters);
+        prepStmtParameters.clear();
+        rs = stmt.executeQuery();
+      }
+
+      rs.next();
+      return rs.getInt(1);
+    }
+    catch (SQLException ex)
+    {
+      throw toDataSourceQueryException(ex);
+    }
+    finally
+    {
+      DbUtil.close(rs);
+    }
+  }
+
+
+  private String getCountSql()
+  {
+    // ORDER BY is not allowed in subqueries (and not needed for counting)
+    return "SELECT COUNT(*) FROM (" + getUnorderedSql() + ") jaqlib_count";
+  }
+
+
   private DataSourceQueryException toDataSourceQueryException(SQLException ex)
   {
     DataSourceQueryException e = new DataSourceQueryException(ex);
@@ -179,6 +317,7 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
     PreparedStatement stmt = getPreparedStatement(getSql());
     setParameters(stmt, prepStmtParameters);
     prepStmtParameters.clear();
+    applyMaxRows(stmt);
 
     final ResultSet rs = stmt.executeQuery();
     return new DbResultSet(rs, getSqlTypeHandlerRegistry(), strictFieldCheck);
@@ -199,7 +338,10 @@ public class DbSelectDataSource extends AbstractDbDataSource implements
   {
     log.fine("Executing SQL SELECT statement: " + getSql());
 
-    final ResultSet rs = getStatement().executeQuery(getSql());
+    final Statement stmt = getStatement();
+    applyMaxRows(stmt);
+
+    final ResultSet rs = stmt.executeQuery(getSql());
     return new DbResultSet(rs, getSqlTypeHandlerRegistry(), strictFieldCheck);
   }
 
@@ -1,13 +1,24 @@
 package org.jaqlib;
 
+import org.jaqlib.core.AggregateResult;
+import org.jaqlib.core.PreparedQuery;
+import org.jaqlib.core.QueryEvent;
+import org.jaqlib.core.QueryListener;
+import org.jaqlib.core.ResultIterator;
+import org.jaqlib.core.SharedQueryCache;
 import org.jaqlib.core.WhereCondition;
 import org.jaqlib.core.bean.BeanMapping;
+import org.jaqlib.db.ColumnMapping;
+import org.jaqlib.db.DbDefaults;
 import org.jaqlib.db.DbSelectDataSource;
 import org.jaqlib.db.DbWhereClause;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.jaqlib.AccountAssert.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -120,6 +131,29 @@ public class BeanDatabaseQBSelectTest extends AbstractDatabaseQBTest
     assertHashtableResult(where);
   }
 
+  @Test
+  public void testSelect_Stream()
+  {
+    List<Account> accounts;
+    try (Stream<Account> stream = where.asStream())
+    {
+      accounts = stream.collect(Collectors.toList());
+    }
+    assertListResult(accounts);
+  }
+
+  @Test
+  public void testSelect_Iterator_Close()
+  {
+    ResultIterator<Account> it = where.where(createWhereCondition(0.0))
+        .asIterator();
+    assertTrue(it.hasNext());
+    assertNotNull(it.next());
+
+    it.close();
+    assertFalse(it.hasNext());
+  }
+
   @Test
   public void testSelect_CustomCondition_OneMatch()
   {
@@ -190,6 +224,375 @@ public class BeanDatabaseQBSelectTest extends AbstractDatabaseQBTest
   }
 
 
+  @Test
+  public void testSelect_SharedQueryCache()
+  {
+    SharedQueryCache cache = new SharedQueryCache();
+    DbDefaults.INSTANCE.setSharedQueryCache(cache);
+    try
+    {
+      assertHuberAccount(selectByLastName(HUBER).get(0));
+      assertEquals(0, cache.getHitCount());
+      assertEquals(1, cache.size());
+
+      // same SQL statement and parameters --> rows are taken from the cache
+      assertHuberAccount(selectByLastName(HUBER).get(0));
+      assertEquals(1, cache.getHitCount());
+
+      // other parameters --> rows are fetched from the database
+      assertMaierAccount(selectByLastName(MAIER).get(0));
+      assertEquals(1, cache.getHitCount());
+      assertEquals(2, cache.size());
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.setSharedQueryCache(null);
+    }
+  }
+
+
+  @Test
+  public void testQueryListener()
+  {
+    final List<QueryEvent> events = new ArrayList<>();
+    QueryListener listener = events::add;
+    DbDefaults.INSTANCE.registerQueryListener(listener);
+    try
+    {
+      Account account = DatabaseQB.getRecorder(Account.class);
+      assertEquals(1, where.whereCall(account.getLastName()).isEqual(HUBER)
+          .asList().size());
+      assertEquals(1, events.size());
+
+      QueryEvent event = events.get(0);
+      assertEquals("List", event.getResultType());
+      assertEquals(2, event.getRowsRead());
+      assertEquals(1, event.getRowsMatched());
+      assertEquals(QueryEvent.CacheStatus.MISS, event.getCacheStatus());
+      assertTrue(event.getSourceNanos() > 0);
+      assertTrue(event.getMappingNanos() > 0);
+      assertTrue(event.getPredicateNanos() > 0);
+      assertNotNull(event.getDataSource());
+
+      // second execution of the same query --> rows are taken from the cache
+      assertEquals(1, where.asSet().size());
+      event = events.get(1);
+      assertEquals("Set", event.getResultType());
+      assertEquals(0, event.getRowsRead());
+      assertEquals(1, event.getRowsMatched());
+      assertEquals(QueryEvent.CacheStatus.HIT, event.getCacheStatus());
+
+      // lazy results are reported when they are closed
+      try (Stream<Account> stream = where.asStream())
+      {
+        assertEquals(1, stream.count());
+      }
+      assertEquals(3, events.size());
+      assertEquals(QueryEvent.CacheStatus.NOT_USED, events.get(2)
+          .getCacheStatus());
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.unregisterQueryListener(listener);
+    }
+
+    // no listener --> no events
+    where.asList();
+    assertEquals(3, events.size());
+  }
+
+
+  @Test
+  public void testQueryListener_Count()
+  {
+    final List<QueryEvent> events = new ArrayList<>();
+    QueryListener listener = events::add;
+    DbDefaults.INSTANCE.registerQueryListener(listener);
+    try
+    {
+      // no Java conditions --> SELECT COUNT(*) on the database
+      assertEquals(2, where.count());
+      assertEquals(1, events.size());
+
+      QueryEvent event = events.get(0);
+      assertEquals("Count", event.getResultType());
+      assertEquals(0, event.getRowsRead());
+      assertEquals(QueryEvent.CacheStatus.NOT_USED, event.getCacheStatus());
+      assertTrue(event.getSourceNanos() > 0);
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.unregisterQueryListener(listener);
+    }
+  }
+
+
+  @Test
+  public void testQueryListener_UniqueResult()
+  {
+    final List<QueryEvent> events = new ArrayList<>();
+    QueryListener listener = events::add;
+    DbDefaults.INSTANCE.registerQueryListener(listener);
+    try
+    {
+      Account account = DatabaseQB.getRecorder(Account.class);
+      assertHuberAccount(where.whereCall(account.getLastName()).isEqual(
+          HUBER).uniqueResult());
+
+      // one event for the executed result type
+      assertEquals(1, events.size());
+      assertEquals("UniqueResult", events.get(0).getResultType());
+      assertEquals(2, events.get(0).getRowsRead());
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.unregisterQueryListener(listener);
+    }
+  }
+
+
+  private List<AccountImpl> selectByLastName(String lastName)
+  {
+    String sql = "SELECT id, lname AS lastname, fname AS firstname, creditrating AS creditrating, balance FROM APP.ACCOUNT WHERE lname = ?";
+    DbSelectDataSource ds = Database.getSelectDataSource(getDataSource(), sql);
+    List<AccountImpl> result = DatabaseQB.select(AccountImpl.class).from(ds)
+        .using(lastName).asList();
+    ds.close();
+    return result;
+  }
+
+
+  @Test
+  public void testPreparedQuery()
+  {
+    Account account = DatabaseQB.getRecorder(Account.class);
+    PreparedQuery<Account> query = where.whereCall(account.getLastName())
+        .isEqual(PreparedQuery.<String> param("name")).prepare();
+
+    assertHuberAccount(query.bind("name", HUBER).uniqueResult());
+    assertMaierAccount(query.bind("name", MAIER).uniqueResult());
+    assertEquals(0, query.bind("name", "unknown").count());
+  }
+
+
+  @Test
+  public void testPreparedQuery_StatementParameters()
+  {
+    String sql = "SELECT id, lname AS lastname, fname AS firstname, creditrating AS creditrating, balance FROM APP.ACCOUNT WHERE lname = ?";
+    DbSelectDataSource ds = Database.getSelectDataSource(getDataSource(), sql);
+    ds.setAutoClosePreparedStatement(false);
+
+    Account account = DatabaseQB.getRecorder(Account.class);
+    PreparedQuery<AccountImpl> query = DatabaseQB.select(AccountImpl.class)
+        .from(ds).using(HUBER).andCall(account.getBalance()).isGreaterThan(
+            PreparedQuery.<Double> param("min")).prepare();
+
+    // the statement parameters are kept for every execution
+    assertHuberAccount(query.bind("min", 0.0).firstResult());
+    assertHuberAccount(query.bind("min", 0.0).firstResult());
+    assertNull(query.bind("min", 100000.0).firstResult());
+    assertEquals(1, query.bind("min", 0.0).count());
+    ds.close();
+  }
+
+
+  @Test
+  public void testAsyncQueries() throws Exception
+  {
+    Account account = DatabaseQB.getRecorder(Account.class);
+    CompletableFuture<Map<String, Account>> map = where.asMapAsync(account
+        .getLastName());
+    Map<String, Account> result = map.get();
+    assertEquals(2, result.size());
+    assertHuberAccount(result.get(HUBER));
+    assertMaierAccount(result.get(MAIER));
+
+    assertEquals(Integer.valueOf(2), where.countAsync().get());
+  }
+
+
+  @Test
+  public void testCount()
+  {
+    // no Java conditions --> SELECT COUNT(*) on the database
+    assertEquals(2, where.count());
+  }
+
+  @Test
+  public void testCount_SqlCondition()
+  {
+    assertEquals(1, where.where(DatabaseSetup.SELECT_SQL_WHERE).count());
+  }
+
+  @Test
+  public void testCount_PreparedStatement()
+  {
+    String sql = "SELECT id, lname AS lastname FROM APP.ACCOUNT WHERE lname = ?";
+    DbSelectDataSource ds = Database.getSelectDataSource(getDataSource(), sql);
+
+    assertEquals(1, DatabaseQB.select(AccountImpl.class).from(ds).using(HUBER)
+        .count());
+    ds.close();
+  }
+
+  @Test
+  public void testCount_JavaCondition()
+  {
+    assertEquals(1, where.where(createWhereCondition(3500.0)).count());
+    assertEquals(1, where.countDistinct());
+  }
+
+  @Test
+  public void testSelect_Limit()
+  {
+    List<Account> accounts = where.limit(1).asList();
+    assertEquals(1, accounts.size());
+    assertEquals(1, where.count());
+
+    accounts = where.offset(1).asList();
+    assertEquals(1, accounts.size());
+    accounts = where.offset(2).asList();
+    assertEquals(0, accounts.size());
+  }
+
+  @Test
+  public void testSelect_LimitZero()
+  {
+    final List<QueryEvent> events = new ArrayList<>();
+    QueryListener listener = events::add;
+    DbDefaults.INSTANCE.registerQueryListener(listener);
+    try
+    {
+      assertTrue(where.limit(0).asList().isEmpty());
+      assertTrue(where.offset(1).asList().isEmpty());
+      assertFalse(where.asIterator().hasNext());
+
+      // no element must be returned --> the database is not queried
+      assertEquals(3, events.size());
+      for (QueryEvent event : events)
+      {
+        assertEquals(0, event.getRowsRead());
+        assertEquals(0, event.getSourceNanos());
+      }
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.unregisterQueryListener(listener);
+    }
+  }
+
+  @Test
+  public void testSelect_Limit_JavaCondition()
+  {
+    List<Account> accounts = where.where(createWhereCondition(0.0)).limit(1)
+        .asList();
+    assertEquals(1, accounts.size());
+  }
+
+  @Test
+  public void testStats()
+  {
+    Account recorder = DatabaseQB.getRecorder(Account.class);
+    AggregateResult<Double> stats = where.stats(recorder.getBalance());
+    assertEquals(2, stats.getCount());
+    assertEquals(AccountSetup.HUBER_ACCOUNT.getBalance()
+        + AccountSetup.MAIER_ACCOUNT.getBalance(), stats.getSum());
+  }
+
+  @Test
+  public void testGroupedMap()
+  {
+    Account recorder = DatabaseQB.getRecorder(Account.class);
+    Map<String, List<Account>> results = where.asGroupedMap(recorder
+        .getLastName());
+    assertEquals(2, results.size());
+    assertEquals(1, results.get("huber").size());
+    assertHuberAccount(results.get("huber").get(0));
+
+    Map<String, Number> sums = where.sumBy(recorder.getLastName(), recorder
+        .getBalance());
+    assertEquals(AccountSetup.HUBER_ACCOUNT.getBalance(), sums.get("huber"));
+    assertEquals(AccountSetup.MAIER_ACCOUNT.getBalance(), sums.get("maier"));
+  }
+
+  @Test
+  public void testGroupedResults_QueryCacheNotFilled()
+  {
+    final List<QueryEvent> events = new ArrayList<>();
+    QueryListener listener = events::add;
+    DbDefaults.INSTANCE.registerQueryListener(listener);
+    try
+    {
+      Account recorder = DatabaseQB.getRecorder(Account.class);
+      Map<String, Integer> counts = where.countBy(recorder.getLastName());
+      assertEquals(Integer.valueOf(1), counts.get("huber"));
+
+      Map<String, Number> sums = where.sumBy(recorder.getLastName(), recorder
+          .getBalance());
+      assertEquals(AccountSetup.MAIER_ACCOUNT.getBalance(), sums.get("maier"));
+
+      // the groups are built while streaming the rows
+      assertEquals(2, events.size());
+      for (QueryEvent event : events)
+      {
+        assertEquals(QueryEvent.CacheStatus.NOT_USED, event.getCacheStatus());
+        assertEquals(2, event.getRowsRead());
+      }
+
+      // the rows have not been kept --> they are fetched again
+      assertEquals(2, where.asList().size());
+      assertEquals(QueryEvent.CacheStatus.MISS, events.get(2)
+          .getCacheStatus());
+    }
+    finally
+    {
+      DbDefaults.INSTANCE.unregisterQueryListener(listener);
+    }
+  }
+
+  @Test
+  public void testOrderBy()
+  {
+    Account recorder = DatabaseQB.getRecorder(Account.class);
+    List<Account> accounts = where.orderBy(recorder.getBalance()).asList();
+    assertEquals(2, accounts.size());
+    assertMaierAccount(accounts.get(0));
+    assertHuberAccount(accounts.get(1));
+
+    // the same query is extended by the offset
+    assertHuberAccount(where.offset(1).firstResult());
+  }
+
+  @Test
+  public void testOrderBy_Sql()
+  {
+    String sql = "SELECT id, lname AS lastname, fname AS firstname, creditrating AS creditrating, balance FROM APP.ACCOUNT";
+    Database db = new Database(getDataSource());
+    DbSelectDataSource dataSource = db.getSelectDataSource(sql);
+    BeanMapping<Account> mapping = db.getBeanMapping(AccountImpl.class);
+    mapping.registerJavaTypeHandler(new CreditRatingTypeHandler());
+    mapping.removeField("balance");
+    mapping.addField(new ColumnMapping<>("balance"));
+
+    Account recorder = DatabaseQB.getRecorder(Account.class);
+    List<Account> accounts = DatabaseQB.select(mapping).from(dataSource)
+        .orderBy(recorder.getBalance()).descending().asList(1);
+    assertEquals(1, accounts.size());
+    assertHuberAccount(accounts.get(0));
+
+    // the order is pushed down to the database
+    assertTrue(dataSource.getSql().endsWith(" ORDER BY balance DESC"));
+  }
+
+  @Test
+  public void testLastResult()
+  {
+    Account account = where.where(createWhereCondition(3500.0)).lastResult();
+    assertNotNull(account);
+    assertHuberAccount(account);
+  }
+
+
   /**
    * Given WHERE clause produces one match.
    */
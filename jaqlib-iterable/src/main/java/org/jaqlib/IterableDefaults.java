@@ -1,6 +1,9 @@
 package org.jaqlib;
 
 import org.jaqlib.core.DefaultsDelegate;
+import org.jaqlib.iterable.IterableQuery;
+
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -26,6 +29,9 @@ public class IterableDefaults extends DefaultsDelegate
    */
   public static final IterableDefaults INSTANCE = new IterableDefaults();
 
+  private boolean parallel = false;
+  private ForkJoinPool forkJoinPool;
+
   /**
    * Resets all defaults to their initial values.
    */
@@ -42,6 +48,50 @@ public class IterableDefaults extends DefaultsDelegate
   public void reset()
   {
     super.reset();
+
+    parallel = false;
+    forkJoinPool = null;
+  }
+
+
+  /**
+   * See {@link IterableQuery#setParallel(boolean)}.
+   */
+  public void setParallel(boolean parallel)
+  {
+    this.parallel = parallel;
+  }
+
+
+  /**
+   * See {@link IterableQuery#isParallel()}.
+   */
+  public boolean isParallel()
+  {
+    return parallel;
+  }
+
+
+  /**
+   * See {@link IterableQuery#setForkJoinPool(ForkJoinPool)}.
+   * 
+   * @param forkJoinPool the pool for parallel queries; null for using the
+   *          common pool.
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool)
+  {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+
+  /**
+   * See {@link IterableQuery#getForkJoinPool()}.
+   * 
+   * @return the pool for parallel queries; null if the common pool is used.
+   */
+  public ForkJoinPool getForkJoinPool()
+  {
+    return forkJoinPool;
   }
 
 }
@@ -20,6 +20,8 @@ import org.jaqlib.core.WhereCondition;
 import org.jaqlib.core.bean.BeanMapping;
 import org.jaqlib.core.bean.BeanMappingStrategy;
 import org.jaqlib.iterable.FromClause;
+import org.jaqlib.iterable.IndexedIterable;
+import org.jaqlib.iterable.IterableWhereClause;
 
 
 /**
@@ -78,6 +80,19 @@ public class IterableQB
   }
 
 
+  /**
+   * Generates the proxy classes for the given recorder classes in advance
+   * (e.g. at application startup), so that following calls of
+   * {@link #getRecorder(Class)} only create a new proxy instance.
+   * 
+   * @param recorderClasses the classes resp. interfaces of recorder objects.
+   */
+  public static void warmUp(Class<?>... recorderClasses)
+  {
+    getQueryBuilder().warmUp(recorderClasses);
+  }
+
+
   /**
    * Selects a certain set of objects in a given collection. The collection that
    * should be used must be specified in the returned {@link FromClause}. The
@@ -101,12 +116,21 @@ public class IterableQB
    * @param iterable a not null Iterable for the query.
    * @return a where clause for defining the query conditions.
    */
-  public static <T> WhereClause<T, Iterable<T>> selectFrom(Iterable<T> iterable)
+  public static <T> IterableWhereClause<T> selectFrom(Iterable<T> iterable)
   {
     return getQueryBuilder().selectFrom(iterable);
   }
 
 
+  /**
+   * See {@link IterableQueryBuilder#index(Iterable, Object)}.
+   */
+  public static <T> IndexedIterable<T> index(Iterable<T> iterable, Object key)
+  {
+    return getQueryBuilder().index(iterable, key);
+  }
+
+
   /**
    * See {@link BeanMapping#build(Class)}.
    */
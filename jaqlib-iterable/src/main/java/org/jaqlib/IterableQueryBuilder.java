@@ -16,8 +16,11 @@
 package org.jaqlib;
 
 import org.jaqlib.core.*;
+import org.jaqlib.core.reflect.MethodInvocation;
 import org.jaqlib.iterable.FromClause;
+import org.jaqlib.iterable.IndexedIterable;
 import org.jaqlib.iterable.IterableQueryFactory;
+import org.jaqlib.iterable.IterableWhereClause;
 
 import java.util.*;
 
@@ -338,9 +341,50 @@ public class IterableQueryBuilder extends AbstractQueryBuilder
    *          a not null Iterable for the query.
    * @return a where clause for defining the query conditions.
    */
-  public <T> WhereClause<T, Iterable<T>> selectFrom(Iterable<T> iterable)
+  public <T> IterableWhereClause<T> selectFrom(Iterable<T> iterable)
   {
     return select().from(iterable);
   }
 
+
+  /**
+   * Creates an index for the results of a recorded method call on the
+   * elements of the given Iterable. Queries on the returned
+   * {@link IndexedIterable} use the index instead of evaluating all elements
+   * if a WHERE condition compares the indexed method call (see
+   * {@link IndexedIterable}).
+   * 
+   * <pre>
+   * Account recorder = Jaqlib.List.getRecorder(Account.class);
+   * IndexedIterable&lt;Account&gt; indexed = Jaqlib.List.index(accounts,
+   *     recorder.getId());
+   * Account result = Jaqlib.List.selectFrom(indexed).whereCall(recorder.getId())
+   *     .isEqual(5L).uniqueResult();
+   * </pre>
+   * 
+   * @param iterable a not null Iterable. If it is already an
+   *          {@link IndexedIterable} then the index is added to it; otherwise
+   *          the elements are copied into a new {@link IndexedIterable}.
+   * @param key the result of the recorded method call. This result is only
+   *          needed for type safety. The object itself is not used.
+   * @return the indexed Iterable.
+   */
+  public <T> IndexedIterable<T> index(Iterable<T> iterable, Object key)
+  {
+    final MethodInvocation invocation = getMethodCallRecorder()
+        .getCurrentInvocation();
+
+    IndexedIterable<T> indexed;
+    if (iterable instanceof IndexedIterable<?>)
+    {
+      indexed = (IndexedIterable<T>) iterable;
+    }
+    else
+    {
+      indexed = new IndexedIterable<>(iterable);
+    }
+    indexed.addIndex(invocation);
+    return indexed;
+  }
+
 }
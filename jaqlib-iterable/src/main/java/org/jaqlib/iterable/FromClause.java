@@ -1,6 +1,5 @@
 package org.jaqlib.iterable;
 
-import org.jaqlib.core.WhereClause;
 import org.jaqlib.util.Assert;
 
 
@@ -27,7 +26,7 @@ public class FromClause
    * @param iterable a not null Iterable for the query.
    * @return a where clause for defining the query conditions.
    */
-  public <T> WhereClause<T, Iterable<T>> from(Iterable<T> iterable)
+  public <T> IterableWhereClause<T> from(Iterable<T> iterable)
   {
     return this.<T> createQuery().createWhereClause(iterable);
   }
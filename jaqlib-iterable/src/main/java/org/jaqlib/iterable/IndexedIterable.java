@@ -0,0 +1,171 @@
+package org.jaqlib.iterable;
+
+import org.jaqlib.core.AbstractComparableWhereCondition;
+import org.jaqlib.core.BoundWhereCondition;
+import org.jaqlib.core.Compare;
+import org.jaqlib.core.ReflectiveCompare;
+import org.jaqlib.core.WhereCondition;
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>
+ * {@link Iterable} with secondary indexes for fast lookups on reference data.
+ * The elements of the given Iterable are copied when this object is created;
+ * later changes of the given Iterable are not visible. Indexes are created for
+ * the results of recorded method calls (see
+ * {@link org.jaqlib.IterableQB#index(Iterable, Object)}).
+ * </p>
+ * <p>
+ * When an Iterable query is evaluated on this object and one of the WHERE
+ * conditions that every matching element must fulfill compares an indexed
+ * method call (<tt>isEqual</tt>, <tt>isNull</tt>, <tt>isGreaterThan</tt>,
+ * <tt>isGreaterThanOrEqualTo</tt>, <tt>isSmallerThan</tt> or
+ * <tt>isSmallerThanOrEqualTo</tt>) then only the elements found by the index
+ * are evaluated instead of all elements. The result of the query (including
+ * the order of the elements) is the same as for a non-indexed Iterable.
+ * </p>
+ * This class is thread-safe. It can be shared by many queries.
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the element type.
+ */
+public class IndexedIterable<T> implements Iterable<T>
+{
+
+  private final List<T> elements;
+  private final List<IterableIndex<T>> indexes = new CopyOnWriteArrayList<>();
+
+
+  public IndexedIterable(Iterable<? extends T> iterable)
+  {
+    Assert.notNull(iterable);
+
+    List<T> copy = new ArrayList<>();
+    for (T element : iterable)
+    {
+      copy.add(element);
+    }
+    this.elements = Collections.unmodifiableList(copy);
+  }
+
+
+  /**
+   * Creates an index for the results of the given method call. If such an
+   * index already exists then no action is performed.
+   *
+   * @param invocation a not null recorded method call.
+   */
+  public void addIndex(MethodInvocation invocation)
+  {
+    Assert.notNull(invocation);
+    if (!hasIndex(invocation))
+    {
+      indexes.add(new IterableIndex<>(invocation, elements));
+    }
+  }
+
+
+  /**
+   * @param invocation a recorded method call.
+   * @return true if an index exists for the results of the given method call.
+   */
+  public boolean hasIndex(Invocation invocation)
+  {
+    for (IterableIndex<T> index : indexes)
+    {
+      if (index.getInvocation().equals(invocation))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * Returns the elements that can match all given conditions by using the
+   * indexes of this object. If several conditions can be answered by an index
+   * then the smallest set of elements is returned.
+   *
+   * @param requiredConditions conditions that every matching element must
+   *          fulfill.
+   * @return the candidate elements in the order of this Iterable; null if no
+   *         index can be used (all elements have to be evaluated).
+   */
+  public List<T> getCandidates(
+      List<? extends WhereCondition<? super T>> requiredConditions)
+  {
+    List<T> candidates = null;
+    for (WhereCondition<? super T> condition : requiredConditions)
+    {
+      final ReflectiveCompare<?, ?> compare = getReflectiveCompare(condition);
+      if (compare == null || compare.getInvocation() == null)
+      {
+        continue;
+      }
+
+      for (IterableIndex<T> index : indexes)
+      {
+        List<T> result = index.lookup(compare);
+        if (result != null
+            && (candidates == null || result.size() < candidates.size()))
+        {
+          candidates = result;
+        }
+      }
+    }
+    return candidates;
+  }
+
+
+  private ReflectiveCompare<?, ?> getReflectiveCompare(
+      WhereCondition<?> condition)
+  {
+    Compare<?, ?> compare = null;
+    if (condition instanceof AbstractComparableWhereCondition<?, ?, ?>)
+    {
+      compare = ((AbstractComparableWhereCondition<?, ?, ?>) condition)
+          .getCompare();
+    }
+    else if (condition instanceof BoundWhereCondition<?, ?>)
+    {
+      // condition of a prepared query with a bound parameter
+      compare = ((BoundWhereCondition<?, ?>) condition).getCompare();
+    }
+    return (compare instanceof ReflectiveCompare<?, ?>) ? (ReflectiveCompare<?, ?>) compare
+        : null;
+  }
+
+
+  /**
+   * @return the number of elements.
+   */
+  public int size()
+  {
+    return elements.size();
+  }
+
+
+  public Iterator<T> iterator()
+  {
+    return elements.iterator();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "IndexedIterable[size=" + elements.size() + ", indexes="
+        + indexes.size() + "]";
+  }
+
+}
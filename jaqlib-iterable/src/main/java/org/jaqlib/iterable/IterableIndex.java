@@ -0,0 +1,217 @@
+package org.jaqlib.iterable;
+
+import org.jaqlib.core.IsEqual;
+import org.jaqlib.core.IsGreaterThan;
+import org.jaqlib.core.IsGreaterThanOrEqualTo;
+import org.jaqlib.core.IsNull;
+import org.jaqlib.core.IsSmallerThan;
+import org.jaqlib.core.IsSmallerThanOrEqualTo;
+import org.jaqlib.core.ReflectiveCompare;
+import org.jaqlib.core.reflect.Invocation;
+import org.jaqlib.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index over the elements of an {@link IndexedIterable}. The elements are
+ * indexed by the result of a recorded method call. A hash index is used for
+ * equality comparisons. If all values are mutually comparable then a sorted
+ * index is additionally used for range comparisons. Objects of this class are
+ * immutable and thread-safe.
+ *
+ * @author Werner Fragner
+ *
+ * @param <T> the element type.
+ */
+class IterableIndex<T>
+{
+
+  private final Invocation invocation;
+  private final List<T> elements;
+
+  /**
+   * Positions of the elements by their value. The positions of a value are in
+   * ascending order.
+   */
+  private final Map<Object, int[]> hash;
+
+  /**
+   * Positions of the elements by their non-null value; null if the values are
+   * not mutually comparable.
+   */
+  private final NavigableMap<Object, int[]> sorted;
+
+
+  IterableIndex(Invocation invocation, List<T> elements)
+  {
+    this.invocation = Assert.notNull(invocation);
+    this.elements = Assert.notNull(elements);
+
+    Map<Object, List<Integer>> positions = new HashMap<>();
+    for (int i = 0; i < elements.size(); i++)
+    {
+      final T element = elements.get(i);
+      // null elements are evaluated like null values
+      final Object value = (element != null) ? invocation.invoke(element)
+          : null;
+      List<Integer> valuePositions = positions.get(value);
+      if (valuePositions == null)
+      {
+        valuePositions = new ArrayList<>(1);
+        positions.put(value, valuePositions);
+      }
+      valuePositions.add(i);
+    }
+
+    this.hash = new HashMap<>();
+    for (Map.Entry<Object, List<Integer>> entry : positions.entrySet())
+    {
+      hash.put(entry.getKey(), toArray(entry.getValue()));
+    }
+    this.sorted = createSortedIndex(hash);
+  }
+
+
+  private static int[] toArray(List<Integer> list)
+  {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+
+  private static NavigableMap<Object, int[]> createSortedIndex(
+      Map<Object, int[]> hash)
+  {
+    try
+    {
+      NavigableMap<Object, int[]> sorted = new TreeMap<>();
+      for (Map.Entry<Object, int[]> entry : hash.entrySet())
+      {
+        if (entry.getKey() != null)
+        {
+          sorted.put(entry.getKey(), entry.getValue());
+        }
+      }
+      return sorted;
+    }
+    catch (ClassCastException e)
+    {
+      // values are not comparable; only equality lookups are supported
+      return null;
+    }
+  }
+
+
+  /**
+   * @return the recorded method call whose results are indexed.
+   */
+  Invocation getInvocation()
+  {
+    return invocation;
+  }
+
+
+  /**
+   * @param compare a comparison on the indexed method call.
+   * @return all elements that can match the given comparison in the order of
+   *         the data source; null if the comparison is not supported by this
+   *         index.
+   */
+  List<T> lookup(ReflectiveCompare<?, ?> compare)
+  {
+    if (!invocation.equals(compare.getInvocation()))
+    {
+      return null;
+    }
+
+    final Object expected = compare.getExpected();
+    if (compare instanceof IsEqual<?, ?>)
+    {
+      return toElements(hash.get(expected));
+    }
+    else if (compare instanceof IsNull<?, ?>)
+    {
+      return toElements(hash.get(null));
+    }
+    else if (sorted == null || expected == null)
+    {
+      return null;
+    }
+
+    try
+    {
+      if (compare instanceof IsGreaterThan<?, ?>)
+      {
+        return toElements(sorted.tailMap(expected, false).values());
+      }
+      else if (compare instanceof IsGreaterThanOrEqualTo<?, ?>)
+      {
+        return toElements(sorted.tailMap(expected, true).values());
+      }
+      else if (compare instanceof IsSmallerThan<?, ?>)
+      {
+        return toElements(sorted.headMap(expected, false).values());
+      }
+      else if (compare instanceof IsSmallerThanOrEqualTo<?, ?>)
+      {
+        return toElements(sorted.headMap(expected, true).values());
+      }
+    }
+    catch (ClassCastException e)
+    {
+      // expected value is not comparable to the indexed values; the data
+      // source has to be scanned
+    }
+    return null;
+  }
+
+
+  private List<T> toElements(int[] positions)
+  {
+    if (positions == null)
+    {
+      return Collections.emptyList();
+    }
+
+    List<T> result = new ArrayList<>(positions.length);
+    for (int position : positions)
+    {
+      result.add(elements.get(position));
+    }
+    return result;
+  }
+
+
+  private List<T> toElements(Collection<int[]> positions)
+  {
+    int count = 0;
+    for (int[] valuePositions : positions)
+    {
+      count += valuePositions.length;
+    }
+
+    // restore the order of the data source
+    int[] all = new int[count];
+    int i = 0;
+    for (int[] valuePositions : positions)
+    {
+      System.arraycopy(valuePositions, 0, all, i, valuePositions.length);
+      i += valuePositions.length;
+    }
+    Arrays.sort(all);
+    return toElements(all);
+  }
+
+}
@@ -1,12 +1,30 @@
 package org.jaqlib.iterable;
 
+import org.jaqlib.IterableDefaults;
 import org.jaqlib.core.AbstractQuery;
-import org.jaqlib.core.WhereClause;
+import org.jaqlib.core.AggregationSink;
+import org.jaqlib.core.CountSink;
+import org.jaqlib.core.ElementPredicate;
+import org.jaqlib.core.LastElementSink;
+import org.jaqlib.core.ResultIterator;
+import org.jaqlib.core.ResultLimit;
+import org.jaqlib.core.ResultSink;
+import org.jaqlib.core.reflect.Invocation;
 import org.jaqlib.core.reflect.MethodCallRecorder;
-import org.jaqlib.core.reflect.MethodInvocation;
+import org.jaqlib.util.ExceptionUtil;
 
-import java.util.Collection;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Werner Fragner
@@ -16,29 +34,119 @@ import java.util.Map;
 public class IterableQuery<T> extends AbstractQuery<T, Iterable<T>>
 {
 
+  private boolean parallel = IterableDefaults.INSTANCE.isParallel();
+  private ForkJoinPool forkJoinPool = IterableDefaults.INSTANCE
+      .getForkJoinPool();
+
+
   public IterableQuery(MethodCallRecorder methodCallRecorder)
   {
     super(methodCallRecorder);
   }
 
 
-  public WhereClause<T, Iterable<T>> createWhereClause(Iterable<T> dataSource)
+  public IterableWhereClause<T> createWhereClause(Iterable<T> dataSource)
   {
     setDataSource(dataSource);
-    return new WhereClause<T, Iterable<T>>(this);
+    return new IterableWhereClause<T>(this);
+  }
+
+
+  /**
+   * <p>
+   * Enables or disables the parallel evaluation of this query. If enabled then
+   * the data source is split by its {@link java.util.Spliterator} and the
+   * WHERE conditions are evaluated on the {@link ForkJoinPool} of this query
+   * (see {@link #setForkJoinPool(ForkJoinPool)}). The encounter order of the
+   * data source is kept for list and first results. It is dropped for sets.
+   * </p>
+   * <p>
+   * <b>NOTE: all WHERE conditions and tasks of a parallel query are evaluated
+   * concurrently. So they must be thread-safe.</b>
+   * </p>
+   * By default parallel evaluation is disabled (see
+   * {@link IterableDefaults#setParallel(boolean)}).
+   * 
+   * @param parallel true for evaluating the query in parallel.
+   */
+  public void setParallel(boolean parallel)
+  {
+    this.parallel = parallel;
+  }
+
+
+  /**
+   * @return true if this query is evaluated in parallel.
+   */
+  public boolean isParallel()
+  {
+    return parallel;
+  }
+
+
+  /**
+   * @param forkJoinPool the pool for evaluating parallel queries; null for
+   *          using the common pool.
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool)
+  {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+
+  /**
+   * @return the pool for evaluating parallel queries; null if the common pool
+   *         is used.
+   */
+  public ForkJoinPool getForkJoinPool()
+  {
+    return forkJoinPool;
+  }
+
+
+  @Override
+  protected void addResults(ResultSink<T> result, boolean stopAtFirstMatch)
+  {
+    addResults(result, stopAtFirstMatch, parallel);
   }
 
 
+  /**
+   * The elements are evaluated on the current thread even if this query is
+   * evaluated in parallel. So the sink receives every matching element as
+   * soon as it is read.
+   */
   @Override
-  protected void addResults(Collection<T> result, boolean stopAtFirstMatch)
+  protected void addResultsOnCurrentThread(ResultSink<T> sink)
   {
+    addResults(sink, false, false);
+  }
+
+
+  private void addResults(ResultSink<T> result, boolean stopAtFirstMatch,
+      boolean parallel)
+  {
+    final ResultLimit limit = getLimit();
+    if (limit.isReached(0))
+    {
+      return;
+    }
+
+    final ElementPredicate<T> predicate = getPredicate();
+    if (parallel)
+    {
+      addResultsParallel(result, stopAtFirstMatch, predicate);
+      return;
+    }
+
+    int matchCount = 0;
     for (T element : getIterable())
     {
-      if (tree.matches(element))
+      if (predicate.matches(element) && limit.contains(matchCount++))
       {
         result.add(element);
 
-        if (stopAtFirstMatch)
+        if (stopAtFirstMatch || limit.isReached(matchCount))
         {
           return;
         }
@@ -48,24 +156,222 @@ public class IterableQuery<T> extends AbstractQuery<T, Iterable<T>>
 
 
   @Override
-  protected <KeyType> void addResults(final Map<KeyType, T> resultMap)
+  protected <KeyType> void addResults(final Map<KeyType, T> resultMap,
+      Invocation invocation)
   {
-    final MethodInvocation invocation = getCurrentInvocation();
+    final ResultLimit limit = getLimit();
+    if (limit.isReached(0))
+    {
+      return;
+    }
+
+    final ElementPredicate<T> predicate = getPredicate();
+    if (parallel)
+    {
+      addResultsParallel(resultMap, invocation, predicate);
+      return;
+    }
+
+    int matchCount = 0;
     for (T element : getIterable())
     {
-      if (element != null && tree.matches(element))
+      if (element != null && predicate.matches(element)
+          && limit.contains(matchCount++))
       {
         @SuppressWarnings("unchecked")
         final KeyType elementKey = (KeyType) getKey(element, invocation);
         resultMap.put(elementKey, element);
+
+        if (limit.isReached(matchCount))
+        {
+          return;
+        }
       }
     }
   }
 
 
+  @Override
+  protected ResultIterator<T> createResultIterator(
+      ElementPredicate<T> predicate)
+  {
+    final Iterator<T> it = getIterable().iterator();
+    return new ResultIterator<T>(predicate, getLimit())
+    {
+
+      private T element;
+
+
+      @Override
+      protected boolean readNext()
+      {
+        if (it.hasNext())
+        {
+          element = it.next();
+          return true;
+        }
+        element = null;
+        return false;
+      }
+
+
+      @Override
+      protected T getElement()
+      {
+        return element;
+      }
+
+    };
+  }
+
+
+  private void addResultsParallel(ResultSink<T> result,
+      boolean stopAtFirstMatch, final ElementPredicate<T> predicate)
+  {
+    if (stopAtFirstMatch)
+    {
+      // elements are wrapped because findFirst() does not support null
+      Optional<List<T>> first = execute(() -> limit(stream(true).filter(
+          predicate::matches)).map(Collections::singletonList).findFirst());
+      if (first.isPresent())
+      {
+        result.addAll(first.get());
+      }
+    }
+    else if (result instanceof CountSink<?>)
+    {
+      long count = execute(() -> limit(stream(false).filter(
+          predicate::matches)).count());
+      ((CountSink<T>) result).addCount(count);
+    }
+    else if (result instanceof AggregationSink<?>)
+    {
+      final AggregationSink<T> sink = (AggregationSink<T>) result;
+      sink.combine(execute(() -> limit(stream(false).filter(
+          predicate::matches)).collect(sink::newSink, AggregationSink::add,
+          AggregationSink::combine)));
+    }
+    else if (result instanceof LastElementSink<?>)
+    {
+      Optional<List<T>> last = execute(() -> limit(stream(true).filter(
+          predicate::matches)).map(Collections::singletonList).reduce(
+          (first, second) -> second));
+      if (last.isPresent())
+      {
+        result.addAll(last.get());
+      }
+    }
+    else
+    {
+      // the sink may keep the order of the added elements
+      result.addAll(execute(() -> limit(stream(true).filter(
+          predicate::matches)).collect(Collectors.toList())));
+    }
+  }
+
+
+  private <KeyType> void addResultsParallel(final Map<KeyType, T> resultMap,
+      final Invocation invocation, final ElementPredicate<T> predicate)
+  {
+    // keys are evaluated in parallel; the map is filled in encounter order so
+    // the last element with a certain key wins (as for sequential queries)
+    List<SimpleEntry<Object, T>> entries = execute(() -> limit(stream(true)
+        .filter(e -> e != null && predicate.matches(e))).map(
+        e -> new SimpleEntry<>(getKey(e, invocation), e)).collect(
+        Collectors.toList()));
+
+    for (SimpleEntry<Object, T> entry : entries)
+    {
+      @SuppressWarnings("unchecked")
+      final KeyType elementKey = (KeyType) entry.getKey();
+      resultMap.put(elementKey, entry.getValue());
+    }
+  }
+
+
+  /**
+   * @param ordered if false then the encounter order may be dropped. This is
+   *          only done if no result limit is given because the limit depends
+   *          on the encounter order.
+   * @return a parallel stream over the data source.
+   */
+  private Stream<T> stream(boolean ordered)
+  {
+    Stream<T> stream = StreamSupport.stream(getIterable().spliterator(), true);
+    if (!ordered && !getLimit().isLimited())
+    {
+      stream = stream.unordered();
+    }
+    return stream;
+  }
+
+
+  private Stream<T> limit(Stream<T> matches)
+  {
+    final ResultLimit limit = getLimit();
+    if (limit.getOffset() > 0)
+    {
+      matches = matches.skip(limit.getOffset());
+    }
+    if (limit.hasMaxResults())
+    {
+      matches = matches.limit(limit.getMaxResults());
+    }
+    return matches;
+  }
+
+
+  private <R> R execute(Callable<R> callable)
+  {
+    final ForkJoinPool pool = (forkJoinPool != null) ? forkJoinPool
+        : ForkJoinPool.commonPool();
+    try
+    {
+      return pool.submit(callable).get();
+    }
+    catch (ExecutionException e)
+    {
+      throw ExceptionUtil.toRuntimeException(e.getCause());
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw ExceptionUtil.toRuntimeException(e);
+    }
+  }
+
+
+  /**
+   * @return the elements that have to be evaluated. If the data source is an
+   *         {@link IndexedIterable} then its indexes are used for preselecting
+   *         the elements.
+   */
   private Iterable<T> getIterable()
   {
-    return getDataSource();
+    final Iterable<T> dataSource = getDataSource();
+    if (dataSource instanceof IndexedIterable<?>)
+    {
+      List<T> candidates = ((IndexedIterable<T>) dataSource)
+          .getCandidates(getRequiredConditions());
+      if (candidates != null)
+      {
+        return candidates;
+      }
+    }
+    return dataSource;
+  }
+
+
+  /**
+   * Iterable queries do not change their state while they are executed. So
+   * they can be executed concurrently (see
+   * {@link org.jaqlib.core.PreparedQuery}) if the Iterable supports concurrent
+   * iterations.
+   */
+  @Override
+  protected boolean isReentrant()
+  {
+    return true;
   }
 
 
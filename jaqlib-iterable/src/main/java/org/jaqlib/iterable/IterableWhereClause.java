@@ -0,0 +1,69 @@
+package org.jaqlib.iterable;
+
+import org.jaqlib.core.WhereClause;
+import org.jaqlib.util.Assert;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * WHERE clause for queries on {@link Iterable} objects. Additionally to the
+ * {@link WhereClause} it allows to enable the parallel evaluation of the
+ * query.
+ * 
+ * @author Werner Fragner
+ * 
+ * @param <T> the result element class of the query.
+ */
+public class IterableWhereClause<T> extends WhereClause<T, Iterable<T>>
+{
+
+  private final IterableQuery<T> query;
+
+
+  public IterableWhereClause(IterableQuery<T> query)
+  {
+    super(query);
+    this.query = Assert.notNull(query);
+  }
+
+
+  /**
+   * Evaluates the query in parallel on the default {@link ForkJoinPool} (see
+   * {@link IterableQuery#setParallel(boolean)}).
+   * 
+   * @return this WHERE clause for defining the query conditions.
+   */
+  public IterableWhereClause<T> parallel()
+  {
+    query.setParallel(true);
+    return this;
+  }
+
+
+  /**
+   * Evaluates the query in parallel on the given {@link ForkJoinPool} (see
+   * {@link IterableQuery#setParallel(boolean)}).
+   * 
+   * @param pool a not null fork/join pool.
+   * @return this WHERE clause for defining the query conditions.
+   */
+  public IterableWhereClause<T> parallel(ForkJoinPool pool)
+  {
+    query.setForkJoinPool(Assert.notNull(pool));
+    return parallel();
+  }
+
+
+  /**
+   * Evaluates the query sequentially on the calling thread. This is the
+   * default behavior unless it is changed in the {@link org.jaqlib.IterableDefaults}.
+   * 
+   * @return this WHERE clause for defining the query conditions.
+   */
+  public IterableWhereClause<T> sequential()
+  {
+    query.setParallel(false);
+    return this;
+  }
+
+}
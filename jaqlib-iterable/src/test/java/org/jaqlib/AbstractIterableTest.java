@@ -1,11 +1,13 @@
 package org.jaqlib;
 
+import org.jaqlib.core.AggregateResult;
 import org.jaqlib.core.QueryResultException;
 import org.jaqlib.core.Task;
 import org.jaqlib.core.WhereCondition;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -146,6 +148,107 @@ public abstract class AbstractIterableTest<AccountType extends Account> extends
     assertEquals(0, results.size());
   }
 
+  @Test
+  public void testSelect_Iterator()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    WhereCondition<AccountType> cond = createCompareCondition(4);
+
+    Iterator<AccountType> it = IterableQB.select().from(elements).where(cond)
+        .asIterator();
+    assertTrue(it.hasNext());
+    assertSame(elements.get(1), it.next());
+    assertTrue(it.hasNext());
+    assertSame(elements.get(4), it.next());
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testSelect_Stream()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    AccountType dummy = IterableQB.getRecorder(getAccountClass());
+    try (Stream<AccountType> stream = IterableQB.select().from(elements)
+        .whereCall(dummy.getBalance()).isGreaterThan(4.0).asStream())
+    {
+      assertEquals(15.0, stream.mapToDouble(Account::getBalance).sum());
+    }
+  }
+
+  @Test
+  public void testSelect_ForEach()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    List<AccountType> results = new ArrayList<AccountType>();
+    IterableQB.select().from(elements).where().element().isNull().forEach(
+        results::add);
+    assertEquals(2, results.size());
+  }
+
+  @Test
+  public void testSelect_Limit()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    List<AccountType> results = IterableQB.select().from(elements).where()
+        .element().isNotNull().limit(2).asList();
+    assertEquals(2, results.size());
+    assertSame(elements.get(0), results.get(0));
+    assertSame(elements.get(1), results.get(1));
+
+    assertEquals(1, IterableQB.select().from(elements).asList(1).size());
+  }
+
+  @Test
+  public void testSelect_Offset()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    List<AccountType> results = IterableQB.select().from(elements).where()
+        .element().isNotNull().offset(1).limit(2).asList();
+    assertEquals(2, results.size());
+    assertSame(elements.get(1), results.get(0));
+    assertSame(elements.get(2), results.get(1));
+
+    AccountType first = IterableQB.select().from(elements).where().element()
+        .isNotNull().offset(3).firstResult();
+    assertSame(elements.get(4), first);
+
+    int count = IterableQB.select().from(elements).where().element()
+        .isNotNull().offset(3).count();
+    assertEquals(1, count);
+  }
+
+  @Test
+  public void testSelect_Limit_EarlyTermination()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    MockTask<AccountType> task = new MockTask<AccountType>();
+    IterableQB.select().from(elements).executeWithResult(task).limit(2)
+        .asList();
+    assertEquals(2, task.executeVisited);
+  }
+
+  @Test
+  public void testSelect_LimitZero()
+  {
+    List<AccountType> elements = createTestAccounts();
+
+    // no element must be returned --> the elements are not iterated
+    MockTask<AccountType> task = new MockTask<AccountType>();
+    assertTrue(IterableQB.select().from(elements).executeWithResult(task)
+        .limit(0).asList().isEmpty());
+    assertTrue(IterableQB.select().from(elements).executeWithResult(task)
+        .offset(2).limit(0).asList().isEmpty());
+    assertEquals(0, IterableQB.select().from(elements).executeWithResult(
+        task).limit(0).count());
+    assertEquals(0, task.executeVisited);
+  }
+
   @Test
   public void testSelect_toSet()
   {
@@ -591,6 +694,178 @@ public abstract class AbstractIterableTest<AccountType extends Account> extends
     assertEquals(0, res);
   }
 
+  @Test
+  public void test_Aggregates()
+  {
+    // balances: 1.0, 10.0, null, 5.0 (and two null elements)
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    assertEquals(16.0, IterableQB.select().from(elements).sum(
+        recorder.getBalance()));
+    assertEquals(1.0, IterableQB.select().from(elements).min(
+        recorder.getBalance()));
+    assertEquals(10.0, IterableQB.select().from(elements).max(
+        recorder.getBalance()));
+    assertEquals(7.5, IterableQB.select().from(elements).whereCall(
+        recorder.getBalance()).isGreaterThan(1.0).avg(recorder.getBalance()));
+
+    AggregateResult<Double> stats = IterableQB.select().from(elements).stats(
+        recorder.getBalance());
+    assertEquals(3, stats.getCount());
+    assertEquals(16.0, stats.getSum());
+    assertEquals(1.0, stats.getMin());
+    assertEquals(10.0, stats.getMax());
+  }
+
+  @Test
+  public void test_Aggregates_Integral()
+  {
+    List<AccountType> elements = createTestAccounts();
+    long id = 1;
+    for (AccountType element : elements)
+    {
+      if (element != null)
+      {
+        ((AccountImpl) element).setId(id++);
+      }
+    }
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    // integral values are summed up as long
+    assertEquals(10L, IterableQB.select().from(elements).sum(
+        recorder.getId()));
+    assertEquals(2.5, IterableQB.select().from(elements)
+        .avg(recorder.getId()));
+  }
+
+  @Test
+  public void test_Aggregates_NoMatch()
+  {
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    AggregateResult<Double> stats = IterableQB.select().from(elements)
+        .whereCall(recorder.getBalance()).isGreaterThan(100.0).stats(
+            recorder.getBalance());
+    assertEquals(0, stats.getCount());
+    assertNull(stats.getMin());
+    assertNull(stats.getAverage());
+  }
+
+  @Test
+  public void testSelect_toGroupedMap()
+  {
+    List<AccountType> elements = createTestAccounts();
+    List<AccountType> duplicatedElements = createDuplicatedElements(elements);
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    Map<CreditRating, List<AccountType>> results = IterableQB.select()
+        .from(duplicatedElements).asGroupedMap(recorder.getCreditRating());
+    assertEquals(2, results.size());
+    // the elements of a group are kept in the order of the data source
+    assertEquals(Arrays.asList(duplicatedElements.get(1), elements.get(1)),
+        results.get(CreditRating.GOOD));
+    assertEquals(Arrays.asList(duplicatedElements.get(0), duplicatedElements
+        .get(2), duplicatedElements.get(4), elements.get(0), elements.get(2),
+        elements.get(4)), results.get(CreditRating.POOR));
+  }
+
+  @Test
+  public void testSelect_toGroupedMap_WithCondition()
+  {
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    Map<CreditRating, List<AccountType>> results = IterableQB.select()
+        .from(elements).whereCall(recorder.getBalance()).isGreaterThan(1.0)
+        .asGroupedMap(recorder.getCreditRating());
+    assertEquals(2, results.size());
+    assertEquals(Arrays.asList(elements.get(1)), results
+        .get(CreditRating.GOOD));
+    assertEquals(Arrays.asList(elements.get(4)), results
+        .get(CreditRating.POOR));
+  }
+
+  @Test
+  public void test_GroupedAggregates()
+  {
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    Map<CreditRating, Integer> counts = IterableQB.select().from(elements)
+        .countBy(recorder.getCreditRating());
+    assertEquals(2, counts.size());
+    assertEquals(Integer.valueOf(1), counts.get(CreditRating.GOOD));
+    assertEquals(Integer.valueOf(3), counts.get(CreditRating.POOR));
+
+    Map<CreditRating, Number> sums = IterableQB.select().from(elements).sumBy(
+        recorder.getCreditRating(), recorder.getBalance());
+    assertEquals(10.0, sums.get(CreditRating.GOOD));
+    assertEquals(6.0, sums.get(CreditRating.POOR));
+
+    Map<CreditRating, AggregateResult<Double>> stats = IterableQB.select()
+        .from(elements).statsBy(recorder.getCreditRating(),
+            recorder.getBalance());
+    assertEquals(2, stats.get(CreditRating.POOR).getCount());
+    assertEquals(1.0, stats.get(CreditRating.POOR).getMin());
+    assertEquals(5.0, stats.get(CreditRating.POOR).getMax());
+  }
+
+  @Test
+  public void testSelect_OrderBy()
+  {
+    // balances: 1.0, 10.0, null, 5.0 (and two null elements)
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    List<AccountType> results = IterableQB.select().from(elements).orderBy(
+        recorder.getBalance()).asList();
+    assertEquals(6, results.size());
+    assertSame(elements.get(0), results.get(0));
+    assertSame(elements.get(4), results.get(1));
+    assertSame(elements.get(1), results.get(2));
+    // null values and null elements are put at the end
+    assertSame(elements.get(2), results.get(3));
+    assertNull(results.get(4));
+  }
+
+  @Test
+  public void testSelect_OrderBy_Descending_Limit()
+  {
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    List<AccountType> results = IterableQB.select().from(elements).whereCall(
+        recorder.getBalance()).isNotNull().orderBy(recorder.getBalance())
+        .descending().asList(2);
+    assertEquals(Arrays.asList(elements.get(1), elements.get(4)), results);
+
+    AccountType result = IterableQB.select().from(elements).whereCall(
+        recorder.getBalance()).isNotNull().orderBy(recorder.getBalance())
+        .offset(1).firstResult();
+    assertSame(elements.get(4), result);
+
+    Iterator<AccountType> it = IterableQB.select().from(elements).whereCall(
+        recorder.getBalance()).isNotNull().orderBy(recorder.getBalance())
+        .descending().limit(1).asIterator();
+    assertSame(elements.get(1), it.next());
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testSelect_OrderBy_MultipleKeys()
+  {
+    List<AccountType> elements = createTestAccounts();
+    Account recorder = IterableQB.getRecorder(Account.class);
+
+    List<AccountType> results = IterableQB.select().from(elements).whereCall(
+        recorder.getBalance()).isNotNull().orderBy(recorder.getCreditRating())
+        .orderBy(recorder.getBalance()).descending().asList();
+    assertEquals(Arrays.asList(elements.get(1), elements.get(4), elements
+        .get(0)), results);
+  }
+
   @Test
   public void test_CountDistinct()
   {
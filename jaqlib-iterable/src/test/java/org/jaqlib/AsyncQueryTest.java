@@ -0,0 +1,146 @@
+package org.jaqlib;
+
+import org.jaqlib.core.QueryResultException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the asynchronous execution of Iterable queries.
+ * 
+ * @author Werner Fragner
+ */
+public class AsyncQueryTest extends AbstractJaqLibTest<AccountImpl>
+{
+
+  private List<AccountImpl> accounts;
+  private AccountImpl account1;
+  private AccountImpl account2;
+  private AccountImpl account3;
+
+
+  @Override
+  protected Class<AccountImpl> getAccountClass()
+  {
+    return AccountImpl.class;
+  }
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    account1 = createAccount(10.0, "huber");
+    account1.setId(1L);
+    account2 = createAccount(-5.0, "maier");
+    account2.setId(2L);
+    account3 = createAccount(20.0, "huber");
+    account3.setId(3L);
+    accounts = new ArrayList<>(Arrays.asList(account1, account2, account3));
+  }
+
+
+  @AfterEach
+  public void tearDown()
+  {
+    IterableDefaults.INSTANCE.reset();
+  }
+
+
+  @Test
+  public void testAsListAsync() throws Exception
+  {
+    Account recorder = IterableQB.getRecorder(Account.class);
+    CompletableFuture<List<AccountImpl>> result = IterableQB.selectFrom(
+        accounts).whereCall(recorder.getBalance()).isGreaterThan(0.0)
+        .asListAsync();
+    assertEquals(Arrays.asList(account1, account3), result.get());
+  }
+
+
+  @Test
+  public void testAsMapAsync_RecordedKey() throws Exception
+  {
+    Account recorder = IterableQB.getRecorder(Account.class);
+    CompletableFuture<Map<Long, AccountImpl>> result = IterableQB.selectFrom(
+        accounts).asMapAsync(recorder.getId());
+
+    Map<Long, AccountImpl> map = result.get();
+    assertEquals(3, map.size());
+    assertSame(account2, map.get(2L));
+  }
+
+
+  @Test
+  public void testAsGroupedMapAsync() throws Exception
+  {
+    Account recorder = IterableQB.getRecorder(Account.class);
+    Map<String, List<AccountImpl>> result = IterableQB.selectFrom(accounts)
+        .asGroupedMapAsync(recorder.getLastName()).get();
+    assertEquals(Arrays.asList(account1, account3), result.get("huber"));
+    assertEquals(Arrays.asList(account2), result.get("maier"));
+  }
+
+
+  @Test
+  public void testAsMapAsync_NoRecordedKey()
+  {
+    assertThrows(QueryResultException.class, () -> IterableQB.selectFrom(
+        accounts).asMapAsync(1L));
+  }
+
+
+  @Test
+  public void testCountAsync() throws Exception
+  {
+    CompletableFuture<Integer> result = IterableQB.selectFrom(accounts)
+        .whereCall(Account::getLastName).isEqual("huber").countAsync();
+    assertEquals(Integer.valueOf(2), result.get());
+  }
+
+
+  @Test
+  public void testAsyncExecutor() throws Exception
+  {
+    final AtomicInteger executions = new AtomicInteger();
+    Executor executor = command -> {
+      executions.incrementAndGet();
+      command.run();
+    };
+    IterableDefaults.INSTANCE.setAsyncExecutor(executor);
+    assertSame(executor, IterableDefaults.INSTANCE.getAsyncExecutor());
+
+    assertEquals(account1, IterableQB.selectFrom(accounts).firstResultAsync()
+        .get());
+    assertEquals(1, executions.get());
+
+    IterableQB.selectFrom(accounts).asListAsync(Runnable::run).get();
+    assertEquals(1, executions.get());
+
+    IterableDefaults.INSTANCE.setAsyncExecutor(null);
+    assertNotNull(IterableDefaults.INSTANCE.getAsyncExecutor());
+    assertNotSame(executor, IterableDefaults.INSTANCE.getAsyncExecutor());
+  }
+
+
+  @Test
+  public void testAsyncException()
+  {
+    CompletableFuture<AccountImpl> result = IterableQB.selectFrom(accounts)
+        .uniqueResultAsync();
+    ExecutionException e = assertThrows(ExecutionException.class,
+        result::get);
+    assertTrue(e.getCause() instanceof QueryResultException);
+  }
+
+}
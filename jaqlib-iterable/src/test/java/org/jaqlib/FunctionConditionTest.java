@@ -0,0 +1,140 @@
+package org.jaqlib;
+
+import org.jaqlib.iterable.IndexedIterable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests WHERE conditions, keys and orderings that are given as functions (e.g.
+ * method references) instead of recorded method calls.
+ * 
+ * @author Werner Fragner
+ */
+public class FunctionConditionTest extends AbstractJaqLibTest<AccountImpl>
+{
+
+  private List<AccountImpl> accounts;
+  private AccountImpl account1;
+  private AccountImpl account2;
+  private AccountImpl account3;
+
+
+  @Override
+  protected Class<AccountImpl> getAccountClass()
+  {
+    return AccountImpl.class;
+  }
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    account1 = createAccount(10.0, "huber");
+    account1.setId(1L);
+    account2 = createAccount(-5.0, "maier");
+    account2.setId(2L);
+    account3 = createAccount(20.0, "huber");
+    account3.setId(3L);
+
+    accounts = new ArrayList<>();
+    accounts.add(account1);
+    accounts.add(null);
+    accounts.add(account2);
+    accounts.add(account3);
+  }
+
+
+  @Test
+  public void testWhereCall()
+  {
+    List<AccountImpl> result = IterableQB.selectFrom(accounts).whereCall(
+        Account::getBalance).isGreaterThan(0.0).asList();
+    assertEquals(Arrays.asList(account1, account3), result);
+  }
+
+
+  @Test
+  public void testAndCall_OrCall()
+  {
+    // huber AND (balance < 15 OR id = 3)
+    List<AccountImpl> result = IterableQB.selectFrom(accounts).whereCall(
+        Account::getLastName).isEqual("huber").andCall(Account::getBalance)
+        .isSmallerThan(15.0).orCall(Account::getId).isEqual(3L).asList();
+    assertEquals(Arrays.asList(account1, account3), result);
+  }
+
+
+  @Test
+  public void testWhereCall_MixedWithRecorder()
+  {
+    Account recorder = IterableQB.getRecorder(Account.class);
+    List<AccountImpl> result = IterableQB.selectFrom(accounts).whereCall(
+        recorder.getLastName()).isEqual("huber").andCall(Account::getId)
+        .isNotEqual(1L).asList();
+    assertEquals(Arrays.asList(account3), result);
+  }
+
+
+  @Test
+  public void testAsMap()
+  {
+    Map<Long, AccountImpl> result = IterableQB.selectFrom(accounts).whereCall(
+        Account::getBalance).isNotNull().asMap(Account::getId);
+    assertEquals(3, result.size());
+    assertSame(account1, result.get(1L));
+    assertSame(account2, result.get(2L));
+    assertSame(account3, result.get(3L));
+  }
+
+
+  @Test
+  public void testAsGroupedMap()
+  {
+    Map<String, List<AccountImpl>> result = IterableQB.selectFrom(accounts)
+        .whereCall(Account::getId).isNotNull().asGroupedMap(
+            Account::getLastName);
+    assertEquals(Arrays.asList(account1, account3), result.get("huber"));
+    assertEquals(Arrays.asList(account2), result.get("maier"));
+  }
+
+
+  @Test
+  public void testOrderBy()
+  {
+    List<AccountImpl> result = IterableQB.selectFrom(accounts).whereCall(
+        Account::getId).isNotNull().orderBy(Account::getBalance).descending()
+        .asList();
+    assertEquals(Arrays.asList(account3, account1, account2), result);
+  }
+
+
+  @Test
+  public void testIndexedIterable()
+  {
+    Account recorder = IterableQB.getRecorder(Account.class);
+    IndexedIterable<AccountImpl> indexed = IterableQB.index(accounts,
+        recorder.getId());
+    Function<Account, Long> getId = Account::getId;
+
+    List<AccountImpl> result = IterableQB.selectFrom(indexed).whereCall(getId)
+        .isEqual(2L).asList();
+    assertEquals(Arrays.asList(account2), result);
+  }
+
+
+  @Test
+  public void testWhereCall_Null()
+  {
+    assertThrows(IllegalArgumentException.class, () -> IterableQB.selectFrom(
+        accounts).whereCall((Function<Account, Long>) null));
+  }
+
+}
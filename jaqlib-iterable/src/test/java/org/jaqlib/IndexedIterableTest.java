@@ -0,0 +1,124 @@
+package org.jaqlib;
+
+import org.jaqlib.core.WhereCondition;
+import org.jaqlib.iterable.IndexedIterable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests queries on an {@link IndexedIterable}.
+ * 
+ * @author Werner Fragner
+ */
+public class IndexedIterableTest extends AbstractJaqLibTest<AccountImpl>
+{
+
+  private static final int SIZE = 1000;
+
+  private final AtomicInteger evaluations = new AtomicInteger();
+  private List<AccountImpl> accounts;
+  private Account recorder;
+  private IndexedIterable<AccountImpl> indexed;
+
+
+  @Override
+  protected Class<AccountImpl> getAccountClass()
+  {
+    return AccountImpl.class;
+  }
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    accounts = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++)
+    {
+      AccountImpl account = createAccount((double) (i % 100));
+      account.setId((long) i);
+      accounts.add(account);
+    }
+    accounts.add(null);
+
+    recorder = IterableQB.getRecorder(Account.class);
+    indexed = IterableQB.index(accounts, recorder.getId());
+    indexed = IterableQB.index(indexed, recorder.getBalance());
+  }
+
+
+  private WhereCondition<AccountImpl> createCountingCondition()
+  {
+    return new WhereCondition<AccountImpl>()
+    {
+
+      public boolean evaluate(AccountImpl element)
+      {
+        evaluations.incrementAndGet();
+        return true;
+      }
+
+    };
+  }
+
+
+  @Test
+  public void testIsEqual()
+  {
+    AccountImpl result = IterableQB.selectFrom(indexed).whereCall(
+        recorder.getId()).isEqual(500L).and(createCountingCondition())
+        .uniqueResult();
+    assertSame(accounts.get(500), result);
+    // only the indexed element has been evaluated
+    assertEquals(1, evaluations.get());
+
+    assertNull(IterableQB.selectFrom(indexed).whereCall(recorder.getId())
+        .isEqual(5000L).uniqueResult());
+  }
+
+
+  @Test
+  public void testRange()
+  {
+    List<AccountImpl> expected = IterableQB.selectFrom(accounts).whereCall(
+        recorder.getBalance()).isGreaterThanOrEqualTo(95.0).andCall(
+        recorder.getId()).isSmallerThan(500L).asList();
+    List<AccountImpl> results = IterableQB.selectFrom(indexed).where(
+        createCountingCondition()).andCall(recorder.getBalance())
+        .isGreaterThanOrEqualTo(95.0).andCall(recorder.getId()).isSmallerThan(
+            500L).asList();
+
+    // same elements in the same order as a full scan
+    assertEquals(25, results.size());
+    assertEquals(expected, results);
+    // the smaller index result (balance >= 95) has been evaluated
+    assertEquals(50, evaluations.get());
+  }
+
+
+  @Test
+  public void testOr_NoIndex()
+  {
+    List<AccountImpl> results = IterableQB.selectFrom(indexed).where(
+        createCountingCondition()).orCall(recorder.getId()).isEqual(1L)
+        .asList();
+    assertEquals(SIZE + 1, results.size());
+    assertEquals(SIZE + 1, evaluations.get());
+  }
+
+
+  @Test
+  public void testNotIndexed()
+  {
+    assertEquals(10, IterableQB.selectFrom(indexed).whereCall(
+        recorder.getLastName()).isNull().and(createCountingCondition()).limit(
+        10).asList().size());
+    assertEquals(10, evaluations.get());
+  }
+
+}
@@ -0,0 +1,184 @@
+package org.jaqlib;
+
+import org.jaqlib.core.AggregateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parallel evaluation of Iterable queries.
+ * 
+ * @author Werner Fragner
+ */
+public class IterableQBParallelTest extends AbstractJaqLibTest<AccountImpl>
+{
+
+  private static final int SIZE = 100000;
+
+
+  @Override
+  protected Class<AccountImpl> getAccountClass()
+  {
+    return AccountImpl.class;
+  }
+
+
+  @AfterEach
+  public void tearDown()
+  {
+    IterableDefaults.INSTANCE.reset();
+  }
+
+
+  private List<AccountImpl> createManyAccounts()
+  {
+    List<AccountImpl> accounts = new ArrayList<AccountImpl>(SIZE);
+    for (int i = 0; i < SIZE; i++)
+    {
+      accounts.add(createAccount((double) i));
+    }
+    return accounts;
+  }
+
+
+  @Test
+  public void testSelect_toList_KeepsOrder()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    List<AccountImpl> results = IterableQB.selectFrom(elements).parallel()
+        .whereCall(recorder.getBalance()).isGreaterThanOrEqualTo(10.0)
+        .asList();
+
+    assertEquals(SIZE - 10, results.size());
+    for (int i = 0; i < results.size(); i++)
+    {
+      assertSame(elements.get(i + 10), results.get(i));
+    }
+  }
+
+
+  @Test
+  public void testSelect_FirstResult()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+    elements.add(0, null);
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    AccountImpl result = IterableQB.selectFrom(elements).parallel()
+        .whereCall(recorder.getBalance()).isGreaterThan(SIZE / 2.0)
+        .firstResult();
+    assertSame(elements.get(SIZE / 2 + 2), result);
+
+    // null elements must be returned as first result as well
+    result = IterableQB.selectFrom(elements).parallel().whereElement()
+        .isNull().firstResult();
+    assertNull(result);
+  }
+
+
+  @Test
+  public void testCount_LastResult()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    assertEquals(SIZE / 2, IterableQB.selectFrom(elements).parallel()
+        .whereCall(recorder.getBalance()).isSmallerThan(SIZE / 2.0).count());
+
+    AccountImpl result = IterableQB.selectFrom(elements).parallel().whereCall(
+        recorder.getBalance()).isSmallerThan(SIZE / 2.0).lastResult();
+    assertSame(elements.get(SIZE / 2 - 1), result);
+  }
+
+
+  @Test
+  public void testStats()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    AggregateResult<Double> stats = IterableQB.selectFrom(elements).parallel()
+        .stats(recorder.getBalance());
+    assertEquals(SIZE, stats.getCount());
+    assertEquals(0.0, stats.getMin());
+    assertEquals(SIZE - 1.0, stats.getMax());
+    assertEquals(SIZE * (SIZE - 1.0) / 2, stats.getSum());
+  }
+
+
+  @Test
+  public void testSelect_LimitOffset()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+
+    List<AccountImpl> results = IterableQB.selectFrom(elements).parallel()
+        .offset(10).limit(5).asList();
+    assertEquals(5, results.size());
+    assertSame(elements.get(10), results.get(0));
+    assertSame(elements.get(14), results.get(4));
+  }
+
+
+  @Test
+  public void testSelect_toSet_CustomPool()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try
+    {
+      Account recorder = IterableQB.getRecorder(Account.class);
+      Set<AccountImpl> results = IterableQB.selectFrom(elements).parallel(pool)
+          .whereCall(recorder.getBalance()).isSmallerThan(100.0).asSet();
+      assertEquals(100, results.size());
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+
+  @Test
+  public void testSelect_toMap_Defaults()
+  {
+    IterableDefaults.INSTANCE.setParallel(true);
+
+    List<AccountImpl> elements = createManyAccounts();
+    elements.add(createAccount(1.0));
+
+    Account recorder = IterableQB.getRecorder(Account.class);
+    Map<Double, AccountImpl> results = IterableQB.selectFrom(elements).asMap(
+        recorder.getBalance());
+    assertEquals(SIZE, results.size());
+    // last element with the same key wins
+    assertSame(elements.get(SIZE), results.get(1.0));
+  }
+
+
+  @Test
+  public void testSelect_Exception()
+  {
+    List<AccountImpl> elements = createManyAccounts();
+    try
+    {
+      IterableQB.selectFrom(elements).parallel().where(e -> {
+        throw new IllegalStateException("test");
+      }).asList();
+      fail("Did not throw IllegalStateException");
+    }
+    catch (IllegalStateException e)
+    {
+      // expected
+    }
+  }
+
+}
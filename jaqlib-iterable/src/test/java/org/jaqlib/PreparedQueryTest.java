@@ -0,0 +1,185 @@
+package org.jaqlib;
+
+import org.jaqlib.core.PreparedQuery;
+import org.jaqlib.core.QueryResultException;
+import org.jaqlib.iterable.IndexedIterable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.jaqlib.core.PreparedQuery.param;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PreparedQuery} on Iterables.
+ * 
+ * @author Werner Fragner
+ */
+public class PreparedQueryTest extends AbstractJaqLibTest<AccountImpl>
+{
+
+  private static final int SIZE = 100;
+
+  private List<AccountImpl> accounts;
+  private Account recorder;
+
+
+  @Override
+  protected Class<AccountImpl> getAccountClass()
+  {
+    return AccountImpl.class;
+  }
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    accounts = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++)
+    {
+      AccountImpl account = createAccount((double) i);
+      account.setId((long) i);
+      accounts.add(account);
+    }
+    recorder = IterableQB.getRecorder(Account.class);
+  }
+
+
+  private PreparedQuery<AccountImpl> prepareIdQuery(Iterable<AccountImpl> iterable)
+  {
+    return IterableQB.selectFrom(iterable).whereCall(recorder.getId()).isEqual(
+        PreparedQuery.<Long> param("id")).prepare();
+  }
+
+
+  @Test
+  public void testBind()
+  {
+    PreparedQuery<AccountImpl> query = prepareIdQuery(accounts);
+    assertEquals(Collections.singleton("id"), query.getParameterNames());
+
+    assertSame(accounts.get(5), query.bind("id", 5L).uniqueResult());
+    assertSame(accounts.get(7), query.bind("id", 7L).firstResult());
+    assertEquals(0, query.bind("id", 4711L).count());
+  }
+
+
+  @Test
+  public void testBind_MultipleParameters()
+  {
+    PreparedQuery<AccountImpl> query = IterableQB.selectFrom(accounts)
+        .whereCall(recorder.getBalance()).isGreaterThanOrEqualTo(
+            param("min")).andCall(recorder.getBalance()).isSmallerThan(
+            param("max")).prepare();
+
+    List<AccountImpl> result = query.bind("min", 10.0).bind("max", 15.0)
+        .asList();
+    assertEquals(accounts.subList(10, 15), result);
+  }
+
+
+  @Test
+  public void testBind_FixedValue()
+  {
+    // fixed values are not parameters
+    PreparedQuery<AccountImpl> query = IterableQB.selectFrom(accounts)
+        .whereCall(recorder.getId()).isSmallerThan(3L).andCall(
+            recorder.getId()).isNotEqual(param("id")).prepare();
+
+    assertEquals(2, query.bind("id", 1L).count());
+  }
+
+
+  @Test
+  public void testBind_UnknownParameter()
+  {
+    PreparedQuery<AccountImpl> query = prepareIdQuery(accounts);
+    assertThrows(IllegalArgumentException.class, () -> query.bind("name", 1));
+  }
+
+
+  @Test
+  public void testExecute_Unbound()
+  {
+    PreparedQuery<AccountImpl> query = prepareIdQuery(accounts);
+    assertThrows(IllegalStateException.class, () -> query.asList());
+  }
+
+
+  @Test
+  public void testExecute_NotPrepared()
+  {
+    assertThrows(QueryResultException.class, () -> IterableQB.selectFrom(
+        accounts).whereCall(recorder.getId()).isEqual(
+        PreparedQuery.<Long> param("id")).asList());
+  }
+
+
+  @Test
+  public void testParam_NotPassedToComparison()
+  {
+    param("unused");
+
+    // the parameter must not be recorded by the next comparison
+    assertThrows(IllegalStateException.class, () -> IterableQB.selectFrom(
+        accounts).whereCall(recorder.getId()));
+    assertEquals(0, IterableQB.selectFrom(accounts).whereCall(
+        recorder.getId()).isEqual(null).count());
+  }
+
+
+  @Test
+  public void testBind_IndexedIterable()
+  {
+    IndexedIterable<AccountImpl> indexed = IterableQB.index(accounts, recorder
+        .getId());
+    PreparedQuery<AccountImpl> query = prepareIdQuery(indexed);
+
+    assertSame(accounts.get(42), query.bind("id", 42L).uniqueResult());
+    assertNull(query.bind("id", 4711L).uniqueResult());
+  }
+
+
+  @Test
+  public void testExecute_Concurrently() throws Exception
+  {
+    final PreparedQuery<AccountImpl> query = prepareIdQuery(accounts);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 1000; i++)
+      {
+        final long id = i % SIZE;
+        results.add(executor.submit(new Callable<Boolean>()
+        {
+
+          public Boolean call()
+          {
+            return query.bind("id", id).uniqueResult() == accounts
+                .get((int) id);
+          }
+
+        }));
+      }
+
+      for (Future<Boolean> result : results)
+      {
+        assertTrue(result.get());
+      }
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,184 @@
+package org.jaqlib;
+
+import org.jaqlib.core.ExecutionOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parallel and batched execution of tasks on Iterables.
+ * 
+ * @author Werner Fragner
+ */
+public class TaskExecutionTest
+{
+
+  private static final int SIZE = 1000;
+
+  private List<Integer> numbers;
+
+
+  @BeforeEach
+  public void setUp()
+  {
+    numbers = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++)
+    {
+      numbers.add(i);
+    }
+  }
+
+
+  @Test
+  public void testExecute_Parallel()
+  {
+    final Set<Integer> executed = ConcurrentHashMap.newKeySet();
+    IterableQB.selectFrom(numbers).whereElement().isSmallerThan(500).execute(
+        executed::add, ExecutionOptions.DEFAULT.withParallelism(4));
+
+    assertEquals(500, executed.size());
+    assertTrue(executed.contains(0));
+    assertTrue(executed.contains(499));
+  }
+
+
+  @Test
+  public void testExecuteBatches()
+  {
+    final List<Integer> batchSizes = new ArrayList<>();
+    final List<Integer> executed = new ArrayList<>();
+    IterableQB.selectFrom(numbers).whereElement().isSmallerThan(250)
+        .executeBatches(batch -> {
+          batchSizes.add(batch.size());
+          executed.addAll(batch);
+        }, ExecutionOptions.DEFAULT.withBatchSize(100));
+
+    // a single worker thread keeps the order of the data source
+    assertEquals(Arrays.asList(100, 100, 50), batchSizes);
+    assertEquals(numbers.subList(0, 250), executed);
+  }
+
+
+  @Test
+  public void testExecute_Backpressure()
+  {
+    final AtomicInteger pending = new AtomicInteger();
+    final AtomicInteger maxPending = new AtomicInteger();
+    final List<Integer> executed = Collections
+        .synchronizedList(new ArrayList<>());
+
+    IterableQB.selectFrom(numbers).executeBatches(batch -> {
+      maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+      try
+      {
+        Thread.sleep(1);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+      executed.addAll(batch);
+      pending.decrementAndGet();
+    }, ExecutionOptions.DEFAULT.withParallelism(8).withBatchSize(50)
+        .withMaxPendingBatches(2));
+
+    assertEquals(SIZE, executed.size());
+    assertTrue(maxPending.get() <= 2);
+  }
+
+
+  @Test
+  public void testExecuteBatches_ParallelQuery()
+  {
+    final AtomicInteger read = new AtomicInteger();
+    Iterable<Integer> source = () -> new Iterator<Integer>()
+    {
+
+      private final Iterator<Integer> it = numbers.iterator();
+
+
+      public boolean hasNext()
+      {
+        return it.hasNext();
+      }
+
+
+      public Integer next()
+      {
+        read.incrementAndGet();
+        return it.next();
+      }
+
+    };
+
+    final List<Integer> readBeforeBatch = new ArrayList<>();
+    final List<Integer> executed = new ArrayList<>();
+    IterableQB.selectFrom(source).parallel().executeBatches(batch -> {
+      readBeforeBatch.add(read.get());
+      executed.addAll(batch);
+    }, ExecutionOptions.DEFAULT.withBatchSize(10).withMaxPendingBatches(1));
+
+    // the batches are executed while the elements are read
+    assertTrue(readBeforeBatch.get(0) <= 20);
+    assertEquals(numbers, executed);
+  }
+
+
+  @Test
+  public void testExecute_Exception()
+  {
+    final AtomicInteger executed = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try
+    {
+      IllegalStateException e = assertThrows(IllegalStateException.class,
+          () -> IterableQB.selectFrom(numbers).execute(number -> {
+            if (number == 10)
+            {
+              throw new IllegalStateException("failed");
+            }
+            executed.incrementAndGet();
+          }, ExecutionOptions.DEFAULT.withExecutor(executor)));
+      assertEquals("failed", e.getMessage());
+      assertTrue(executed.get() < SIZE - 1);
+
+      // a custom executor is not shut down
+      assertFalse(executor.isShutdown());
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+
+
+  @Test
+  public void testExecutionOptions()
+  {
+    ExecutionOptions options = ExecutionOptions.DEFAULT.withParallelism(4);
+    assertEquals(4, options.getParallelism());
+    assertEquals(1, options.getBatchSize());
+    assertEquals(8, options.getMaxPendingBatches());
+    assertEquals(3, options.withMaxPendingBatches(3).getMaxPendingBatches());
+
+    assertThrows(IllegalArgumentException.class, () -> options
+        .withParallelism(0));
+    assertThrows(IllegalArgumentException.class, () -> options
+        .withBatchSize(0));
+    assertThrows(IllegalArgumentException.class, () -> options
+        .withMaxPendingBatches(0));
+  }
+
+}
@@ -64,6 +64,19 @@ public class XmlQB
   }
 
 
+  /**
+   * Generates the proxy classes for the given recorder classes in advance
+   * (e.g. at application startup), so that following calls of
+   * {@link #getRecorder(Class)} only create a new proxy instance.
+   * 
+   * @param recorderClasses the classes resp. interfaces of recorder objects.
+   */
+  public static void warmUp(Class<?>... recorderClasses)
+  {
+    getQueryBuilder().warmUp(recorderClasses);
+  }
+
+
   /**
    * <p>
    * Uses a given XPath expression to fill a user-defined Java bean. First the
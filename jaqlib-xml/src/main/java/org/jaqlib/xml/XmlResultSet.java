@@ -390,4 +390,16 @@ public class XmlResultSet implements DsResultSet
     return curNodeIndex < nodes.getLength();
   }
 
+
+  /**
+   * Moves this result set behind the last XML node. The XPath engine is
+   * closed by the {@link XmlSelectDataSource} (see
+   * {@link XmlDataSource#setAutoClose(boolean)}).
+   */
+  @Override
+  public void close()
+  {
+    curNodeIndex = nodes.getLength();
+  }
+
 }
@@ -11,6 +11,10 @@ import org.jaqlib.xml.xpath.XPathEngine;
 import org.w3c.dom.NodeList;
 
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * <p>
@@ -204,6 +208,36 @@ public class XmlSelectDataSource extends XmlDataSource implements
   }
 
 
+  /**
+   * Returns a key consisting of the URL of the XML file, the XPath expression,
+   * the XML namespaces and the attribute/element mode. Null is returned if the
+   * XML file has no valid URL.
+   */
+  @Override
+  public Object getCacheKey()
+  {
+    if (getXmlPath() == null || StringUtil.isEmpty(xPathExpression))
+    {
+      return null;
+    }
+
+    try
+    {
+      List<String> namespaces = new ArrayList<>();
+      for (XmlNamespace namespace : getNamespaces())
+      {
+        namespaces.add(namespace.getPrefix() + "=" + namespace.getUri());
+      }
+      return Arrays.asList(getXmlPath().getURL().toExternalForm(),
+          xPathExpression, namespaces, useAttributes, xPathEngine.getClass());
+    }
+    catch (MalformedURLException e)
+    {
+      return null;
+    }
+  }
+
+
   @Override
   public String toString()
   {